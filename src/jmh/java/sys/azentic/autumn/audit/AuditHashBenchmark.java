@@ -0,0 +1,43 @@
+package sys.azentic.autumn.audit;
+
+import org.openjdk.jmh.annotations.*;
+import sys.azentic.autumn.domain.enums.AuditEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash SHA-256 de la cadena de auditoría (uno por evento registrado).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AuditHashBenchmark {
+
+    private AuditService auditService;
+    private String previousHash;
+    private UUID aggregateId;
+    private AuditEventType eventType;
+    private String payload;
+    private LocalDateTime timestamp;
+
+    @Setup
+    public void setUp() {
+        // calculateHash no usa el repositorio ni el ObjectMapper
+        auditService = new AuditService(null, null);
+        previousHash = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+        aggregateId = UUID.randomUUID();
+        eventType = AuditEventType.TRANSFER_COMPLETED;
+        payload = "{\"transferId\":\"" + aggregateId + "\",\"amount\":250.75,\"status\":\"COMPLETED\"}";
+        timestamp = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public String calculateHash() {
+        return auditService.calculateHash(previousHash, aggregateId, eventType, payload, timestamp);
+    }
+}
@@ -0,0 +1,57 @@
+package sys.azentic.autumn.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import sys.azentic.autumn.domain.enums.TransferStatus;
+import sys.azentic.autumn.dto.response.TransferResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de TransferResponse con el ObjectMapper de JacksonConfig
+ * (el mismo que usan la API, la caché de idempotencia y el outbox).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JacksonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private TransferResponse response;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new JacksonConfig().objectMapper();
+        response = TransferResponse.builder()
+            .id(UUID.randomUUID())
+            .idempotencyKey(UUID.randomUUID())
+            .sourceAccountNumber("1000000001")
+            .destinationAccountNumber("1000000002")
+            .amount(new BigDecimal("250.7500"))
+            .status(TransferStatus.COMPLETED)
+            .description("Pago de servicios")
+            .requiresApproval(false)
+            .createdAt(LocalDateTime.now())
+            .completedAt(LocalDateTime.now())
+            .build();
+        json = objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public TransferResponse deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, TransferResponse.class);
+    }
+}
@@ -0,0 +1,48 @@
+package sys.azentic.autumn.domain.entity;
+
+import org.openjdk.jmh.annotations.*;
+import sys.azentic.autumn.domain.enums.Currency;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aritmética BigDecimal de Account en el camino de cada transferencia.
+ * debitThenCredit deja el saldo igual, así el estado no deriva entre invocaciones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountArithmeticBenchmark {
+
+    private Account account;
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        account = Account.builder()
+            .accountNumber("1000000001")
+            .balance(new BigDecimal("152340.5500"))
+            .currency(Currency.USD)
+            .ownerName("Benchmark")
+            .dailyLimit(new BigDecimal("50000.0000"))
+            .dailyUsed(new BigDecimal("1234.5600"))
+            .build();
+        amount = new BigDecimal("250.75");
+    }
+
+    @Benchmark
+    public BigDecimal debitThenCredit() {
+        account.debit(amount);
+        account.credit(amount);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public boolean canTransfer() {
+        return account.canTransfer(amount);
+    }
+}
@@ -0,0 +1,63 @@
+package sys.azentic.autumn.dto.request;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation de TransferRequest: un request válido (camino normal) y uno con
+ * varias violaciones (interpolación de mensajes incluida).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferRequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private TransferRequest valid;
+    private TransferRequest invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = TransferRequest.builder()
+            .idempotencyKey(UUID.randomUUID())
+            .sourceAccountNumber("1000000001")
+            .destinationAccountNumber("1000000002")
+            .amount(new BigDecimal("250.75"))
+            .description("Pago de servicios")
+            .build();
+        invalid = TransferRequest.builder()
+            .sourceAccountNumber("1000000001")
+            .destinationAccountNumber("1000000001")
+            .amount(new BigDecimal("0.50"))
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransferRequest>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransferRequest>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,76 @@
+package sys.azentic.autumn.mapper;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.domain.enums.Currency;
+import sys.azentic.autumn.domain.enums.TransferStatus;
+import sys.azentic.autumn.dto.response.AccountResponse;
+import sys.azentic.autumn.dto.response.TransferResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mappers generados por MapStruct en las respuestas de la API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private TransferMapper transferMapper;
+    private AccountMapper accountMapper;
+    private Account account;
+    private Transfer transfer;
+
+    @Setup
+    public void setUp() {
+        transferMapper = Mappers.getMapper(TransferMapper.class);
+        accountMapper = Mappers.getMapper(AccountMapper.class);
+        account = Account.builder()
+            .id(UUID.randomUUID())
+            .accountNumber("1000000001")
+            .balance(new BigDecimal("152340.5500"))
+            .currency(Currency.USD)
+            .ownerName("Benchmark")
+            .ownerEmail("benchmark@example.com")
+            .createdAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .build();
+        Account destination = Account.builder()
+            .id(UUID.randomUUID())
+            .accountNumber("1000000002")
+            .balance(BigDecimal.ZERO)
+            .currency(Currency.USD)
+            .ownerName("Destino")
+            .build();
+        transfer = Transfer.builder()
+            .id(UUID.randomUUID())
+            .idempotencyKey(UUID.randomUUID())
+            .sourceAccount(account)
+            .destinationAccount(destination)
+            .amount(new BigDecimal("250.75"))
+            .status(TransferStatus.COMPLETED)
+            .description("Pago de servicios")
+            .createdAt(LocalDateTime.now())
+            .completedAt(LocalDateTime.now())
+            .build();
+    }
+
+    @Benchmark
+    public TransferResponse transferToResponse() {
+        return transferMapper.toResponse(transfer);
+    }
+
+    @Benchmark
+    public AccountResponse accountToResponse() {
+        return accountMapper.toResponse(account);
+    }
+}
@@ -101,8 +101,9 @@ public class AuditService {
 
     /**
      * Calcula el hash SHA-256 del evento.
+     * Visible en el paquete para los microbenchmarks (src/jmh).
      */
-    private String calculateHash(
+    String calculateHash(
             String previousHash,
             UUID aggregateId,
             AuditEventType eventType,
@@ -0,0 +1,201 @@
+package sys.azentic.autumn.balance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sys.azentic.autumn.concurrency.AccountLockOrder;
+import sys.azentic.autumn.domain.entity.Account;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Retención de fondos por transferencia (autorizar / capturar / liberar).
+ * Disponible = saldo total - held_balance.
+ *
+ * - Autorizar: un único UPDATE condicional (verifica disponible y retiene en la misma
+ *   sentencia), sin SELECT ... FOR UPDATE previo, más la fila en balance_holds.
+ *   Incrementa version para que una transacción optimista que leyó el disponible
+ *   anterior falle y reintente.
+ * - Capturar: debita lo retenido. Los fondos ya están reservados, así que no hay
+ *   validación de negocio: una sentencia por cuenta aunque se capturen muchas
+ *   retenciones de la misma cuenta.
+ * - Liberar: solo aumenta el disponible, por eso no incrementa version (un lector
+ *   con el valor anterior es conservador) y no invalida entidades ya cargadas.
+ *
+ * Capturas y liberaciones agregadas recorren las cuentas en el orden de AccountLockOrder,
+ * el mismo orden de locks que los workers, para no generar deadlocks entre lotes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceHoldService {
+
+    private static final String AUTHORIZE_SQL = """
+        UPDATE accounts a
+        SET held_balance = a.held_balance + ?, version = a.version + 1, updated_at = now()
+        WHERE a.id = ?
+          AND a.balance
+              + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+              - a.held_balance >= ?
+        """;
+
+    private static final String INSERT_HOLD_SQL = """
+        INSERT INTO balance_holds (transfer_id, account_id, amount, status, created_at)
+        VALUES (?, ?, ?, 'HELD', now())
+        """;
+
+    private static final String RESOLVE_SQL = """
+        UPDATE balance_holds SET status = ?, resolved_at = now()
+        WHERE transfer_id = ANY(?) AND status = 'HELD'
+        RETURNING transfer_id, account_id, amount
+        """;
+
+    /**
+     * Condicional sobre la parte principal: si no alcanza, la cuenta está particionada
+     * y los fondos retenidos siguen en sub-saldos (ver captureAccount).
+     * Retorna el saldo total resultante (sub-saldos incluidos).
+     */
+    private static final String CAPTURE_SQL = """
+        UPDATE accounts a
+        SET balance = a.balance - ?, held_balance = a.held_balance - ?, version = a.version + 1, updated_at = now()
+        WHERE a.id = ? AND a.balance >= ?
+        RETURNING a.balance
+            + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+        """;
+
+    private static final String RELEASE_SQL = """
+        UPDATE accounts SET held_balance = held_balance - ?
+        WHERE id = ? AND held_balance >= ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceShardService balanceShardService;
+
+    /**
+     * Retención capturada: saldo de la cuenta origen después de ese débito.
+     */
+    public record CapturedHold(UUID transferId, UUID accountId, BigDecimal amount, BigDecimal balanceAfter) {
+    }
+
+    private record ActiveHold(UUID transferId, UUID accountId, BigDecimal amount) {
+    }
+
+    /**
+     * Retiene el monto de una transferencia si el disponible alcanza.
+     * La transferencia debe estar ya persistida (FK de balance_holds).
+     *
+     * @return false si el disponible es insuficiente
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean authorize(Account sourceAccount, UUID transferId, BigDecimal amount) {
+        if (jdbcTemplate.update(AUTHORIZE_SQL, amount, sourceAccount.getId(), amount) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(INSERT_HOLD_SQL, transferId, sourceAccount.getId(), amount);
+        return true;
+    }
+
+    /**
+     * Debita las retenciones activas de las transferencias indicadas.
+     * Las que no están HELD (ya capturadas o liberadas) se omiten.
+     *
+     * @return una captura por transferencia, en orden de cuenta
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<CapturedHold> capture(Collection<UUID> transferIds) {
+        Map<UUID, List<ActiveHold>> byAccount = resolve("CAPTURED", transferIds);
+        List<CapturedHold> captured = new ArrayList<>();
+        byAccount.forEach((accountId, holds) -> {
+            BigDecimal total = holds.stream().map(ActiveHold::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal balanceAfter = captureAccount(accountId, total);
+
+            // Saldo resultante de cada débito, como si se hubieran aplicado uno a uno
+            BigDecimal running = balanceAfter.add(total);
+            for (ActiveHold hold : holds) {
+                running = running.subtract(hold.amount());
+                captured.add(new CapturedHold(hold.transferId(), accountId, hold.amount(), running));
+            }
+        });
+        return captured;
+    }
+
+    /**
+     * Devuelve al disponible las retenciones activas de las transferencias indicadas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Collection<UUID> transferIds) {
+        resolve("RELEASED", transferIds).forEach((accountId, holds) -> {
+            BigDecimal total = holds.stream().map(ActiveHold::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (jdbcTemplate.update(RELEASE_SQL, total, accountId, total) == 0) {
+                throw new IllegalStateException("La cuenta " + accountId + " no tiene retenido " + total);
+            }
+        });
+    }
+
+    /**
+     * Indica si la transferencia tiene fondos retenidos pendientes de capturar.
+     */
+    public boolean isHeld(UUID transferId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM balance_holds WHERE transfer_id = ? AND status = 'HELD')",
+            Boolean.class, transferId));
+    }
+
+    /**
+     * Saldo disponible para nuevas transferencias.
+     */
+    public BigDecimal availableBalance(Account account) {
+        return balanceShardService.totalBalance(account).subtract(account.getHeldBalance());
+    }
+
+    /**
+     * Cambia el estado de las retenciones activas y las agrupa por cuenta (orden de locks).
+     */
+    private Map<UUID, List<ActiveHold>> resolve(String status, Collection<UUID> transferIds) {
+        Map<UUID, List<ActiveHold>> byAccount = new TreeMap<>(AccountLockOrder.COMPARATOR);
+        if (transferIds.isEmpty()) {
+            return byAccount;
+        }
+        jdbcTemplate.query(con -> {
+            Array ids = con.createArrayOf("uuid", transferIds.toArray());
+            var statement = con.prepareStatement(RESOLVE_SQL);
+            statement.setString(1, status);
+            statement.setArray(2, ids);
+            return statement;
+        }, rs -> {
+            ActiveHold hold = new ActiveHold(
+                rs.getObject("transfer_id", UUID.class),
+                rs.getObject("account_id", UUID.class),
+                rs.getBigDecimal("amount"));
+            byAccount.computeIfAbsent(hold.accountId(), id -> new ArrayList<>()).add(hold);
+        });
+        return byAccount;
+    }
+
+    /**
+     * Débito de lo retenido; si la parte principal no alcanza se consolidan los
+     * sub-saldos primero. Retorna el saldo total resultante.
+     */
+    private BigDecimal captureAccount(UUID accountId, BigDecimal amount) {
+        List<BigDecimal> balance = jdbcTemplate.queryForList(CAPTURE_SQL, BigDecimal.class,
+            amount, amount, accountId, amount);
+        if (balance.isEmpty()) {
+            balanceShardService.consolidate(accountId);
+            balance = jdbcTemplate.queryForList(CAPTURE_SQL, BigDecimal.class, amount, amount, accountId, amount);
+        }
+        if (balance.isEmpty()) {
+            throw new IllegalStateException("La cuenta " + accountId + " no cubre lo retenido " + amount);
+        }
+        return balance.get(0);
+    }
+}
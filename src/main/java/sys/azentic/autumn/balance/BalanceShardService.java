@@ -0,0 +1,216 @@
+package sys.azentic.autumn.balance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.exception.AccountNotFoundException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Saldos particionados para cuentas con alto volumen de créditos (fan-in).
+ *
+ * Una cuenta con balance_shards = N tiene N filas en account_balance_shards:
+ * - Crédito: suma en UNA fila elegida por hash del ID de transferencia; no toca
+ *   accounts, así que N créditos concurrentes no compiten por el mismo lock.
+ * - Débito: se aplica sobre accounts.balance (con su @Version/lock). Si la parte
+ *   principal no alcanza se vacían los sub-saldos hacia ella primero; el CHECK
+ *   balance >= 0 sigue protegiendo la fila de accounts.
+ * - Lectura: accounts.balance + SUM(sub-saldos).
+ * - Barrido periódico: consolida los sub-saldos en accounts.balance.
+ *
+ * El balance_after de un crédito particionado es el agregado observado en ese
+ * momento (sin serializar con otros créditos), por eso la verificación de cadena
+ * del replay omite estas cuentas.
+ */
+@Service
+@Slf4j
+public class BalanceShardService {
+
+    private static final String CREDIT_SQL = """
+        UPDATE account_balance_shards SET balance = balance + ?
+        WHERE account_id = ? AND shard = ?
+        """;
+
+    private static final String SHARD_TOTAL_SQL = """
+        SELECT COALESCE(SUM(balance), 0) FROM account_balance_shards WHERE account_id = ?
+        """;
+
+    private static final String DRAIN_SQL = """
+        WITH drained AS (
+            UPDATE account_balance_shards SET balance = 0
+            WHERE account_id = ? AND balance <> 0
+            RETURNING balance
+        )
+        SELECT COALESCE(SUM(balance), 0) FROM drained
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sweptCounter;
+
+    public BalanceShardService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sweptCounter = Counter.builder("autumn.balance.shards.swept")
+            .description("Cuentas particionadas consolidadas por el barrido")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Acredita un monto en un sub-saldo. El saldo principal de la entidad no cambia.
+     *
+     * @param spreadKey clave para elegir el sub-saldo (p. ej. ID de transferencia)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(Account account, UUID spreadKey, BigDecimal amount) {
+        int shard = Math.floorMod(spreadKey.hashCode(), account.getBalanceShards());
+        int updated = jdbcTemplate.update(CREDIT_SQL, amount, account.getId(), shard);
+        if (updated == 0) {
+            throw new IllegalStateException("Sub-saldo " + shard + " inexistente para cuenta " + account.getId());
+        }
+    }
+
+    /**
+     * Saldo total disponible: parte principal + sub-saldos.
+     */
+    public BigDecimal totalBalance(Account account) {
+        if (!account.isSharded()) {
+            return account.getBalance();
+        }
+        return account.getBalance().add(jdbcTemplate.queryForObject(SHARD_TOTAL_SQL, BigDecimal.class, account.getId()));
+    }
+
+    /**
+     * Garantiza que la parte principal cubra un débito, vaciando los sub-saldos
+     * en la entidad si hace falta. La entidad se persiste con el débito (y su @Version).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void prepareDebit(Account account, BigDecimal amount) {
+        if (!account.isSharded() || account.getBalance().compareTo(amount) >= 0) {
+            return;
+        }
+        BigDecimal drained = jdbcTemplate.queryForObject(DRAIN_SQL, BigDecimal.class, account.getId());
+        account.setBalance(account.getBalance().add(drained));
+    }
+
+    /**
+     * Acredita un monto con SQL, sin cargar la entidad: en la parte principal o, si la
+     * cuenta está particionada, en un sub-saldo. Retorna el saldo total resultante.
+     *
+     * @param spreadKey clave para elegir el sub-saldo (p. ej. ID de transferencia)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal creditAccount(UUID accountId, UUID spreadKey, BigDecimal amount) {
+        List<BigDecimal> balance = jdbcTemplate.queryForList("""
+            UPDATE accounts SET balance = balance + ?, version = version + 1, updated_at = now()
+            WHERE id = ? AND balance_shards <= 1
+            RETURNING balance
+            """, BigDecimal.class, amount, accountId);
+        if (!balance.isEmpty()) {
+            return balance.get(0);
+        }
+        List<Integer> shards = jdbcTemplate.queryForList(
+            "SELECT balance_shards FROM accounts WHERE id = ?", Integer.class, accountId);
+        if (shards.isEmpty()) {
+            throw new AccountNotFoundException(accountId);
+        }
+        int shard = Math.floorMod(spreadKey.hashCode(), shards.get(0));
+        if (jdbcTemplate.update(CREDIT_SQL, amount, accountId, shard) == 0) {
+            throw new IllegalStateException("Sub-saldo " + shard + " inexistente para cuenta " + accountId);
+        }
+        return jdbcTemplate.queryForObject("""
+            SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+            FROM accounts a WHERE a.id = ?
+            """, BigDecimal.class, accountId);
+    }
+
+    /**
+     * Consolida los sub-saldos de una cuenta en la parte principal dentro de la
+     * transacción actual (lock de la cuenta primero, mismo orden que el barrido).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void consolidate(UUID accountId) {
+        lockAccount(accountId);
+        foldShards(accountId);
+    }
+
+    /**
+     * Cambia la cantidad de sub-saldos de una cuenta (0 desactiva el particionado).
+     * Consolida primero los sub-saldos existentes en la parte principal.
+     */
+    @Transactional
+    public void configure(UUID accountId, int shards) {
+        if (shards != 0 && (shards < 2 || shards > 256)) {
+            throw new IllegalArgumentException("La cantidad de sub-saldos debe ser 0 o estar entre 2 y 256");
+        }
+        lockAccount(accountId);
+        foldShards(accountId);
+        jdbcTemplate.update("DELETE FROM account_balance_shards WHERE account_id = ?", accountId);
+        if (shards > 0) {
+            jdbcTemplate.update("""
+                INSERT INTO account_balance_shards (account_id, shard, balance)
+                SELECT ?, s, 0 FROM generate_series(0, ? - 1) s
+                """, accountId, shards);
+        }
+        jdbcTemplate.update("""
+            UPDATE accounts SET balance_shards = ?, version = version + 1, updated_at = now()
+            WHERE id = ?
+            """, shards, accountId);
+        log.info("Cuenta {} configurada con {} sub-saldos", accountId, shards);
+    }
+
+    /**
+     * Consolida periódicamente los sub-saldos en accounts.balance.
+     * Cada cuenta en su propia transacción corta: lock de la cuenta primero y luego
+     * sub-saldos (mismo orden que un débito), así no hay deadlocks con débitos.
+     */
+    @Scheduled(fixedDelayString = "${autumn.balance.shards.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<UUID> accounts = jdbcTemplate.queryForList(
+            "SELECT id FROM accounts WHERE balance_shards > 1", UUID.class);
+        for (UUID accountId : accounts) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    lockAccount(accountId);
+                    foldShards(accountId);
+                });
+                sweptCounter.increment();
+            } catch (Exception e) {
+                log.warn("No se pudo consolidar sub-saldos de cuenta {}: {}", accountId, e.getMessage());
+            }
+        }
+    }
+
+    private void lockAccount(UUID accountId) {
+        List<UUID> locked = jdbcTemplate.queryForList(
+            "SELECT id FROM accounts WHERE id = ? FOR UPDATE", UUID.class, accountId);
+        if (locked.isEmpty()) {
+            throw new AccountNotFoundException(accountId);
+        }
+    }
+
+    /**
+     * Mueve los sub-saldos a accounts.balance. Incrementa version para que una
+     * transacción optimista que leyó el saldo anterior falle y reintente.
+     */
+    private void foldShards(UUID accountId) {
+        BigDecimal drained = jdbcTemplate.queryForObject(DRAIN_SQL, BigDecimal.class, accountId);
+        if (drained.signum() > 0) {
+            jdbcTemplate.update("""
+                UPDATE accounts SET balance = balance + ?, version = version + 1, updated_at = now()
+                WHERE id = ?
+                """, drained, accountId);
+        }
+    }
+}
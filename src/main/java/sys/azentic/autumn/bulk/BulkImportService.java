@@ -0,0 +1,231 @@
+package sys.azentic.autumn.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sys.azentic.autumn.dto.response.BulkImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Importación masiva de cuentas, transferencias históricas y asientos del libro mayor.
+ *
+ * Cada importación es una transacción en tres pasos:
+ * 1. COPY del archivo CSV (CopyManager) a una tabla temporal sin índices ni
+ *    restricciones: el archivo se transmite sin pasar por JPA ni por sentencias
+ *    por fila.
+ * 2. ANALYZE de la tabla temporal, para que el merge use hash joins con las
+ *    cardinalidades reales.
+ * 3. Merge con un único INSERT ... SELECT: los índices y las restricciones de la
+ *    tabla destino se mantienen y verifican en una sola pasada.
+ *
+ * Las filas inválidas (referencias inexistentes, montos no positivos, estados no
+ * históricos) y las ya existentes se omiten en el merge, no abortan la importación;
+ * reimportar el mismo archivo no duplica nada.
+ *
+ * Formatos (CSV, encabezado opcional):
+ * - Cuentas: account_number,owner_name,owner_email,currency,balance,status,daily_limit,created_at
+ * - Transferencias: idempotency_key,source_account_number,destination_account_number,
+ *   amount,status,description,created_at,completed_at
+ * - Asientos: transfer_idempotency_key,account_number,type,amount,balance_after,description,created_at
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+
+    private static final String ACCOUNTS_STAGING = """
+        CREATE TEMP TABLE staging_accounts (
+            account_number VARCHAR(20),
+            owner_name VARCHAR(255),
+            owner_email VARCHAR(100),
+            currency VARCHAR(10),
+            balance DECIMAL(19, 4),
+            status VARCHAR(20),
+            daily_limit DECIMAL(19, 4),
+            created_at TIMESTAMP
+        ) ON COMMIT DROP
+        """;
+
+    /**
+     * El saldo importado es el saldo vigente: se registra también como snapshot de
+     * apertura, así la reconciliación no cuenta el historial anterior a la importación.
+     */
+    private static final String ACCOUNTS_MERGE = """
+        WITH inserted AS (
+            INSERT INTO accounts (id, account_number, balance, currency, status, version, owner_name, owner_email,
+                                  daily_limit, daily_used, held_balance, balance_shards, created_at, updated_at)
+            SELECT gen_random_uuid(), s.account_number, s.balance, s.currency, COALESCE(s.status, 'ACTIVE'), 0,
+                   s.owner_name, s.owner_email, COALESCE(s.daily_limit, 50000), 0, 0, 0,
+                   COALESCE(s.created_at, ?), ?
+            FROM (
+                SELECT DISTINCT ON (account_number) *
+                FROM staging_accounts
+                ORDER BY account_number
+            ) s
+            WHERE s.account_number IS NOT NULL AND s.owner_name IS NOT NULL
+              AND s.balance >= 0
+              AND s.currency IN ('USD', 'EUR', 'MXN', 'PEN')
+              AND COALESCE(s.status, 'ACTIVE') IN ('ACTIVE', 'BLOCKED', 'CLOSED')
+            ON CONFLICT DO NOTHING
+            RETURNING id, balance
+        )
+        INSERT INTO account_balance_snapshots (id, account_id, snapshot_at, balance, created_at)
+        SELECT gen_random_uuid(), i.id, ?, i.balance, ?
+        FROM inserted i
+        """;
+
+    private static final String TRANSFERS_STAGING = """
+        CREATE TEMP TABLE staging_transfers (
+            idempotency_key UUID,
+            source_account_number VARCHAR(20),
+            destination_account_number VARCHAR(20),
+            amount DECIMAL(19, 4),
+            status VARCHAR(20),
+            description VARCHAR(500),
+            created_at TIMESTAMP,
+            completed_at TIMESTAMP
+        ) ON COMMIT DROP
+        """;
+
+    /**
+     * Solo estados finales: una transferencia PENDING importada la tomarían los
+     * workers sin fondos retenidos. Los saldos no se tocan (los trae el archivo de cuentas).
+     */
+    private static final String TRANSFERS_MERGE = """
+        INSERT INTO transfers (id, idempotency_key, source_account_id, destination_account_id, amount, status,
+                               description, requires_approval, created_at, updated_at, completed_at)
+        SELECT gen_random_uuid(), s.idempotency_key, src.id, dst.id, s.amount, s.status,
+               s.description, FALSE, s.created_at, COALESCE(s.completed_at, s.created_at), s.completed_at
+        FROM (
+            SELECT DISTINCT ON (idempotency_key) *
+            FROM staging_transfers
+            ORDER BY idempotency_key
+        ) s
+        JOIN accounts src ON src.account_number = s.source_account_number
+        JOIN accounts dst ON dst.account_number = s.destination_account_number
+        WHERE s.idempotency_key IS NOT NULL AND s.created_at IS NOT NULL
+          AND s.amount > 0
+          AND src.id <> dst.id
+          AND s.status IN ('COMPLETED', 'FAILED', 'COMPENSATED')
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String LEDGER_STAGING = """
+        CREATE TEMP TABLE staging_ledger_entries (
+            transfer_idempotency_key UUID,
+            account_number VARCHAR(20),
+            type VARCHAR(10),
+            amount DECIMAL(19, 4),
+            balance_after DECIMAL(19, 4),
+            description VARCHAR(500),
+            created_at TIMESTAMP
+        ) ON COMMIT DROP
+        """;
+
+    /**
+     * Un asiento por tipo y transferencia COMPLETED, sobre la cuenta que corresponde al
+     * tipo (DEBIT: origen, CREDIT: destino); los que ya existen se omiten.
+     */
+    private static final String LEDGER_MERGE = """
+        INSERT INTO ledger_entries (id, transfer_id, account_id, type, amount, balance_after, description, created_at)
+        SELECT gen_random_uuid(), t.id, a.id, s.type, s.amount, s.balance_after, s.description, s.created_at
+        FROM (
+            SELECT DISTINCT ON (transfer_idempotency_key, type) *
+            FROM staging_ledger_entries
+            ORDER BY transfer_idempotency_key, type
+        ) s
+        JOIN transfers t ON t.idempotency_key = s.transfer_idempotency_key
+        JOIN accounts a ON a.account_number = s.account_number
+        WHERE t.status = 'COMPLETED'
+          AND a.id = CASE s.type WHEN 'DEBIT' THEN t.source_account_id WHEN 'CREDIT' THEN t.destination_account_id END
+          AND s.created_at IS NOT NULL
+          AND s.amount > 0 AND s.balance_after >= 0
+          AND NOT EXISTS (
+              SELECT 1 FROM ledger_entries l WHERE l.transfer_id = t.id AND l.type = s.type
+          )
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Importa cuentas nuevas con su saldo vigente. Las existentes (mismo número) se omiten.
+     *
+     * @param content CSV de cuentas
+     * @param header Si la primera línea es un encabezado
+     */
+    public BulkImportResponse importAccounts(InputStream content, boolean header) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return execute("accounts", ACCOUNTS_STAGING, "staging_accounts", content, header,
+            () -> jdbcTemplate.update(ACCOUNTS_MERGE, now, now, now, now));
+    }
+
+    /**
+     * Importa transferencias históricas (estados finales) entre cuentas existentes.
+     *
+     * @param content CSV de transferencias
+     * @param header Si la primera línea es un encabezado
+     */
+    public BulkImportResponse importTransfers(InputStream content, boolean header) {
+        return execute("transfers", TRANSFERS_STAGING, "staging_transfers", content, header,
+            () -> jdbcTemplate.update(TRANSFERS_MERGE));
+    }
+
+    /**
+     * Importa asientos de transferencias ya importadas.
+     *
+     * @param content CSV de asientos
+     * @param header Si la primera línea es un encabezado
+     */
+    public BulkImportResponse importLedgerEntries(InputStream content, boolean header) {
+        return execute("ledger-entries", LEDGER_STAGING, "staging_ledger_entries", content, header,
+            () -> jdbcTemplate.update(LEDGER_MERGE));
+    }
+
+    private BulkImportResponse execute(String type, String stagingDdl, String stagingTable,
+                                       InputStream content, boolean header, IntSupplier merge) {
+        long start = System.nanoTime();
+        log.info("=== IMPORTACIÓN MASIVA DE {} ===", type);
+
+        return transactionTemplate.execute(status -> {
+            // PASO 1: Tabla temporal (se elimina al confirmar) y COPY del archivo
+            jdbcTemplate.execute(stagingDdl);
+            long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try {
+                    return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY " + stagingTable + " FROM STDIN WITH (FORMAT csv, HEADER " + header + ")", content);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo leer el archivo de importación", e);
+                }
+            });
+            log.info("Importación {}: {} filas copiadas a {}", type, staged, stagingTable);
+
+            // PASO 2: Estadísticas de la tabla temporal para el plan del merge
+            jdbcTemplate.execute("ANALYZE " + stagingTable);
+
+            // PASO 3: Merge en una sola sentencia
+            int inserted = merge.getAsInt();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("=== IMPORTACIÓN {} COMPLETADA === Insertadas: {} - Omitidas: {} - {} ms",
+                type, inserted, staged - inserted, elapsedMs);
+
+            return BulkImportResponse.builder()
+                .type(type)
+                .rowsStaged(staged)
+                .rowsInserted((long) inserted)
+                .rowsSkipped(staged - inserted)
+                .elapsedMs(elapsedMs)
+                .build();
+        });
+    }
+}
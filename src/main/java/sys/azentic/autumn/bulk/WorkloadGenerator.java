@@ -0,0 +1,387 @@
+package sys.azentic.autumn.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import sys.azentic.autumn.dto.response.BulkImportResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Generador de datos sintéticos con cardinalidades de producción (perfil "generator").
+ *
+ * Uso (junto con el perfil de la base destino):
+ *   mvn spring-boot:run -Dspring-boot.run.profiles=dev,generator \
+ *       -Dspring-boot.run.arguments="--autumn.generator.accounts=1000000 --autumn.generator.transfers=10000000"
+ *
+ * - Popularidad de cuentas Zipf (autumn.generator.zipf-exponent): pocas cuentas
+ *   concentran la mayoría de las transferencias, como origen y como destino.
+ * - Montos log-normales (mediana ~120, cola larga hasta el umbral de aprobación),
+ *   parte de ellos redondos. Saldos iniciales también log-normales.
+ * - Llegadas de Poisson a lo largo de autumn.generator.days con ciclo diario: poco
+ *   tráfico de madrugada, pico en horario laboral.
+ * - Las transferencias se simulan en orden cronológico contra el saldo de cada
+ *   cuenta: las que no tienen fondos quedan FAILED, sin asientos. Los asientos
+ *   completados traen su balance_after y el saldo final de cada cuenta cuadra con
+ *   su libro mayor.
+ *
+ * Todo se escribe por el camino COPY de BulkImportService, sin archivos intermedios:
+ * cuentas (con su saldo final), transferencias y asientos. La simulación se repite
+ * con la misma semilla para cada archivo en lugar de guardar millones de filas en
+ * memoria; solo se mantiene un arreglo de saldos.
+ *
+ * Reejecutar con la misma semilla y prefijo no duplica nada (las importaciones omiten
+ * lo existente). Cada conjunto de datos debe usar un prefijo de cuenta propio.
+ */
+@Component
+@Profile("generator")
+@Slf4j
+public class WorkloadGenerator implements ApplicationRunner {
+
+    private static final String[] DESCRIPTIONS = {
+        "Pago de servicios", "Transferencia", "Alquiler", "Reembolso", "Pago a proveedor", "Nómina", "Compra"
+    };
+
+    /**
+     * Probabilidad de que una transferencia con fondos falle por otra causa.
+     */
+    private static final double FAILURE_RATE = 0.01;
+
+    private static final long SOURCE_STRIDE = 1_000_003L;
+    private static final long DESTINATION_STRIDE = 999_983L;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * Intensidad relativa del tráfico por hora del día.
+     */
+    private static final double[] HOURLY_WEIGHT = {
+        0.15, 0.10, 0.08, 0.08, 0.10, 0.20, 0.40, 0.70, 1.00, 1.20, 1.30, 1.30,
+        1.20, 1.20, 1.30, 1.30, 1.20, 1.10, 1.00, 0.90, 0.80, 0.60, 0.40, 0.25
+    };
+    private static final double AVERAGE_WEIGHT;
+
+    static {
+        double sum = 0;
+        for (double weight : HOURLY_WEIGHT) {
+            sum += weight;
+        }
+        AVERAGE_WEIGHT = sum / HOURLY_WEIGHT.length;
+    }
+
+    private final BulkImportService bulkImportService;
+    private final ConfigurableApplicationContext context;
+    private final int accounts;
+    private final long transfers;
+    private final double zipfExponent;
+    private final int days;
+    private final long seed;
+    private final String accountPrefix;
+    private final long maxAmountCents;
+    private final boolean exitOnFinish;
+
+    private long endMillis;
+    private long startMillis;
+
+    /**
+     * Transferencia simulada con los saldos resultantes (si se completó).
+     */
+    private record GeneratedTransfer(long index, int source, int destination, long amountCents, boolean completed,
+                                     long createdAtMillis, long sourceAfterCents, long destinationAfterCents,
+                                     String description) {
+    }
+
+    public WorkloadGenerator(
+            BulkImportService bulkImportService,
+            ConfigurableApplicationContext context,
+            @Value("${autumn.generator.accounts:100000}") int accounts,
+            @Value("${autumn.generator.transfers:1000000}") long transfers,
+            @Value("${autumn.generator.zipf-exponent:1.07}") double zipfExponent,
+            @Value("${autumn.generator.days:90}") int days,
+            @Value("${autumn.generator.seed:42}") long seed,
+            @Value("${autumn.generator.account-prefix:SYN}") String accountPrefix,
+            @Value("${autumn.transfer.max-amount-without-approval:10000.00}") BigDecimal maxAmount,
+            @Value("${autumn.generator.exit-on-finish:true}") boolean exitOnFinish) {
+        if (accounts < 2) {
+            throw new IllegalArgumentException("autumn.generator.accounts debe ser al menos 2");
+        }
+        if (accountPrefix.length() > 8) {
+            throw new IllegalArgumentException("autumn.generator.account-prefix admite hasta 8 caracteres");
+        }
+        this.bulkImportService = bulkImportService;
+        this.context = context;
+        this.accounts = accounts;
+        this.transfers = transfers;
+        this.zipfExponent = zipfExponent;
+        this.days = days;
+        this.seed = seed;
+        this.accountPrefix = accountPrefix;
+        this.maxAmountCents = maxAmount.movePointRight(2).longValue();
+        this.exitOnFinish = exitOnFinish;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("=== GENERANDO DATOS SINTÉTICOS === Cuentas: {} - Transferencias: {} - Zipf: {} - Días: {} - Semilla: {}",
+            accounts, transfers, zipfExponent, days, seed);
+        long start = System.nanoTime();
+        endMillis = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toInstant(ZoneOffset.UTC).toEpochMilli();
+        startMillis = endMillis - days * 24L * HOUR_MILLIS;
+
+        // PASO 1: Simulación completa para conocer el saldo final de cada cuenta
+        long[] finalBalances = simulate(transfer -> { });
+
+        // PASO 2: Cuentas con su saldo final
+        BulkImportResponse accountsResult = copy(bulkImportService::importAccounts, writer -> {
+            for (int i = 0; i < accounts; i++) {
+                writer.write(accountNumber(i));
+                writer.write(",Cliente Sintético ");
+                writer.write(Integer.toString(i));
+                writer.write(',');
+                writer.write(accountPrefix.toLowerCase(Locale.ROOT));
+                writer.write(Integer.toString(i));
+                writer.write("@example.com,USD,");
+                writer.write(money(finalBalances[i]));
+                writer.write(",ACTIVE,,");
+                writer.write(timestamp(startMillis));
+                writer.write('\n');
+            }
+        });
+
+        // PASO 3: Transferencias (misma semilla, mismas decisiones)
+        BulkImportResponse transfersResult = copy(bulkImportService::importTransfers, writer ->
+            simulate(transfer -> write(writer, transfer, this::writeTransfer)));
+
+        // PASO 4: Asientos de las completadas
+        BulkImportResponse ledgerResult = copy(bulkImportService::importLedgerEntries, writer ->
+            simulate(transfer -> {
+                if (transfer.completed()) {
+                    write(writer, transfer, this::writeLedgerEntries);
+                }
+            }));
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long rows = accountsResult.getRowsStaged() + transfersResult.getRowsStaged() + ledgerResult.getRowsStaged();
+        log.info("=== DATOS SINTÉTICOS GENERADOS === Cuentas: {} - Transferencias: {} - Asientos: {} - {} ms ({} filas/s)",
+            accountsResult.getRowsInserted(), transfersResult.getRowsInserted(), ledgerResult.getRowsInserted(),
+            elapsedMs, elapsedMs == 0 ? rows : rows * 1000 / elapsedMs);
+
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    /**
+     * Recorre todas las transferencias en orden cronológico y retorna los saldos finales.
+     * Determinista: con la misma semilla produce siempre la misma secuencia.
+     */
+    private long[] simulate(Consumer<GeneratedTransfer> sink) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] balances = new long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            balances[i] = logNormalCents(random, 2_500, 1.5, 0, 500_000_000L);
+        }
+
+        ZipfSampler zipf = new ZipfSampler(accounts, zipfExponent);
+        double baseGap = (double) (endMillis - startMillis) / Math.max(transfers, 1);
+        double time = startMillis;
+        for (long i = 0; i < transfers; i++) {
+            // Poisson no homogéneo: el intervalo medio se acorta en las horas de más tráfico
+            int hour = (int) (((long) time / HOUR_MILLIS) % 24);
+            time += -Math.log(1 - random.nextDouble()) * baseGap * AVERAGE_WEIGHT / HOURLY_WEIGHT[hour];
+            long createdAt = Math.min((long) time, endMillis);
+
+            int source = accountIndex(zipf.sample(random), SOURCE_STRIDE);
+            int destination;
+            do {
+                destination = accountIndex(zipf.sample(random), DESTINATION_STRIDE);
+            } while (destination == source);
+            long amount = logNormalCents(random, 120, 1.1, 100, maxAmountCents);
+            if (random.nextDouble() < 0.3) {
+                amount = Math.max(100, amount / 100 * 100);
+            }
+            boolean declined = random.nextDouble() < FAILURE_RATE;
+            String description = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+
+            boolean completed = !declined && balances[source] >= amount;
+            if (completed) {
+                balances[source] -= amount;
+                balances[destination] += amount;
+            }
+            sink.accept(new GeneratedTransfer(i, source, destination, amount, completed, createdAt,
+                balances[source], balances[destination], description));
+        }
+        return balances;
+    }
+
+    private void writeTransfer(Writer writer, GeneratedTransfer transfer) throws IOException {
+        String createdAt = timestamp(transfer.createdAtMillis());
+        writer.write(idempotencyKey(transfer.index()).toString());
+        writer.write(',');
+        writer.write(accountNumber(transfer.source()));
+        writer.write(',');
+        writer.write(accountNumber(transfer.destination()));
+        writer.write(',');
+        writer.write(money(transfer.amountCents()));
+        writer.write(transfer.completed() ? ",COMPLETED," : ",FAILED,");
+        writer.write(transfer.description());
+        writer.write(',');
+        writer.write(createdAt);
+        writer.write(',');
+        if (transfer.completed()) {
+            writer.write(createdAt);
+        }
+        writer.write('\n');
+    }
+
+    private void writeLedgerEntries(Writer writer, GeneratedTransfer transfer) throws IOException {
+        String key = idempotencyKey(transfer.index()).toString();
+        String amount = money(transfer.amountCents());
+        String createdAt = timestamp(transfer.createdAtMillis());
+        writeLedgerEntry(writer, key, accountNumber(transfer.source()), "DEBIT", amount,
+            money(transfer.sourceAfterCents()), transfer.description(), createdAt);
+        writeLedgerEntry(writer, key, accountNumber(transfer.destination()), "CREDIT", amount,
+            money(transfer.destinationAfterCents()), transfer.description(), createdAt);
+    }
+
+    private static void writeLedgerEntry(Writer writer, String key, String accountNumber, String type, String amount,
+                                         String balanceAfter, String description, String createdAt) throws IOException {
+        writer.write(key);
+        writer.write(',');
+        writer.write(accountNumber);
+        writer.write(',');
+        writer.write(type);
+        writer.write(',');
+        writer.write(amount);
+        writer.write(',');
+        writer.write(balanceAfter);
+        writer.write(',');
+        writer.write(description);
+        writer.write(',');
+        writer.write(createdAt);
+        writer.write('\n');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer writer, GeneratedTransfer transfer) throws IOException;
+    }
+
+    private static void write(Writer writer, GeneratedTransfer transfer, RowWriter rowWriter) {
+        try {
+            rowWriter.write(writer, transfer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CsvProducer {
+        void produce(Writer writer) throws IOException;
+    }
+
+    /**
+     * Conecta un productor de CSV con una importación COPY a través de un pipe:
+     * las filas se generan a la velocidad a la que PostgreSQL las consume.
+     */
+    private BulkImportResponse copy(Function<InputStream, BulkImportResponse> importer, CsvProducer producer) {
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        PipedInputStream input = new PipedInputStream(1 << 20);
+        Thread writerThread;
+        try {
+            PipedOutputStream output = new PipedOutputStream(input);
+            writerThread = Thread.ofPlatform().name("generator-writer").start(() -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+                try {
+                    producer.produce(writer);
+                    writer.close();
+                } catch (IOException | RuntimeException e) {
+                    // Sin cerrar el pipe: el COPY recibe "Write end dead" y la importación se revierte
+                    failure.set(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            BulkImportResponse response = importer.apply(input);
+            if (failure.get() != null) {
+                throw new IllegalStateException("Error generando datos", failure.get());
+            }
+            return response;
+        } finally {
+            // Si la importación falló, cerrar el pipe desbloquea al productor
+            try {
+                input.close();
+                writerThread.join();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el pipe del generador: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long logNormalCents(SplittableRandom random, double median, double sigma, long minCents, long maxCents) {
+        long cents = Math.round(median * Math.exp(sigma * random.nextGaussian()) * 100);
+        return Math.min(Math.max(cents, minCents), maxCents);
+    }
+
+    /**
+     * Rango de popularidad → índice de cuenta. Multiplicar por un primo mayor que el
+     * número de cuentas es una permutación: las cuentas populares quedan repartidas y
+     * no coinciden como origen y como destino.
+     */
+    private int accountIndex(int rank, long stride) {
+        long multiplier = accounts % stride == 0 ? 1 : stride;
+        return (int) (((rank - 1L) * multiplier) % accounts);
+    }
+
+    private String accountNumber(int index) {
+        String digits = Integer.toString(index);
+        StringBuilder number = new StringBuilder(accountPrefix.length() + 12).append(accountPrefix);
+        for (int i = digits.length(); i < 12; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    private UUID idempotencyKey(long index) {
+        return UUID.nameUUIDFromBytes((accountPrefix + ":" + seed + ":" + index).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String money(long cents) {
+        long fraction = cents % 100;
+        return (cents / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static String timestamp(long epochMillis) {
+        return TIMESTAMP.format(LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+            (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC));
+    }
+}
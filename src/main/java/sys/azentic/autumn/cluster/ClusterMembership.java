@@ -0,0 +1,114 @@
+package sys.azentic.autumn.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Nodos vivos del clúster, registrados en Redis con heartbeats.
+ *
+ * Cada nodo publica su ID y su URL interna en un sorted set cuyo score es el
+ * vencimiento del heartbeat (reloj de Redis, no del nodo: un nodo con el reloj
+ * adelantado no se mantiene vivo de más). El mismo script purga los vencidos y
+ * retorna la lista actual, así que un nodo que se cae desaparece de la vista de
+ * todos en a lo sumo un TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "autumn.cluster.enabled", havingValue = "true")
+@Slf4j
+public class ClusterMembership {
+
+    static final String MEMBERS_KEY = "autumn:cluster:members";
+    static final String URLS_KEY = "autumn:cluster:urls";
+
+    private static final RedisScript<List> HEARTBEAT = new DefaultRedisScript<>("""
+        local t = redis.call('TIME')
+        local now = t[1] * 1000 + math.floor(t[2] / 1000)
+        redis.call('ZADD', KEYS[1], now + tonumber(ARGV[3]), ARGV[1])
+        redis.call('HSET', KEYS[2], ARGV[1], ARGV[2])
+        local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', now)
+        for _, node in ipairs(expired) do
+            redis.call('HDEL', KEYS[2], node)
+        end
+        redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+        return redis.call('ZRANGE', KEYS[1], 0, -1)
+        """, List.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String nodeId;
+    private final String advertisedUrl;
+    private final long ttlMs;
+    private volatile List<String> members = List.of();
+    private volatile Map<Object, Object> urls = Map.of();
+
+    public ClusterMembership(
+            RedisTemplate<String, Object> redisTemplate,
+            @Value("${autumn.node-id:local}") String nodeId,
+            @Value("${autumn.cluster.advertised-url:http://localhost:8080}") String advertisedUrl,
+            @Value("${autumn.cluster.lease-ms:6000}") long ttlMs) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+        this.advertisedUrl = advertisedUrl;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Renueva el heartbeat de este nodo y actualiza la vista de miembros.
+     *
+     * @return nodos vivos ordenados por ID, o la vista anterior si Redis no responde
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> heartbeat() {
+        try {
+            List<String> alive = redisTemplate.execute(HEARTBEAT, RedisSerializer.string(), RedisSerializer.string(),
+                List.of(MEMBERS_KEY, URLS_KEY), nodeId, advertisedUrl, Long.toString(ttlMs));
+            if (!alive.equals(members)) {
+                log.info("Miembros del clúster: {}", alive);
+            }
+            members = List.copyOf(alive);
+            urls = redisTemplate.opsForHash().entries(URLS_KEY);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo renovar el heartbeat del nodo {}: {}", nodeId, e.getMessage());
+        }
+        return members;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    /**
+     * URL interna de un nodo vivo.
+     */
+    public Optional<String> urlOf(String node) {
+        return Optional.ofNullable(urls.get(node)).map(Object::toString);
+    }
+
+    /**
+     * Salida ordenada: los demás nodos rebalancean sin esperar al vencimiento del TTL.
+     */
+    @PreDestroy
+    public void leave() {
+        try {
+            redisTemplate.opsForZSet().remove(MEMBERS_KEY, nodeId);
+            redisTemplate.opsForHash().delete(URLS_KEY, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo retirar el nodo {} del clúster: {}", nodeId, e.getMessage());
+        }
+    }
+}
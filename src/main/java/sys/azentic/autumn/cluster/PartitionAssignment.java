@@ -0,0 +1,241 @@
+package sys.azentic.autumn.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Asignación de particiones de cuentas entre los nodos del clúster.
+ *
+ * - Partición: hash del número de cuenta % N (el request trae el número, así que
+ *   se enruta sin consultar la base).
+ * - Dueño deseado: rendezvous hashing sobre los nodos vivos. Cuando un nodo entra o
+ *   sale solo se mueven las particiones que ganaba o tenía ese nodo (~N/nodos).
+ * - Dueño efectivo: quien tiene el lease de la partición en Redis (SET NX PX con el
+ *   ID del nodo). El dueño anterior suelta las que ya no le corresponden en su
+ *   siguiente ciclo y el nuevo las toma en el suyo, así nunca hay dos dueños.
+ *
+ * La propiedad de una partición es una optimización (serializar por cuenta en un
+ * solo nodo), no la garantía de consistencia: mientras una partición no tiene
+ * dueño, o si el dueño no responde, cualquier nodo procesa la transferencia y la
+ * base de datos sigue validando saldos con sus retenciones y locks.
+ */
+@Component
+@ConditionalOnProperty(name = "autumn.cluster.enabled", havingValue = "true")
+@Slf4j
+public class PartitionAssignment {
+
+    private static final String PARTITION_KEY_PREFIX = "autumn:cluster:partition:";
+
+    /**
+     * Toma o renueva cada lease; retorna cuántas particiones quedan en manos del nodo.
+     */
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+        local held = 0
+        for _, key in ipairs(KEYS) do
+            if redis.call('GET', key) == ARGV[1] then
+                redis.call('PEXPIRE', key, ARGV[2])
+                held = held + 1
+            elseif redis.call('SET', key, ARGV[1], 'NX', 'PX', ARGV[2]) then
+                held = held + 1
+            end
+        end
+        return held
+        """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+        local released = 0
+        for _, key in ipairs(KEYS) do
+            if redis.call('GET', key) == ARGV[1] then
+                released = released + redis.call('DEL', key)
+            end
+        end
+        return released
+        """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ClusterMembership membership;
+    private final int partitions;
+    private final long leaseMs;
+    private final long heartbeatIntervalMs;
+    private final List<String> partitionKeys;
+    private final AtomicReferenceArray<String> owners;
+    private volatile BitSet owned = new BitSet();
+    // Hilo propio: un job largo en el scheduler compartido no debe dejar vencer los leases
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("cluster-heartbeat").daemon(true).factory());
+
+    public PartitionAssignment(
+            RedisTemplate<String, Object> redisTemplate,
+            ClusterMembership membership,
+            MeterRegistry meterRegistry,
+            @Value("${autumn.cluster.partitions:256}") int partitions,
+            @Value("${autumn.cluster.lease-ms:6000}") long leaseMs,
+            @Value("${autumn.cluster.heartbeat-interval-ms:2000}") long heartbeatIntervalMs) {
+        this.redisTemplate = redisTemplate;
+        this.membership = membership;
+        this.partitions = partitions;
+        this.leaseMs = leaseMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.owners = new AtomicReferenceArray<>(partitions);
+        List<String> keys = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            keys.add(PARTITION_KEY_PREFIX + p);
+        }
+        this.partitionKeys = List.copyOf(keys);
+        Gauge.builder("autumn.cluster.partitions.owned", this, assignment -> assignment.owned.cardinality())
+            .description("Particiones de cuentas con lease en este nodo")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Partición de una cuenta.
+     */
+    public int partitionOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), partitions);
+    }
+
+    /**
+     * Nodo dueño de la cuenta según la última vista, si la partición tiene lease.
+     */
+    public Optional<String> ownerOf(String accountNumber) {
+        return Optional.ofNullable(owners.get(partitionOf(accountNumber)));
+    }
+
+    public boolean isLocal(String accountNumber) {
+        return owned.get(partitionOf(accountNumber));
+    }
+
+    @PostConstruct
+    void start() {
+        heartbeats.scheduleWithFixedDelay(this::rebalance, 0, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Un ciclo: heartbeat, rebalanceo de leases y refresco de la tabla de dueños.
+     * El intervalo debe ser bastante menor que lease-ms (p. ej. un tercio).
+     */
+    public void rebalance() {
+        try {
+            List<String> members = membership.heartbeat();
+            if (members.isEmpty()) {
+                return;
+            }
+            
+            List<String> desired = new ArrayList<>();
+            List<String> surrendered = new ArrayList<>();
+            for (int p = 0; p < partitions; p++) {
+                if (membership.nodeId().equals(desiredOwner(p, members))) {
+                    desired.add(partitionKeys.get(p));
+                } else if (owned.get(p)) {
+                    surrendered.add(partitionKeys.get(p));
+                }
+            }
+            if (!surrendered.isEmpty()) {
+                redisTemplate.execute(RELEASE, RedisSerializer.string(), RedisSerializer.string(),
+                    surrendered, membership.nodeId());
+                log.info("Nodo {} cede {} particiones", membership.nodeId(), surrendered.size());
+            }
+            if (!desired.isEmpty()) {
+                redisTemplate.execute(ACQUIRE, RedisSerializer.string(), RedisSerializer.string(),
+                    desired, membership.nodeId(), Long.toString(leaseMs));
+            }
+            refreshOwners();
+        } catch (RuntimeException e) {
+            // Sin Redis no se puede confirmar ningún lease: se procesa todo localmente
+            log.warn("No se pudo rebalancear particiones: {}", e.getMessage());
+            owned = new BitSet();
+            for (int p = 0; p < partitions; p++) {
+                owners.set(p, null);
+            }
+        }
+    }
+
+    /**
+     * Suelta todos los leases al detener el nodo para que el rebalanceo no espere al TTL.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        heartbeats.shutdownNow();
+        List<String> keys = owned.stream().mapToObj(partitionKeys::get).toList();
+        owned = new BitSet();
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE, RedisSerializer.string(), RedisSerializer.string(),
+                keys, membership.nodeId());
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron liberar las particiones, expirarán solas: {}", e.getMessage());
+        }
+    }
+
+    private void refreshOwners() {
+        List<Object> current = redisTemplate.opsForValue().multiGet(partitionKeys);
+        BitSet mine = new BitSet(partitions);
+        for (int p = 0; p < partitions; p++) {
+            String owner = current == null || current.get(p) == null ? null : current.get(p).toString();
+            owners.set(p, owner);
+            if (membership.nodeId().equals(owner)) {
+                mine.set(p);
+            }
+        }
+        if (mine.cardinality() != owned.cardinality()) {
+            log.info("Nodo {} es dueño de {} de {} particiones", membership.nodeId(), mine.cardinality(), partitions);
+        }
+        owned = mine;
+    }
+
+    /**
+     * Rendezvous hashing (highest random weight): el nodo con mayor peso para la partición.
+     */
+    static String desiredOwner(int partition, List<String> members) {
+        String best = null;
+        long bestWeight = Long.MIN_VALUE;
+        for (String node : members) {
+            long weight = mix(fingerprint(node) ^ (partition * 0x9E3779B97F4A7C15L));
+            if (best == null || weight > bestWeight) {
+                best = node;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    private static long fingerprint(String node) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : node.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ b) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizador de MurmurHash3: dispersa bien claves consecutivas.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
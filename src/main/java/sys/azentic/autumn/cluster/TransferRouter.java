@@ -0,0 +1,239 @@
+package sys.azentic.autumn.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import sys.azentic.autumn.concurrency.AccountSequencer;
+import sys.azentic.autumn.dto.request.TransferRequest;
+import sys.azentic.autumn.dto.response.ErrorResponse;
+import sys.azentic.autumn.dto.response.TransferResponse;
+import sys.azentic.autumn.exception.ForwardedRequestException;
+import sys.azentic.autumn.service.TransferService;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Punto de entrada de las transferencias síncronas en un despliegue multinodo.
+ *
+ * - Clúster deshabilitado: se ejecuta directamente, sin AccountSequencer.
+ * - La cuenta origen pertenece a este nodo: se ejecuta aquí, serializada por cuenta
+ *   con AccountSequencer.
+ * - Pertenece a otro nodo: se reenvía el request a ese nodo por HTTP interno con
+ *   los headers X-Autumn-Forwarded (ID del nodo) y X-Autumn-Forward-Token (HMAC con
+ *   el secreto del clúster sobre nodo, clave de idempotencia y un SHA-256 de origen,
+ *   destino y monto: un token capturado no sirve para otro monto o destino). Un
+ *   request reenviado nunca se vuelve a reenviar, aunque las vistas de los nodos
+ *   difieran durante un rebalanceo. Un X-Autumn-Forwarded que no viene de un miembro vivo con token
+ *   válido se ignora: el request se enruta como cualquier otro.
+ * - No se pudo conectar con el dueño (el request no llegó): se ejecuta aquí. La base
+ *   de datos sigue garantizando la consistencia; solo se pierde la serialización en
+ *   un único nodo.
+ * - El dueño no respondió a tiempo (el request pudo llegar y seguir ejecutándose):
+ *   504 sin ejecutar localmente; el cliente reintenta con la misma clave de idempotencia.
+ *
+ * Reenviar es seguro ante reintentos: la clave de idempotencia viaja en el request.
+ */
+@Component
+@Slf4j
+public class TransferRouter {
+
+    public static final String FORWARDED_HEADER = "X-Autumn-Forwarded";
+    public static final String FORWARD_TOKEN_HEADER = "X-Autumn-Forward-Token";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final String TRANSFERS_PATH = "/api/v1/transfers";
+
+    private final TransferService transferService;
+    private final AccountSequencer accountSequencer;
+    private final PartitionAssignment partitionAssignment;
+    private final ClusterMembership membership;
+    private final ObjectMapper objectMapper;
+    private final RestClient restClient;
+    private final Counter forwardedCounter;
+    private final Counter unreachableCounter;
+    private final Counter timeoutCounter;
+    private final SecretKeySpec forwardKey;
+
+    public TransferRouter(
+            TransferService transferService,
+            ObjectProvider<PartitionAssignment> partitionAssignment,
+            ObjectProvider<ClusterMembership> membership,
+            ObjectProvider<AccountSequencer> accountSequencer,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${autumn.cluster.forward-timeout-ms:2000}") long forwardTimeoutMs,
+            @Value("${autumn.cluster.forward-secret:}") String forwardSecret) {
+        this.transferService = transferService;
+        this.accountSequencer = accountSequencer.getIfAvailable();
+        this.partitionAssignment = partitionAssignment.getIfAvailable();
+        this.membership = membership.getIfAvailable();
+        if (this.partitionAssignment != null && forwardSecret.isBlank()) {
+            throw new IllegalStateException("autumn.cluster.forward-secret es obligatorio con autumn.cluster.enabled=true");
+        }
+        this.forwardKey = forwardSecret.isBlank()
+            ? null
+            : new SecretKeySpec(forwardSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.objectMapper = objectMapper;
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(forwardTimeoutMs))
+            .build());
+        requestFactory.setReadTimeout(Duration.ofMillis(forwardTimeoutMs));
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        this.forwardedCounter = Counter.builder("autumn.cluster.forwarded")
+            .description("Transferencias reenviadas al nodo dueño de la cuenta")
+            .tag("outcome", "forwarded")
+            .register(meterRegistry);
+        this.unreachableCounter = Counter.builder("autumn.cluster.forwarded")
+            .description("Transferencias reenviadas al nodo dueño de la cuenta")
+            .tag("outcome", "unreachable")
+            .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("autumn.cluster.forwarded")
+            .description("Transferencias reenviadas al nodo dueño de la cuenta")
+            .tag("outcome", "timeout")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Crea la transferencia en el nodo dueño de la cuenta origen.
+     *
+     * @param forwardedBy   valor de X-Autumn-Forwarded (null si viene del cliente)
+     * @param forwardToken  valor de X-Autumn-Forward-Token
+     * @param authorization header Authorization original, para reenviarlo
+     */
+    public TransferResponse createTransfer(TransferRequest request, String forwardedBy, String forwardToken,
+                                           String authorization) {
+        if (partitionAssignment == null) {
+            return transferService.createTransfer(request);
+        }
+
+        String accountNumber = request.getSourceAccountNumber();
+        boolean forwarded = isTrustedForward(request, forwardedBy, forwardToken);
+        if (!forwarded && !partitionAssignment.isLocal(accountNumber)) {
+            Optional<String> ownerUrl = partitionAssignment.ownerOf(accountNumber).flatMap(membership::urlOf);
+            if (ownerUrl.isPresent()) {
+                try {
+                    TransferResponse response = forward(ownerUrl.get(), request, authorization);
+                    forwardedCounter.increment();
+                    return response;
+                } catch (ResourceAccessException e) {
+                    if (!notDelivered(e)) {
+                        // El dueño pudo recibirlo y seguir ejecutándolo: ejecutar aquí lo duplicaría
+                        timeoutCounter.increment();
+                        log.warn("Nodo dueño de la cuenta {} no respondió a tiempo ({})", accountNumber, e.getMessage());
+                        throw new ForwardedRequestException(HttpStatus.GATEWAY_TIMEOUT, ErrorResponse.of(
+                            HttpStatus.GATEWAY_TIMEOUT.value(),
+                            "Owner Node Timeout",
+                            "El nodo dueño de la cuenta no respondió a tiempo; reintente con la misma clave de idempotencia",
+                            TRANSFERS_PATH));
+                    }
+                    unreachableCounter.increment();
+                    log.warn("Nodo dueño de la cuenta {} no disponible ({}), se procesa localmente",
+                        accountNumber, e.getMessage());
+                }
+            }
+        }
+
+        return accountSequencer.execute(accountNumber, () -> transferService.createTransfer(request));
+    }
+
+    /**
+     * Reenvío de un miembro vivo del clúster con token válido. Cualquier otro valor
+     * del header se ignora (un cliente no puede saltarse el enrutamiento).
+     */
+    private boolean isTrustedForward(TransferRequest request, String forwardedBy, String forwardToken) {
+        if (forwardedBy == null) {
+            return false;
+        }
+        boolean trusted = forwardToken != null
+            && membership.members().contains(forwardedBy)
+            && MessageDigest.isEqual(
+                forwardToken(forwardedBy, request).getBytes(StandardCharsets.US_ASCII),
+                forwardToken.getBytes(StandardCharsets.US_ASCII));
+        if (!trusted) {
+            log.warn("Header {} no confiable ({}), se ignora", FORWARDED_HEADER, forwardedBy);
+        }
+        return trusted;
+    }
+
+    /**
+     * El request no llegó al dueño: conexión rechazada, sin ruta o timeout de conexión.
+     * Un timeout de lectura u otro corte a mitad de la respuesta es ambiguo.
+     */
+    private static boolean notDelivered(ResourceAccessException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String forwardToken(String nodeId, TransferRequest request) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(forwardKey);
+            mac.update((nodeId + ":" + request.getIdempotencyKey() + ":").getBytes(StandardCharsets.UTF_8));
+            byte[] digest = mac.doFinal(requestDigest(request));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular el token de reenvío", e);
+        }
+    }
+
+    /**
+     * SHA-256 de los campos que mueven dinero. El monto va sin ceros a la derecha, así
+     * 100.0 y 100.00 (misma transferencia tras serializar a JSON) dan el mismo digest.
+     */
+    private static byte[] requestDigest(TransferRequest request) throws GeneralSecurityException {
+        String amount = request.getAmount() == null ? "" : request.getAmount().stripTrailingZeros().toPlainString();
+        String fields = request.getSourceAccountNumber() + "\n" + request.getDestinationAccountNumber() + "\n" + amount;
+        return MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TransferResponse forward(String ownerUrl, TransferRequest request, String authorization) {
+        log.debug("Reenviando transferencia {} a {}", request.getIdempotencyKey(), ownerUrl);
+        return restClient.post()
+            .uri(ownerUrl + TRANSFERS_PATH)
+            .header(FORWARDED_HEADER, membership.nodeId())
+            .header(FORWARD_TOKEN_HEADER, forwardToken(membership.nodeId(), request))
+            .headers(headers -> {
+                if (authorization != null) {
+                    headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                }
+            })
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(request)
+            .retrieve()
+            .onStatus(HttpStatusCode::isError, (req, res) -> {
+                throw new ForwardedRequestException(res.getStatusCode(),
+                    objectMapper.readValue(res.getBody(), ErrorResponse.class));
+            })
+            .body(TransferResponse.class);
+    }
+}
@@ -0,0 +1,34 @@
+package sys.azentic.autumn.concurrency;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Orden global de locks sobre cuentas: todo código que bloquea o escribe varias
+ * cuentas en una transacción las recorre en este orden, así dos transacciones
+ * nunca esperan una a la otra en orden inverso (deadlock).
+ *
+ * Es el orden de PostgreSQL para uuid (bytes sin signo), no el de UUID.compareTo
+ * (long con signo): ambos difieren cuando el bit alto de los IDs difiere, y las
+ * sentencias con ORDER BY id (p. ej. findAllByIdInWithLock) bloquean en el de PostgreSQL.
+ */
+public final class AccountLockOrder {
+
+    /**
+     * Comparador de IDs de cuenta, igual a ORDER BY id en PostgreSQL.
+     */
+    public static final Comparator<UUID> COMPARATOR = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    private AccountLockOrder() {
+    }
+
+    /**
+     * Indica si la cuenta a se bloquea antes que la cuenta b.
+     */
+    public static boolean before(UUID a, UUID b) {
+        return COMPARATOR.compare(a, b) < 0;
+    }
+}
@@ -0,0 +1,52 @@
+package sys.azentic.autumn.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializa en este nodo las operaciones sobre una misma cuenta.
+ *
+ * Transferencias de la misma cuenta origen que llegan al mismo nodo esperan aquí,
+ * en orden de llegada (lock justo), en lugar de competir por la fila en la base:
+ * no hay retenciones rechazadas por carrera ni reintentos por conflicto. Solo es
+ * efectivo si todas las transferencias de la cuenta llegan al mismo nodo
+ * (ver PartitionAssignment).
+ *
+ * Locks por franja (hash del número de cuenta): memoria acotada sin importar la
+ * cantidad de cuentas; dos cuentas de la misma franja se serializan entre sí.
+ * ReentrantLock no fija hilos virtuales a su portador mientras esperan.
+ *
+ * Solo existe con autumn.cluster.enabled=true: en un único nodo sin particiones la
+ * base ya serializa por fila, y un lock por franja solo agregaría esperas entre
+ * cuentas no relacionadas.
+ */
+@Component
+@ConditionalOnProperty(name = "autumn.cluster.enabled", havingValue = "true")
+public class AccountSequencer {
+
+    private final ReentrantLock[] stripes;
+
+    public AccountSequencer(@Value("${autumn.cluster.sequencer-stripes:1024}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Ejecuta la acción con exclusión mutua sobre la cuenta.
+     */
+    public <T> T execute(String accountNumber, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(accountNumber.hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package sys.azentic.autumn.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elige la estrategia de bloqueo por cuenta origen según su contención reciente,
+ * sobre el camino de retenciones (FASE 1 de TransferServiceImpl):
+ *
+ * - Cuentas frías (la gran mayoría): lock tardío. La validación de saldo se hace sin
+ *   lock y la fila se bloquea recién con el UPDATE condicional de la retención, al
+ *   final de la fase; si otra transferencia consumió el disponible entre medio, el
+ *   trabajo de la fase se descarta.
+ * - Cuentas calientes: lock al inicio de la fase (SELECT ... FOR UPDATE) y validación
+ *   con el saldo actual; el lock dura más, pero no se desperdician reservas de límite
+ *   diario ni inserciones en transferencias que luego pierden la carrera.
+ *
+ * Señales de contención (count-min sketch con decaimiento):
+ * - Espera por el lock de la cuenta origen mayor a lock-wait-threshold-ms
+ * - Retención rechazada tras una validación sin lock exitosa (carrera perdida)
+ * - Conflictos de @Version que reporta ConflictRetryExecutor
+ *
+ * Histéresis para no oscilar: una cuenta entra al conjunto caliente al alcanzar
+ * hot-threshold conflictos estimados y solo sale cuando baja de cold-threshold
+ * (evaluado en cada decaimiento del sketch).
+ */
+@Component
+@Slf4j
+public class AdaptiveLockingStrategy {
+
+    private final ContentionSketch sketch;
+    private final Set<UUID> hotAccounts = ConcurrentHashMap.newKeySet();
+    private final boolean enabled;
+    private final int hotThreshold;
+    private final int coldThreshold;
+    private final long lockWaitThresholdNanos;
+
+    private final Counter optimisticCounter;
+    private final Counter pessimisticCounter;
+    private final Counter becameHotCounter;
+    private final Counter becameColdCounter;
+
+    public AdaptiveLockingStrategy(
+            MeterRegistry meterRegistry,
+            @Value("${autumn.transfer.locking.adaptive:true}") boolean enabled,
+            @Value("${autumn.transfer.locking.hot-threshold:8}") int hotThreshold,
+            @Value("${autumn.transfer.locking.cold-threshold:2}") int coldThreshold,
+            @Value("${autumn.transfer.locking.lock-wait-threshold-ms:5}") long lockWaitThresholdMs,
+            @Value("${autumn.transfer.locking.sketch-depth:4}") int sketchDepth,
+            @Value("${autumn.transfer.locking.sketch-width:4096}") int sketchWidth) {
+        if (coldThreshold >= hotThreshold) {
+            throw new IllegalArgumentException("cold-threshold debe ser menor que hot-threshold");
+        }
+        this.sketch = new ContentionSketch(sketchDepth, sketchWidth);
+        this.enabled = enabled;
+        this.hotThreshold = hotThreshold;
+        this.coldThreshold = coldThreshold;
+        this.lockWaitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lockWaitThresholdMs);
+
+        Gauge.builder("autumn.transfer.locking.hot-accounts", hotAccounts, Set::size)
+            .description("Cuentas que se bloquean al inicio de la autorización por alta contención")
+            .register(meterRegistry);
+        this.optimisticCounter = modeCounter(meterRegistry, "optimistic");
+        this.pessimisticCounter = modeCounter(meterRegistry, "pessimistic");
+        this.becameHotCounter = transitionCounter(meterRegistry, "hot");
+        this.becameColdCounter = transitionCounter(meterRegistry, "cold");
+    }
+
+    /**
+     * Registra un conflicto sobre una cuenta (carrera perdida o @Version desactualizado).
+     */
+    public void recordConflict(UUID accountId) {
+        int estimate = sketch.increment(accountId);
+        if (estimate >= hotThreshold && hotAccounts.add(accountId)) {
+            becameHotCounter.increment();
+            log.info("Cuenta {} pasa a lock al inicio de la autorización ({} conflictos recientes)", accountId, estimate);
+        }
+    }
+
+    /**
+     * Registra cuánto esperó una transacción por el lock de la cuenta; solo las esperas
+     * largas cuentan como contención. Las cuentas calientes también lo reportan, así
+     * siguen calientes mientras la contención dure.
+     */
+    public void recordLockWait(UUID accountId, long waitNanos) {
+        if (waitNanos >= lockWaitThresholdNanos) {
+            recordConflict(accountId);
+        }
+    }
+
+    /**
+     * @return true si la autorización debe bloquear la cuenta origen desde el inicio
+     */
+    public boolean shouldLock(UUID sourceAccountId) {
+        boolean lock = enabled && hotAccounts.contains(sourceAccountId);
+        (lock ? pessimisticCounter : optimisticCounter).increment();
+        return lock;
+    }
+
+    public boolean isHot(UUID accountId) {
+        return hotAccounts.contains(accountId);
+    }
+
+    /**
+     * Decae el sketch y devuelve al lock tardío las cuentas que se enfriaron.
+     */
+    @Scheduled(fixedDelayString = "${autumn.transfer.locking.decay-interval-ms:10000}")
+    public void decay() {
+        sketch.decay();
+        hotAccounts.removeIf(accountId -> {
+            int estimate = sketch.estimate(accountId);
+            if (estimate <= coldThreshold) {
+                becameColdCounter.increment();
+                log.info("Cuenta {} vuelve al lock tardío ({} conflictos recientes)", accountId, estimate);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static Counter modeCounter(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("autumn.transfer.locking.mode")
+            .description("Autorizaciones por estrategia de bloqueo")
+            .tag("mode", mode)
+            .register(meterRegistry);
+    }
+
+    private static Counter transitionCounter(MeterRegistry meterRegistry, String to) {
+        return Counter.builder("autumn.transfer.locking.transitions")
+            .description("Cambios de estrategia de bloqueo por cuenta")
+            .tag("to", to)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package sys.azentic.autumn.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reintenta operaciones transaccionales que fallan por conflictos de concurrencia
+ * (@Version desactualizado, deadlock, lock no obtenido).
+ *
+ * Backoff "decorrelated jitter": espera = min(max, aleatorio(base, espera_anterior * 3)).
+ * Dispersa los reintentos de transacciones que chocaron entre sí sin crecer sin límite.
+ *
+ * La acción debe abrir su propia transacción en cada intento (TransactionTemplate),
+ * y ser idempotente: un intento puede haber confirmado aunque el commit falle del lado
+ * del cliente, por eso cada intento vuelve a verificar la idempotencia.
+ *
+ * Métricas por bucket de cuenta (hash % 64) para detectar cuentas calientes
+ * sin una serie por cuenta:
+ * - autumn.transfer.conflicts{bucket}: conflictos detectados
+ * - autumn.transfer.retry.exhausted: operaciones que agotaron los intentos
+ */
+@Component
+@Slf4j
+public class ConflictRetryExecutor {
+
+    static final int BUCKETS = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final AdaptiveLockingStrategy adaptiveLockingStrategy;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final Map<Integer, Counter> conflictCounters = new ConcurrentHashMap<>();
+    private final Counter exhaustedCounter;
+
+    public ConflictRetryExecutor(
+            MeterRegistry meterRegistry,
+            AdaptiveLockingStrategy adaptiveLockingStrategy,
+            @Value("${autumn.transfer.retry.max-attempts:4}") int maxAttempts,
+            @Value("${autumn.transfer.retry.base-delay-ms:5}") long baseDelayMs,
+            @Value("${autumn.transfer.retry.max-delay-ms:200}") long maxDelayMs) {
+        this.meterRegistry = meterRegistry;
+        this.adaptiveLockingStrategy = adaptiveLockingStrategy;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.exhaustedCounter = Counter.builder("autumn.transfer.retry.exhausted")
+            .description("Operaciones que agotaron los reintentos por conflicto")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la acción reintentando ante conflictos de concurrencia.
+     *
+     * @param conflictKey clave para la métrica cuando el conflicto no identifica la entidad
+     *                    (p. ej. número de cuenta origen)
+     * @throws ConcurrencyFailureException si se agotan los intentos
+     */
+    public <T> T execute(String conflictKey, Supplier<T> action) {
+        long delayMs = baseDelayMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                recordConflict(e, conflictKey);
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    log.warn("Conflicto de concurrencia persistente tras {} intentos ({}): {}",
+                        attempt, conflictKey, e.getMessage());
+                    throw e;
+                }
+
+                delayMs = Math.min(maxDelayMs, ThreadLocalRandom.current().nextLong(baseDelayMs, delayMs * 3 + 1));
+                log.debug("Conflicto de concurrencia ({}), intento {}/{} en {} ms", conflictKey, attempt + 1, maxAttempts, delayMs);
+                sleep(delayMs);
+            }
+        }
+    }
+
+    /**
+     * Bucket estable de una clave (ID de entidad o número de cuenta).
+     */
+    public static int bucketOf(Object key) {
+        return Math.floorMod(key.hashCode(), BUCKETS);
+    }
+
+    private void recordConflict(ConcurrencyFailureException e, String fallbackKey) {
+        // Con @Version la excepción identifica la cuenta que cambió (alimenta AdaptiveLockingStrategy)
+        Object key = e instanceof ObjectOptimisticLockingFailureException optimistic && optimistic.getIdentifier() != null
+            ? optimistic.getIdentifier()
+            : fallbackKey;
+        if (key instanceof UUID accountId) {
+            adaptiveLockingStrategy.recordConflict(accountId);
+        }
+        int bucket = bucketOf(key);
+        conflictCounters.computeIfAbsent(bucket, b -> Counter.builder("autumn.transfer.conflicts")
+                .description("Conflictos de concurrencia por bucket de cuenta")
+                .tag("bucket", Integer.toString(b))
+                .register(meterRegistry))
+            .increment();
+    }
+
+    private static void sleep(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", ie);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package sys.azentic.autumn.concurrency;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch de conflictos por cuenta con decaimiento.
+ *
+ * Memoria fija (depth × width contadores) sin importar cuántas cuentas existan.
+ * La estimación nunca subestima: puede sobreestimar por colisiones, lo que como
+ * mucho marca de más alguna cuenta como caliente.
+ *
+ * decay() divide todos los contadores a la mitad: la estimación refleja los
+ * conflictos recientes (media exponencial por ventana).
+ *
+ * Thread-safe sin locks (AtomicIntegerArray por fila).
+ */
+public class ContentionSketch {
+
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final AtomicIntegerArray[] rows;
+    private final int mask;
+
+    /**
+     * @param depth filas (funciones hash), máximo 8
+     * @param width contadores por fila; se redondea a potencia de 2
+     */
+    public ContentionSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth debe estar entre 1 y " + SEEDS.length);
+        }
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = size - 1;
+        this.rows = new AtomicIntegerArray[depth];
+        for (int i = 0; i < depth; i++) {
+            rows[i] = new AtomicIntegerArray(size);
+        }
+    }
+
+    /**
+     * Registra un conflicto y retorna la nueva estimación.
+     */
+    public int increment(UUID key) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < rows.length; i++) {
+            int value = rows[i].incrementAndGet(index(key, i));
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    public int estimate(UUID key) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < rows.length; i++) {
+            min = Math.min(min, rows[i].get(index(key, i)));
+        }
+        return min;
+    }
+
+    /**
+     * Reduce todos los contadores a la mitad.
+     * No es atómico respecto a increment concurrentes: un incremento puede
+     * perderse o sobrevivir a la mitad, irrelevante para una estimación.
+     */
+    public void decay() {
+        for (AtomicIntegerArray row : rows) {
+            for (int j = 0; j < row.length(); j++) {
+                int value = row.get(j);
+                if (value != 0) {
+                    row.set(j, value >>> 1);
+                }
+            }
+        }
+    }
+
+    private int index(UUID key, int row) {
+        long h = (key.getMostSignificantBits() ^ Long.rotateLeft(key.getLeastSignificantBits(), 31)) * SEEDS[row];
+        h ^= h >>> 29;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,56 @@
+package sys.azentic.autumn.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mide cuánto tiempo se mantienen bloqueadas filas de cuentas: desde la primera
+ * sentencia que toma el lock hasta el fin de la transacción (commit o rollback),
+ * que es cuando PostgreSQL lo libera.
+ *
+ * Métrica: autumn.transfer.lock.hold{phase}
+ * - authorize / capture: fases cortas del camino síncrono (retenciones)
+ * - authorize-locked: autorización de cuentas calientes, bloqueadas desde el inicio
+ *   de la fase (AdaptiveLockingStrategy)
+ * - queue: workers, que bloquean las cuentas durante toda la transferencia
+ * - approval: lotes de aprobación
+ * - netting / payroll: lotes compensados y bloques de nómina
+ */
+@Component
+public class LockHoldTimer {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public LockHoldTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Marca el inicio del lock en la transacción actual; se registra al completarse.
+     * Sin transacción activa no hay lock que medir.
+     */
+    public void start(String phase) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer timer = timers.computeIfAbsent(phase, p -> Timer.builder("autumn.transfer.lock.hold")
+            .description("Tiempo que una transacción mantiene bloqueadas filas de cuentas")
+            .tag("phase", p)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(timer);
+            }
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package sys.azentic.autumn.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lock exclusivo entre nodos sobre Redis (SET NX PX con token por dueño).
+ *
+ * Mientras el dueño trabaja, el lease se renueva cada ttl/3. Renovar y liberar
+ * comparan el token en un script Lua: un nodo cuyo lease expiró (pausa de GC,
+ * partición) no puede borrar ni extender el lock que ya tomó otro. El dueño debe
+ * consultar isHeld() entre unidades de trabajo y detenerse si lo perdió.
+ */
+@Component
+@Slf4j
+public class RedisDistributedLock {
+
+    private static final String KEY_PREFIX = "autumn:lock:";
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String nodeId;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("distributed-lock-renewer").daemon(true).factory());
+
+    public RedisDistributedLock(
+            RedisTemplate<String, Object> redisTemplate,
+            @Value("${autumn.node-id:local}") String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Intenta tomar el lock sin esperar.
+     *
+     * @return lease activo, o vacío si otro nodo lo tiene
+     */
+    public Optional<Lease> tryAcquire(String name, Duration ttl) {
+        String token = nodeId + ":" + UUID.randomUUID();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, token, ttl);
+        if (!Boolean.TRUE.equals(acquired)) {
+            return Optional.empty();
+        }
+        Lease lease = new Lease(KEY_PREFIX + name, token, ttl);
+        long period = Math.max(ttl.toMillis() / 3, 1);
+        lease.renewal = renewer.scheduleAtFixedRate(lease::renew, period, period, TimeUnit.MILLISECONDS);
+        log.debug("Lock {} tomado por {}", name, token);
+        return Optional.of(lease);
+    }
+
+    /**
+     * Lock tomado; close() lo libera si todavía es nuestro.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String key;
+        private final String token;
+        private final Duration ttl;
+        private volatile boolean held = true;
+        private volatile ScheduledFuture<?> renewal;
+
+        private Lease(String key, String token, Duration ttl) {
+            this.key = key;
+            this.token = token;
+            this.ttl = ttl;
+        }
+
+        public boolean isHeld() {
+            return held;
+        }
+
+        private void renew() {
+            try {
+                Long renewed = redisTemplate.execute(RENEW, List.of(key), token, ttl.toMillis());
+                if (renewed == null || renewed == 0) {
+                    log.warn("Lock {} perdido: el lease expiró o lo tomó otro nodo", key);
+                    lost();
+                }
+            } catch (DataAccessException e) {
+                // Sin Redis no se puede confirmar el lease: se asume perdido
+                log.warn("No se pudo renovar el lock {}: {}", key, e.getMessage());
+                lost();
+            }
+        }
+
+        private void lost() {
+            held = false;
+            renewal.cancel(false);
+        }
+
+        @Override
+        public void close() {
+            renewal.cancel(false);
+            if (held) {
+                held = false;
+                try {
+                    redisTemplate.execute(RELEASE, List.of(key), token);
+                } catch (DataAccessException e) {
+                    log.warn("No se pudo liberar el lock {}, expirará solo: {}", key, e.getMessage());
+                }
+            }
+        }
+    }
+}
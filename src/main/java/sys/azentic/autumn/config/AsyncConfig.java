@@ -0,0 +1,15 @@
+package sys.azentic.autumn.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Configuración de ejecución asíncrona.
+ * Habilita @Async usando el executor autoconfigurado (applicationTaskExecutor):
+ * - Hilos de plataforma por defecto (spring.task.execution.pool.*)
+ * - Hilos virtuales con spring.threads.virtual.enabled=true (perfil virtual-threads)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
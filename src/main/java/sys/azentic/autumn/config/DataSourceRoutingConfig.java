@@ -0,0 +1,136 @@
+package sys.azentic.autumn.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import sys.azentic.autumn.datasource.DataSourceRoutingContext;
+import sys.azentic.autumn.datasource.ReadFromPrimary;
+import sys.azentic.autumn.datasource.ReadWriteRoutingDataSource;
+import sys.azentic.autumn.datasource.ReplicaLagMonitor;
+import sys.azentic.autumn.datasource.ReplicaPool;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Separación lectura/escritura del DataSource.
+ *
+ * Activa con autumn.datasource.routing.enabled=true. Reemplaza el DataSource
+ * autoconfigurado por un LazyConnectionDataSourceProxy sobre ReadWriteRoutingDataSource:
+ * - Primario: spring.datasource.* y spring.datasource.hikari.* (pool "primary"), igual
+ *   que el DataSource autoconfigurado
+ * - Réplicas: autumn.datasource.routing.replica-urls (pools "replica-0", "replica-1", ...)
+ *   usando las mismas credenciales del primario salvo que se indiquen otras.
+ *
+ * Cada pool registra sus métricas de Hikari (hikaricp.connections.* con tag pool).
+ */
+@Configuration
+@ConditionalOnProperty(name = "autumn.datasource.routing.enabled", havingValue = "true")
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    @Value("${autumn.datasource.routing.replica-urls:}")
+    private String replicaUrls;
+
+    @Value("${autumn.datasource.routing.replica-username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${autumn.datasource.routing.replica-password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${autumn.datasource.routing.replica-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${autumn.datasource.routing.max-lag-seconds:5}")
+    private double maxLagSeconds;
+
+    @Bean
+    public List<ReplicaPool> replicaPools(MeterRegistry meterRegistry) {
+        List<ReplicaPool> replicas = new ArrayList<>();
+        List<String> urls = Arrays.stream(replicaUrls.split(","))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .toList();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + i;
+            replicas.add(new ReplicaPool(name,
+                createReplicaPool(name, urls.get(i), replicaUsername, replicaPassword, replicaPoolSize, meterRegistry)));
+        }
+        log.info("Ruteo lectura/escritura habilitado con {} réplica(s)", replicas.size());
+        return replicas;
+    }
+
+    /**
+     * Pool del primario construido como el autoconfigurado: timeouts, tamaños y
+     * tiempos de vida salen de spring.datasource.hikari.* de cada perfil.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primary, List<ReplicaPool> replicaPools, MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicaPools, meterRegistry);
+        routing.afterPropertiesSet();
+
+        // Difiere la conexión real hasta la primera sentencia, cuando ya se sabe si la transacción es readOnly
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(List<ReplicaPool> replicaPools, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaPools, maxLagSeconds, meterRegistry);
+    }
+
+    /**
+     * Los métodos anotados con @ReadFromPrimary ignoran las réplicas.
+     * Se ejecuta antes que @Transactional para que el contexto esté activo al abrir la transacción.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readFromPrimaryAdvisor() {
+        MethodInterceptor interceptor = invocation -> DataSourceRoutingContext.callOnPrimary(invocation::proceed);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, ReadFromPrimary.class, true), interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static HikariDataSource createReplicaPool(String name, String url, String username, String password,
+                                                      int maxPoolSize, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setReadOnly(true);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+}
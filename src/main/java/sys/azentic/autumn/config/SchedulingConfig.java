@@ -0,0 +1,13 @@
+package sys.azentic.autumn.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuración de tareas programadas.
+ * Habilita @Scheduled para los procesos nocturnos (snapshots de saldo, etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
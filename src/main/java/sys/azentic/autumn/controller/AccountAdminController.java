@@ -0,0 +1,45 @@
+package sys.azentic.autumn.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sys.azentic.autumn.balance.BalanceShardService;
+import sys.azentic.autumn.dto.response.AccountResponse;
+import sys.azentic.autumn.service.AccountService;
+
+import java.util.UUID;
+
+/**
+ * Controlador REST para la administración de cuentas.
+ *
+ * Endpoints:
+ * - PUT /api/v1/admin/accounts/{id}/balance-shards?count=N - Particionar el saldo de una cuenta
+ */
+@RestController
+@RequestMapping("/api/v1/admin/accounts")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountAdminController {
+
+    private final BalanceShardService balanceShardService;
+    private final AccountService accountService;
+
+    /**
+     * Define la cantidad de sub-saldos de una cuenta con alto volumen de créditos.
+     *
+     * @param id ID de la cuenta
+     * @param count 0 para desactivar, o entre 2 y 256
+     * @return Cuenta con su saldo agregado
+     */
+    @PutMapping("/{id}/balance-shards")
+    public ResponseEntity<AccountResponse> configureBalanceShards(
+            @PathVariable UUID id,
+            @RequestParam int count) {
+        log.info("Configurando {} sub-saldos para la cuenta {}", count, id);
+
+        balanceShardService.configure(id, count);
+
+        return ResponseEntity.ok(accountService.getAccountById(id));
+    }
+}
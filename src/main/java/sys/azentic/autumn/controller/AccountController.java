@@ -2,14 +2,27 @@ package sys.azentic.autumn.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sys.azentic.autumn.domain.enums.StatementFormat;
 import sys.azentic.autumn.dto.response.AccountResponse;
+import sys.azentic.autumn.dto.response.BalanceAtResponse;
 import sys.azentic.autumn.service.AccountService;
+import sys.azentic.autumn.service.StatementService;
+import sys.azentic.autumn.streaming.AccountEvent;
+import sys.azentic.autumn.streaming.AccountEventBroker;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controlador REST para operaciones de cuentas.
@@ -18,6 +31,9 @@ import java.util.UUID;
  * - GET /api/v1/accounts/{id}              - Consultar cuenta por ID
  * - GET /api/v1/accounts/number/{number}   - Consultar cuenta por número
  * - GET /api/v1/accounts/{id}/balance      - Consultar saldo actual
+ * - GET /api/v1/accounts/{id}/balance?at=  - Consultar saldo en un instante del pasado
+ * - GET /api/v1/accounts/{id}/statement    - Exportar estado de cuenta (NDJSON/CSV, streaming)
+ * - GET /api/v1/accounts/{id}/events       - Suscripción SSE a saldo y transferencias
  */
 @RestController
 @RequestMapping("/api/v1/accounts")
@@ -26,6 +42,8 @@ import java.util.UUID;
 public class AccountController {
 
     private final AccountService accountService;
+    private final StatementService statementService;
+    private final AccountEventBroker accountEventBroker;
 
     /**
      * Consulta una cuenta por su ID.
@@ -71,4 +89,94 @@ public class AccountController {
         
         return ResponseEntity.ok(Map.of("balance", balance));
     }
+
+    /**
+     * Consulta el saldo que tenía una cuenta en un instante del pasado.
+     *
+     * @param id ID de la cuenta
+     * @param at Instante a consultar (ISO-8601)
+     * @return Saldo histórico y su origen (libro mayor o snapshot)
+     */
+    @GetMapping(value = "/{id}/balance", params = "at")
+    public ResponseEntity<BalanceAtResponse> getAccountBalanceAt(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        log.info("Consultando saldo histórico de cuenta ID: {} en {}", id, at);
+
+        BalanceAtResponse response = accountService.getBalanceAt(id, at);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Exporta el estado de cuenta (asientos del libro mayor) como stream.
+     *
+     * Las filas se escriben a medida que se leen de la base de datos, por lo que
+     * el consumo de memoria es constante sin importar el rango solicitado.
+     * Si el cliente envía "Accept-Encoding: gzip" la respuesta se comprime al vuelo.
+     *
+     * @param id ID de la cuenta
+     * @param from Inicio del rango (inclusivo, ISO-8601), opcional
+     * @param to Fin del rango (exclusivo, ISO-8601), opcional
+     * @param format NDJSON (por defecto) o CSV
+     * @return Stream con los movimientos ordenados por fecha
+     */
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") StatementFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exportando estado de cuenta ID: {} - Formato: {}", id, format);
+
+        // Se valida la cuenta ANTES de comenzar el stream para poder responder 404
+        AccountResponse account = accountService.getAccountById(id);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                statementService.writeStatement(id, from, to, format, gzipOut);
+                gzipOut.finish();
+            } else {
+                statementService.writeStatement(id, from, to, format, out);
+            }
+        };
+
+        String filename = "statement-" + account.getAccountNumber() + "." + format.getExtension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        return response.body(body);
+    }
+
+    /**
+     * Suscripción Server-Sent Events a los cambios de una cuenta.
+     * 
+     * Reemplaza el polling de /balance:
+     * - event: balance  -> saldo actual, enviado al conectar
+     * - event: transfer -> transferencia completada (DEBIT/CREDIT) con el saldo resultante
+     * - comentarios heartbeat periódicos mientras no hay eventos
+     * 
+     * Responde 503 si se alcanzó el máximo de conexiones (global o por cuenta).
+     * 
+     * @param id ID de la cuenta
+     * @return Stream de eventos
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAccountEvents(@PathVariable UUID id) {
+        log.info("Suscripción a eventos de cuenta ID: {}", id);
+        
+        // Valida que la cuenta exista (404) antes de abrir el stream
+        BigDecimal balance = accountService.getBalance(id);
+        
+        return accountEventBroker.subscribe(id, AccountEvent.balance(id, balance, LocalDateTime.now()));
+    }
 }
@@ -0,0 +1,73 @@
+package sys.azentic.autumn.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sys.azentic.autumn.bulk.BulkImportService;
+import sys.azentic.autumn.dto.response.BulkImportResponse;
+
+import java.io.InputStream;
+
+/**
+ * Controlador REST para importaciones masivas (COPY + merge).
+ * El cuerpo del request es el CSV; se transmite a PostgreSQL sin cargarlo en memoria.
+ *
+ * Endpoints:
+ * - POST /api/v1/admin/imports/accounts        - Cuentas con su saldo vigente
+ * - POST /api/v1/admin/imports/transfers       - Transferencias históricas
+ * - POST /api/v1/admin/imports/ledger-entries  - Asientos de transferencias importadas
+ */
+@RestController
+@RequestMapping("/api/v1/admin/imports")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportController {
+
+    private final BulkImportService bulkImportService;
+
+    /**
+     * Importa cuentas. Las que ya existen (mismo número) se omiten.
+     *
+     * @param header Si la primera línea es un encabezado
+     * @param content CSV de cuentas
+     * @return Filas copiadas, insertadas y omitidas
+     */
+    @PostMapping(value = "/accounts", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<BulkImportResponse> importAccounts(
+            @RequestParam(defaultValue = "true") boolean header,
+            InputStream content) {
+        log.info("Importación masiva de cuentas recibida");
+        return ResponseEntity.ok(bulkImportService.importAccounts(content, header));
+    }
+
+    /**
+     * Importa transferencias históricas entre cuentas existentes.
+     *
+     * @param header Si la primera línea es un encabezado
+     * @param content CSV de transferencias
+     * @return Filas copiadas, insertadas y omitidas
+     */
+    @PostMapping(value = "/transfers", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<BulkImportResponse> importTransfers(
+            @RequestParam(defaultValue = "true") boolean header,
+            InputStream content) {
+        log.info("Importación masiva de transferencias recibida");
+        return ResponseEntity.ok(bulkImportService.importTransfers(content, header));
+    }
+
+    /**
+     * Importa asientos del libro mayor de transferencias ya importadas.
+     *
+     * @param header Si la primera línea es un encabezado
+     * @param content CSV de asientos
+     * @return Filas copiadas, insertadas y omitidas
+     */
+    @PostMapping(value = "/ledger-entries", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<BulkImportResponse> importLedgerEntries(
+            @RequestParam(defaultValue = "true") boolean header,
+            InputStream content) {
+        log.info("Importación masiva de asientos recibida");
+        return ResponseEntity.ok(bulkImportService.importLedgerEntries(content, header));
+    }
+}
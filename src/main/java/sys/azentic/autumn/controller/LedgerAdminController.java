@@ -0,0 +1,64 @@
+package sys.azentic.autumn.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sys.azentic.autumn.domain.entity.BalanceReplayRun;
+import sys.azentic.autumn.domain.enums.BalanceReplayMode;
+import sys.azentic.autumn.dto.response.BalanceReplayRunResponse;
+import sys.azentic.autumn.ledger.BalanceReplayService;
+import sys.azentic.autumn.mapper.BalanceReplayRunMapper;
+
+import java.util.UUID;
+
+/**
+ * Controlador REST para procesos administrativos sobre el libro mayor.
+ *
+ * Endpoints:
+ * - POST /api/v1/admin/ledger/replays       - Lanzar un replay de saldos
+ * - GET  /api/v1/admin/ledger/replays/{id}  - Consultar progreso de un replay
+ */
+@RestController
+@RequestMapping("/api/v1/admin/ledger")
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerAdminController {
+
+    private final BalanceReplayService balanceReplayService;
+    private final BalanceReplayRunMapper balanceReplayRunMapper;
+
+    /**
+     * Lanza en segundo plano la reconstrucción de saldos desde el libro mayor.
+     *
+     * @param mode DIFF (por defecto) o REBUILD
+     * @param fullHistory true para partir del snapshot de apertura en lugar del último
+     * @return Ejecución registrada (202 Accepted)
+     */
+    @PostMapping("/replays")
+    public ResponseEntity<BalanceReplayRunResponse> startReplay(
+            @RequestParam(defaultValue = "DIFF") BalanceReplayMode mode,
+            @RequestParam(defaultValue = "false") boolean fullHistory) {
+        log.info("Solicitud de replay de saldos. Modo: {} - Historial completo: {}", mode, fullHistory);
+
+        BalanceReplayRun run = balanceReplayService.startReplay(mode, fullHistory);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(balanceReplayRunMapper.toResponse(run));
+    }
+
+    /**
+     * Consulta el estado y progreso de un replay de saldos.
+     *
+     * @param id ID de la ejecución
+     * @return Estado y contadores de progreso
+     */
+    @GetMapping("/replays/{id}")
+    public ResponseEntity<BalanceReplayRunResponse> getReplay(@PathVariable UUID id) {
+        log.info("Consultando replay de saldos: {}", id);
+
+        BalanceReplayRun run = balanceReplayService.getRun(id);
+
+        return ResponseEntity.ok(balanceReplayRunMapper.toResponse(run));
+    }
+}
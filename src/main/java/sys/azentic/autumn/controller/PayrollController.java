@@ -0,0 +1,107 @@
+package sys.azentic.autumn.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sys.azentic.autumn.domain.entity.PayrollJob;
+import sys.azentic.autumn.dto.response.PayrollJobErrorResponse;
+import sys.azentic.autumn.dto.response.PayrollJobResponse;
+import sys.azentic.autumn.mapper.PayrollJobMapper;
+import sys.azentic.autumn.payroll.PayrollJobService;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controlador REST para cargas de nómina en CSV.
+ *
+ * Endpoints:
+ * - POST /api/v1/admin/payroll/jobs                - Subir un archivo (cuerpo text/csv)
+ * - POST /api/v1/admin/payroll/jobs/{id}/resume    - Reanudar desde el último checkpoint
+ * - GET  /api/v1/admin/payroll/jobs/{id}           - Consultar progreso
+ * - GET  /api/v1/admin/payroll/jobs/{id}/errors    - Listar filas rechazadas (keyset)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/payroll")
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollController {
+
+    private final PayrollJobService payrollJobService;
+    private final PayrollJobMapper payrollJobMapper;
+
+    /**
+     * Recibe un archivo de nómina y lo procesa en segundo plano.
+     * El cuerpo se lee como stream: no hay límite de tamaño de formulario ni se carga en memoria.
+     *
+     * @param sourceAccountNumber Cuenta que paga la nómina
+     * @param fileName Nombre del archivo (opcional, informativo)
+     * @param content Cuerpo del request: destination_account_number,amount[,description]
+     * @return Carga registrada (202 Accepted)
+     */
+    @PostMapping(value = "/jobs", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<PayrollJobResponse> submitJob(
+            @RequestParam String sourceAccountNumber,
+            @RequestParam(required = false) String fileName,
+            InputStream content) {
+        log.info("Carga de nómina recibida para la cuenta: {}", sourceAccountNumber);
+
+        PayrollJob job = payrollJobService.submit(sourceAccountNumber, fileName, content);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(payrollJobMapper.toResponse(job));
+    }
+
+    /**
+     * Reanuda una carga desde su último checkpoint.
+     *
+     * @param id ID de la carga
+     * @return Carga reanudada (202 Accepted)
+     */
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<PayrollJobResponse> resumeJob(@PathVariable UUID id) {
+        log.info("Solicitud de reanudación de carga de nómina: {}", id);
+
+        PayrollJob job = payrollJobService.resume(id);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(payrollJobMapper.toResponse(job));
+    }
+
+    /**
+     * Consulta el estado y progreso de una carga.
+     *
+     * @param id ID de la carga
+     * @return Estado, offset procesado y contadores
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<PayrollJobResponse> getJob(@PathVariable UUID id) {
+        log.info("Consultando carga de nómina: {}", id);
+
+        PayrollJob job = payrollJobService.getJob(id);
+
+        return ResponseEntity.ok(payrollJobMapper.toResponse(job));
+    }
+
+    /**
+     * Lista las filas rechazadas de una carga.
+     *
+     * @param id ID de la carga
+     * @param afterId Último ID de la página anterior (0 para comenzar)
+     * @param limit Tamaño de página (máximo 1000)
+     * @return Página de rechazos ordenados por ID
+     */
+    @GetMapping("/jobs/{id}/errors")
+    public ResponseEntity<List<PayrollJobErrorResponse>> getErrors(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Consultando rechazos de la carga de nómina {} desde ID {}", id, afterId);
+
+        List<PayrollJobErrorResponse> errors =
+            payrollJobService.getErrors(id, afterId, Math.min(Math.max(limit, 1), 1000));
+
+        return ResponseEntity.ok(errors);
+    }
+}
@@ -0,0 +1,99 @@
+package sys.azentic.autumn.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sys.azentic.autumn.domain.entity.ReconciliationRun;
+import sys.azentic.autumn.dto.response.ReconciliationMismatchResponse;
+import sys.azentic.autumn.dto.response.ReconciliationRunResponse;
+import sys.azentic.autumn.ledger.LedgerReconciliationService;
+import sys.azentic.autumn.mapper.ReconciliationRunMapper;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controlador REST para la reconciliación saldo vs libro mayor.
+ *
+ * Endpoints:
+ * - POST /api/v1/admin/reconciliation/runs                  - Lanzar una reconciliación
+ * - POST /api/v1/admin/reconciliation/runs/{id}/resume      - Reanudar una reconciliación
+ * - GET  /api/v1/admin/reconciliation/runs/{id}             - Consultar progreso
+ * - GET  /api/v1/admin/reconciliation/runs/{id}/mismatches  - Listar diferencias (keyset)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/reconciliation")
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliationController {
+
+    private final LedgerReconciliationService reconciliationService;
+    private final ReconciliationRunMapper reconciliationRunMapper;
+
+    /**
+     * Lanza una reconciliación en segundo plano.
+     *
+     * @return Ejecución registrada (202 Accepted)
+     */
+    @PostMapping("/runs")
+    public ResponseEntity<ReconciliationRunResponse> startRun() {
+        log.info("Solicitud de reconciliación recibida");
+
+        ReconciliationRun run = reconciliationService.startRun();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationRunMapper.toResponse(run));
+    }
+
+    /**
+     * Reanuda una reconciliación desde su último checkpoint.
+     *
+     * @param id ID de la ejecución
+     * @return Ejecución reanudada (202 Accepted), o 409 si hay una reconciliación en curso
+     */
+    @PostMapping("/runs/{id}/resume")
+    public ResponseEntity<ReconciliationRunResponse> resumeRun(@PathVariable UUID id) {
+        log.info("Solicitud de reanudación de reconciliación: {}", id);
+
+        ReconciliationRun run = reconciliationService.resumeRun(id);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationRunMapper.toResponse(run));
+    }
+
+    /**
+     * Consulta el estado y progreso de una reconciliación.
+     *
+     * @param id ID de la ejecución
+     * @return Estado y contadores de progreso
+     */
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<ReconciliationRunResponse> getRun(@PathVariable UUID id) {
+        log.info("Consultando reconciliación: {}", id);
+
+        ReconciliationRun run = reconciliationService.getRun(id);
+
+        return ResponseEntity.ok(reconciliationRunMapper.toResponse(run));
+    }
+
+    /**
+     * Lista las diferencias detectadas por una reconciliación.
+     *
+     * @param id ID de la ejecución
+     * @param afterId Último ID de la página anterior (0 para comenzar)
+     * @param limit Tamaño de página (máximo 1000)
+     * @return Página de diferencias ordenadas por ID
+     */
+    @GetMapping("/runs/{id}/mismatches")
+    public ResponseEntity<List<ReconciliationMismatchResponse>> getMismatches(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Consultando diferencias de reconciliación {} desde ID {}", id, afterId);
+
+        List<ReconciliationMismatchResponse> mismatches =
+            reconciliationService.getMismatches(id, afterId, Math.min(Math.max(limit, 1), 1000));
+
+        return ResponseEntity.ok(mismatches);
+    }
+}
@@ -0,0 +1,76 @@
+package sys.azentic.autumn.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sys.azentic.autumn.dto.request.ApprovalDecisionRequest;
+import sys.azentic.autumn.dto.response.ApprovalDecisionResponse;
+import sys.azentic.autumn.dto.response.ApprovalQueueResponse;
+import sys.azentic.autumn.service.TransferApprovalService;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Controlador REST para revisores de transferencias grandes.
+ *
+ * Endpoints:
+ * - GET  /api/v1/admin/approvals          - Cola de aprobación (keyset: afterCreatedAt + afterId)
+ * - POST /api/v1/admin/approvals/approve  - Aprobar y ejecutar un lote
+ * - POST /api/v1/admin/approvals/reject   - Rechazar un lote
+ */
+@RestController
+@RequestMapping("/api/v1/admin/approvals")
+@RequiredArgsConstructor
+@Slf4j
+public class TransferApprovalController {
+
+    private final TransferApprovalService transferApprovalService;
+
+    /**
+     * Consulta una página de la cola, de la transferencia más antigua a la más nueva.
+     *
+     * @param afterCreatedAt Cursor: nextCreatedAt de la página anterior
+     * @param afterId Cursor: nextId de la página anterior
+     * @param limit Tamaño de página
+     * @return Transferencias y cursor de la página siguiente
+     */
+    @GetMapping
+    public ResponseEntity<ApprovalQueueResponse> getQueue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Consultando cola de aprobación. Después de: {} / {}", afterCreatedAt, afterId);
+
+        return ResponseEntity.ok(transferApprovalService.getQueue(afterCreatedAt, afterId, limit));
+    }
+
+    /**
+     * Aprueba un lote de transferencias en una sola transacción.
+     *
+     * @param request IDs y revisor
+     * @return Estado final de cada transferencia e IDs omitidos
+     */
+    @PostMapping("/approve")
+    public ResponseEntity<ApprovalDecisionResponse> approve(@Valid @RequestBody ApprovalDecisionRequest request) {
+        log.info("Aprobación de {} transferencias por {}", request.getTransferIds().size(), request.getReviewerId());
+
+        return ResponseEntity.ok(transferApprovalService.approve(request));
+    }
+
+    /**
+     * Rechaza un lote de transferencias en una sola transacción.
+     *
+     * @param request IDs, revisor y motivo
+     * @return Estado final de cada transferencia e IDs omitidos
+     */
+    @PostMapping("/reject")
+    public ResponseEntity<ApprovalDecisionResponse> reject(@Valid @RequestBody ApprovalDecisionRequest request) {
+        log.info("Rechazo de {} transferencias por {}", request.getTransferIds().size(), request.getReviewerId());
+
+        return ResponseEntity.ok(transferApprovalService.reject(request));
+    }
+}
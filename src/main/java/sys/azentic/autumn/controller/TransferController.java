@@ -3,14 +3,22 @@ package sys.azentic.autumn.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import sys.azentic.autumn.cluster.TransferRouter;
+import sys.azentic.autumn.domain.enums.TransferStatus;
+import sys.azentic.autumn.dto.request.TransferBatchRequest;
 import sys.azentic.autumn.dto.request.TransferRequest;
 import sys.azentic.autumn.dto.response.IdempotencyKeyResponse;
+import sys.azentic.autumn.dto.response.TransferBatchResponse;
 import sys.azentic.autumn.dto.response.TransferResponse;
+import sys.azentic.autumn.service.TransferBatchService;
 import sys.azentic.autumn.service.TransferService;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,7 +26,9 @@ import java.util.UUID;
  * Controlador REST para operaciones de transferencias.
  * 
  * Endpoints:
- * - POST   /api/v1/transfers          - Crear nueva transferencia
+ * - POST   /api/v1/transfers          - Crear nueva transferencia (202 si requiere aprobación)
+ * - POST   /api/v1/transfers/async    - Registrar transferencia para procesamiento asíncrono (202)
+ * - POST   /api/v1/transfers/batch    - Ejecutar un lote compensado (nóminas, liquidaciones)
  * - GET    /api/v1/transfers/{id}     - Consultar transferencia por ID
  * - GET    /api/v1/transfers/account/{accountId} - Listar transferencias de una cuenta
  */
@@ -29,6 +39,8 @@ import java.util.UUID;
 public class TransferController {
 
     private final TransferService transferService;
+    private final TransferRouter transferRouter;
+    private final TransferBatchService transferBatchService;
 
     /**
      * Genera un nuevo UUID para idempotencia.
@@ -55,14 +67,63 @@ public class TransferController {
     /**
      * Crea una nueva transferencia.
      * 
+     * En clúster se ejecuta en el nodo dueño de la cuenta origen (ver TransferRouter);
+     * los headers X-Autumn-Forwarded y X-Autumn-Forward-Token los envía otro nodo al reenviar.
+     * 
      * @param request Datos de la transferencia con validaciones
      * @return Respuesta con el estado de la transferencia creada
      */
     @PostMapping
-    public ResponseEntity<TransferResponse> createTransfer(@Valid @RequestBody TransferRequest request) {
+    public ResponseEntity<TransferResponse> createTransfer(
+            @Valid @RequestBody TransferRequest request,
+            @RequestHeader(name = TransferRouter.FORWARDED_HEADER, required = false) String forwardedBy,
+            @RequestHeader(name = TransferRouter.FORWARD_TOKEN_HEADER, required = false) String forwardToken,
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         log.info("Solicitud de transferencia recibida. IdempotencyKey: {}", request.getIdempotencyKey());
         
-        TransferResponse response = transferService.createTransfer(request);
+        TransferResponse response = transferRouter.createTransfer(request, forwardedBy, forwardToken, authorization);
+        
+        // Sobre el umbral de aprobación: fondos retenidos, la ejecución queda pendiente
+        if (Boolean.TRUE.equals(response.getRequiresApproval()) && response.getStatus() == TransferStatus.PENDING) {
+            return ResponseEntity.accepted().location(statusUrl(response.getId())).body(response);
+        }
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Registra una transferencia para procesamiento asíncrono.
+     * 
+     * Responde 202 Accepted apenas la transferencia queda persistida en PENDING,
+     * sin esperar locks ni débito/crédito. El cliente consulta el estado en la
+     * URL del header Location (GET /api/v1/transfers/{id}) hasta un estado final.
+     * 
+     * @param request Datos de la transferencia con validaciones
+     * @return Transferencia registrada y URL de estado
+     */
+    @PostMapping("/async")
+    public ResponseEntity<TransferResponse> submitTransfer(@Valid @RequestBody TransferRequest request) {
+        log.info("Solicitud de transferencia asíncrona recibida. IdempotencyKey: {}", request.getIdempotencyKey());
+        
+        TransferResponse response = transferService.submitTransfer(request);
+        
+        return ResponseEntity.accepted().location(statusUrl(response.getId())).body(response);
+    }
+
+    /**
+     * Ejecuta un lote de transferencias en una transacción (todas o ninguna).
+     * 
+     * Cada cuenta se actualiza una sola vez con su posición neta; el saldo se valida
+     * contra el débito neto. Cada transferencia queda registrada con sus asientos.
+     * 
+     * @param request Transferencias del lote con validaciones
+     * @return Transferencias completadas y posiciones netas por cuenta
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TransferBatchResponse> createBatch(@Valid @RequestBody TransferBatchRequest request) {
+        log.info("Solicitud de lote recibida. Transferencias: {}", request.getTransfers().size());
+        
+        TransferBatchResponse response = transferBatchService.createBatch(request);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -96,4 +157,11 @@ public class TransferController {
         
         return ResponseEntity.ok(transfers);
     }
+
+    private URI statusUrl(UUID transferId) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/v1/transfers/{id}")
+            .buildAndExpand(transferId)
+            .toUri();
+    }
 }
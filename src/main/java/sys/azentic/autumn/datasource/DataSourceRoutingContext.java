@@ -0,0 +1,45 @@
+package sys.azentic.autumn.datasource;
+
+/**
+ * Contexto por hilo para forzar lecturas al primario.
+ *
+ * Se maneja como contador para soportar llamadas anidadas a métodos
+ * anotados con @ReadFromPrimary.
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private DataSourceRoutingContext() {
+    }
+
+    /**
+     * Ejecuta una acción forzando que todas sus lecturas vayan al primario.
+     */
+    public static <T> T callOnPrimary(PrimaryCallback<T> callback) throws Throwable {
+        int[] depth = PRIMARY_DEPTH.get();
+        depth[0]++;
+        try {
+            return callback.call();
+        } finally {
+            if (--depth[0] == 0) {
+                PRIMARY_DEPTH.remove();
+            }
+        }
+    }
+
+    /**
+     * Indica si el hilo actual debe leer del primario.
+     */
+    public static boolean isPrimaryForced() {
+        return PRIMARY_DEPTH.get()[0] > 0;
+    }
+
+    /**
+     * Acción ejecutada con el primario forzado.
+     */
+    @FunctionalInterface
+    public interface PrimaryCallback<T> {
+        T call() throws Throwable;
+    }
+}
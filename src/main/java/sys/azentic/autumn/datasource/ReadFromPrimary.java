@@ -0,0 +1,21 @@
+package sys.azentic.autumn.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fuerza que el método (y todo lo que invoque) lea del primario aunque su
+ * transacción sea readOnly.
+ *
+ * Usar en lecturas que deben ver escrituras recién confirmadas (read-your-writes),
+ * por ejemplo consultar una transferencia inmediatamente después de crearla,
+ * cuando la réplica aún podría no tenerla.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
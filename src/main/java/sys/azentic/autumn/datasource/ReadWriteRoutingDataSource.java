@@ -0,0 +1,86 @@
+package sys.azentic.autumn.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que envía las transacciones readOnly a las réplicas y todo lo demás al primario.
+ *
+ * Reglas de ruteo:
+ * - Transacción de escritura o sin transacción -> primario
+ * - Método anotado con @ReadFromPrimary -> primario
+ * - Transacción readOnly -> réplica sana (round-robin); si ninguna está sana -> primario
+ *
+ * IMPORTANTE: debe envolverse en LazyConnectionDataSourceProxy. El gestor de
+ * transacciones pide la conexión ANTES de marcar la transacción como readOnly;
+ * el proxy difiere la obtención real hasta la primera sentencia.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Counter> routedCounters = new HashMap<>();
+    private final Counter fallbackCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaPool> replicas, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routedCounters.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        for (ReplicaPool replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+            routedCounters.put(replica.getName(), routedCounter(meterRegistry, replica.getName()));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.fallbackCounter = Counter.builder("autumn.datasource.replica.fallback")
+            .description("Lecturas readOnly enviadas al primario por no haber réplicas sanas")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = selectTarget();
+        routedCounters.get(target).increment();
+        return target;
+    }
+
+    private String selectTarget() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || DataSourceRoutingContext.isPrimaryForced()
+                || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+
+        fallbackCounter.increment();
+        return PRIMARY;
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("autumn.datasource.routed")
+            .description("Conexiones entregadas por destino del ruteo lectura/escritura")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,73 @@
+package sys.azentic.autumn.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Mide periódicamente el retraso de replicación de cada réplica.
+ *
+ * Una réplica con retraso mayor al máximo, o que no responde, se marca como no
+ * sana y el ruteo envía sus lecturas al primario hasta que se recupere.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Si todo lo recibido ya fue aplicado el retraso es 0, aunque el primario
+     * lleve tiempo sin escrituras (pg_last_xact_replay_timestamp quedaría viejo).
+     * Fuera de recuperación (no es réplica) las funciones retornan NULL.
+     */
+    private static final String LAG_SQL = """
+        SELECT CASE
+                 WHEN NOT pg_is_in_recovery() THEN 0
+                 WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                 ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())), 0)
+               END
+        """;
+
+    private final List<ReplicaPool> replicas;
+    private final double maxLagSeconds;
+
+    public ReplicaLagMonitor(List<ReplicaPool> replicas, double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+
+        for (ReplicaPool replica : replicas) {
+            Gauge.builder("autumn.datasource.replica.lag", replica, ReplicaPool::getLagSeconds)
+                .description("Retraso de replicación en segundos")
+                .baseUnit("seconds")
+                .tag("replica", replica.getName())
+                .register(meterRegistry);
+            Gauge.builder("autumn.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                .description("1 si la réplica recibe lecturas, 0 si está excluida")
+                .tag("replica", replica.getName())
+                .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${autumn.datasource.routing.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        for (ReplicaPool replica : replicas) {
+            try {
+                Double lag = new JdbcTemplate(replica.getDataSource()).queryForObject(LAG_SQL, Double.class);
+                double seconds = lag == null ? 0 : lag;
+                boolean healthy = seconds <= maxLagSeconds;
+                if (healthy != replica.isHealthy()) {
+                    log.warn("Réplica {} {} (retraso: {}s, máximo: {}s)", replica.getName(),
+                        healthy ? "vuelve a recibir lecturas" : "excluida del ruteo", seconds, maxLagSeconds);
+                }
+                replica.update(seconds, healthy);
+            } catch (Exception e) {
+                if (replica.isHealthy()) {
+                    log.warn("Réplica {} no responde, excluida del ruteo: {}", replica.getName(), e.getMessage());
+                }
+                replica.update(replica.getLagSeconds(), false);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package sys.azentic.autumn.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Pool de conexiones a una réplica de lectura con su estado de salud.
+ * El estado lo actualiza ReplicaLagMonitor y lo consulta el DataSource de ruteo.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ReplicaPool {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    /**
+     * Retraso de replicación medido en la última verificación (segundos)
+     */
+    private volatile double lagSeconds;
+
+    /**
+     * false si la réplica no responde o su retraso supera el máximo permitido
+     */
+    private volatile boolean healthy = true;
+
+    void update(double lagSeconds, boolean healthy) {
+        this.lagSeconds = lagSeconds;
+        this.healthy = healthy;
+    }
+}
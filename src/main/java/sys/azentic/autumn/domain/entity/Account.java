@@ -2,6 +2,7 @@ package sys.azentic.autumn.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -70,12 +71,30 @@ public class Account {
     private BigDecimal dailyLimit = new BigDecimal("50000.00");
 
     /**
-     * Acumulado de transferencias realizadas hoy
+     * Acumulado de transferencias de las últimas 24 horas.
+     * Copia informativa escrita por DailyLimitGuard; JPA nunca la actualiza.
      */
-    @Column(precision = 19, scale = 4)
+    @Column(precision = 19, scale = 4, updatable = false)
     @Builder.Default
     private BigDecimal dailyUsed = BigDecimal.ZERO;
 
+    /**
+     * Fondos retenidos por transferencias en espera de aprobación.
+     * Solo lectura para JPA: lo escribe BalanceHoldService con UPDATEs condicionales.
+     */
+    @Column(nullable = false, precision = 19, scale = 4, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal heldBalance = BigDecimal.ZERO;
+
+    /**
+     * Sub-saldos para créditos concurrentes (0 = saldo sin particionar).
+     * Ver BalanceShardService.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer balanceShards = 0;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -93,6 +112,14 @@ public class Account {
             && dailyUsed.add(amount).compareTo(dailyLimit) <= 0;
     }
 
+    /**
+     * Indica si los créditos de la cuenta se reparten en sub-saldos.
+     * En ese caso balance es solo la parte principal del saldo.
+     */
+    public boolean isSharded() {
+        return balanceShards != null && balanceShards > 1;
+    }
+
     /**
      * Verifica si la cuenta puede recibir transferencias.
      */
@@ -120,7 +147,9 @@ public class Account {
     }
 
     /**
-     * Resetea el uso diario (ejecutado por proceso nocturno).
+     * Resetea el uso diario en memoria.
+     * No se persiste: el límite vive en la ventana deslizante de DailyLimitGuard,
+     * donde el uso de ayer expira solo.
      */
     public void resetDailyUsage() {
         this.dailyUsed = BigDecimal.ZERO;
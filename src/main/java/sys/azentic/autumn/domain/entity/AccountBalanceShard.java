@@ -0,0 +1,45 @@
+package sys.azentic.autumn.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Sub-saldo de una cuenta particionada.
+ *
+ * Los créditos a una cuenta particionada se aplican sobre uno de sus N sub-saldos
+ * en lugar de la fila de accounts, para que créditos concurrentes no se serialicen.
+ * Saldo real = accounts.balance + suma de sub-saldos.
+ *
+ * Se modifica solo con SQL (BalanceShardService); la entidad define el esquema.
+ */
+@Entity
+@Table(name = "account_balance_shards")
+@IdClass(AccountBalanceShard.ShardId.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceShard {
+
+    @Id
+    @Column(name = "account_id")
+    private UUID accountId;
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShardId implements Serializable {
+        private UUID accountId;
+        private Integer shard;
+    }
+}
@@ -0,0 +1,48 @@
+package sys.azentic.autumn.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad INMUTABLE con el saldo de una cuenta en un instante dado.
+ *
+ * Existen dos tipos de snapshot:
+ * - Apertura: creado con la cuenta (snapshotAt = createdAt de la cuenta)
+ * - Cierre diario: último balanceAfter del día, solo para cuentas con movimientos
+ *
+ * El saldo considera los asientos con createdAt estrictamente anterior a snapshotAt.
+ */
+@Entity
+@Table(name = "account_balance_snapshots",
+    uniqueConstraints = @UniqueConstraint(name = "uk_snapshot_account_at", columnNames = {"account_id", "snapshot_at"}))
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
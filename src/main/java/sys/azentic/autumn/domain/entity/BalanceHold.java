@@ -0,0 +1,45 @@
+package sys.azentic.autumn.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import sys.azentic.autumn.domain.enums.BalanceHoldStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Retención de fondos de una transferencia (una por transferencia).
+ *
+ * Autorizar mueve el monto del disponible a accounts.held_balance en una sentencia;
+ * capturar lo debita y liberar lo devuelve, ambos en transacciones cortas separadas.
+ *
+ * Se modifica solo con SQL (BalanceHoldService); la entidad define el esquema.
+ */
+@Entity
+@Table(name = "balance_holds")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceHold {
+
+    @Id
+    @Column(name = "transfer_id")
+    private UUID transferId;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BalanceHoldStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime resolvedAt;
+}
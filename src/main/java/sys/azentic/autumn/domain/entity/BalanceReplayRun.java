@@ -0,0 +1,79 @@
+package sys.azentic.autumn.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import sys.azentic.autumn.domain.enums.BalanceReplayMode;
+import sys.azentic.autumn.domain.enums.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad que representa una ejecución del motor de replay de saldos.
+ * Los contadores de progreso se actualizan por lote mientras el proceso corre.
+ */
+@Entity
+@Table(name = "balance_replay_runs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceReplayRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BalanceReplayMode mode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private JobStatus status = JobStatus.RUNNING;
+
+    /**
+     * true: replay desde el snapshot de apertura; false: desde el último snapshot
+     */
+    @Column(nullable = false)
+    private Boolean fullHistory;
+
+    @Column(nullable = false)
+    private Integer parallelism;
+
+    @Builder.Default
+    private Long accountsTotal = 0L;
+
+    @Builder.Default
+    private Long accountsProcessed = 0L;
+
+    @Builder.Default
+    private Long entriesProcessed = 0L;
+
+    @Builder.Default
+    private Long mismatches = 0L;
+
+    @Builder.Default
+    private Long chainBreaks = 0L;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    /**
+     * Instancia que ejecuta el replay (nodo + arranque del proceso)
+     */
+    @Column(length = 100)
+    private String nodeId;
+
+    /**
+     * Último latido del dueño; si vence, el replay quedó huérfano y se marca FAILED
+     */
+    private LocalDateTime heartbeatAt;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -19,7 +19,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "ledger_entries", indexes = {
     @Index(name = "idx_ledger_transfer_id", columnList = "transfer_id"),
-    @Index(name = "idx_ledger_account_id", columnList = "account_id"),
+    @Index(name = "idx_ledger_account_created_at", columnList = "account_id, created_at DESC"),
     @Index(name = "idx_ledger_created_at", columnList = "created_at")
 })
 @EntityListeners(AuditingEntityListener.class)
@@ -89,4 +89,34 @@ public class LedgerEntry {
             .description(description)
             .build();
     }
+
+    /**
+     * Débito con saldo resultante explícito (cuentas particionadas: saldo agregado)
+     */
+    public static LedgerEntry createDebit(Transfer transfer, Account account, BigDecimal amount,
+                                          String description, BigDecimal balanceAfter) {
+        return LedgerEntry.builder()
+            .transfer(transfer)
+            .account(account)
+            .type(LedgerEntryType.DEBIT)
+            .amount(amount)
+            .balanceAfter(balanceAfter)
+            .description(description)
+            .build();
+    }
+
+    /**
+     * Crédito con saldo resultante explícito (cuentas particionadas: saldo agregado)
+     */
+    public static LedgerEntry createCredit(Transfer transfer, Account account, BigDecimal amount,
+                                           String description, BigDecimal balanceAfter) {
+        return LedgerEntry.builder()
+            .transfer(transfer)
+            .account(account)
+            .type(LedgerEntryType.CREDIT)
+            .amount(amount)
+            .balanceAfter(balanceAfter)
+            .description(description)
+            .build();
+    }
 }
@@ -0,0 +1,56 @@
+package sys.azentic.autumn.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import sys.azentic.autumn.domain.enums.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de dominio pendiente de publicar (patrón Transactional Outbox).
+ *
+ * Se inserta en la misma transacción que el cambio de negocio: si la transacción
+ * se revierte el evento no existe, y si confirma el relay lo publicará.
+ * El ID (secuencial) define el orden de publicación y sirve para deduplicar.
+ */
+@Entity
+@Table(name = "outbox_events")
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    /**
+     * Cuerpo del evento en JSON
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Momento en que el relay lo entregó al destino; null = pendiente
+     */
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,67 @@
+package sys.azentic.autumn.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import sys.azentic.autumn.domain.enums.JobStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad que representa una carga de nómina: un archivo CSV con una cuenta origen
+ * y muchos destinos. byteOffset es el checkpoint: la posición del archivo hasta la
+ * que todas las filas ya fueron liquidadas o rechazadas.
+ */
+@Entity
+@Table(name = "payroll_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollJob {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID sourceAccountId;
+
+    @Column(nullable = false, length = 20)
+    private String sourceAccountNumber;
+
+    private String fileName;
+
+    @Column(nullable = false)
+    private Long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private JobStatus status = JobStatus.RUNNING;
+
+    @Builder.Default
+    private Long byteOffset = 0L;
+
+    @Builder.Default
+    private Long linesRead = 0L;
+
+    @Builder.Default
+    private Long transfersCompleted = 0L;
+
+    @Builder.Default
+    private Long rowsFailed = 0L;
+
+    @Column(precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal amountTransferred = BigDecimal.ZERO;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
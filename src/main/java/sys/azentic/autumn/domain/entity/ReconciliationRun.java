@@ -0,0 +1,49 @@
+package sys.azentic.autumn.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import sys.azentic.autumn.domain.enums.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad que representa una ejecución de la reconciliación saldo vs libro mayor.
+ * El espacio de IDs se divide en rangos fijos por ejecución; cada rango
+ * verificado deja un checkpoint para poder reanudar.
+ */
+@Entity
+@Table(name = "reconciliation_runs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private JobStatus status = JobStatus.RUNNING;
+
+    @Column(nullable = false)
+    private Integer rangesTotal;
+
+    @Builder.Default
+    private Integer rangesCompleted = 0;
+
+    @Builder.Default
+    private Long mismatches = 0L;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -18,7 +18,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "transfers", indexes = {
     @Index(name = "idx_transfer_idempotency_key", columnList = "idempotency_key", unique = true),
-    @Index(name = "idx_transfer_status", columnList = "status"),
+    @Index(name = "idx_transfer_status_created_at", columnList = "status, created_at"),
     @Index(name = "idx_transfer_source_account", columnList = "source_account_id"),
     @Index(name = "idx_transfer_destination_account", columnList = "destination_account_id"),
     @Index(name = "idx_transfer_created_at", columnList = "created_at")
@@ -81,6 +81,14 @@ public class Transfer {
 
     private LocalDateTime approvedAt;
 
+    /**
+     * Nodo que reclamó la transferencia de la cola de trabajo (procesamiento asíncrono)
+     */
+    @Column(length = 100)
+    private String claimedBy;
+
+    private LocalDateTime claimedAt;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
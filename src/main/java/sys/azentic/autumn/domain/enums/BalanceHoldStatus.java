@@ -0,0 +1,21 @@
+package sys.azentic.autumn.domain.enums;
+
+/**
+ * Estados de una retención de fondos.
+ */
+public enum BalanceHoldStatus {
+    /**
+     * Fondos retenidos: fuera del disponible, aún en el saldo
+     */
+    HELD,
+
+    /**
+     * Retención convertida en débito
+     */
+    CAPTURED,
+
+    /**
+     * Retención devuelta al disponible sin débito
+     */
+    RELEASED
+}
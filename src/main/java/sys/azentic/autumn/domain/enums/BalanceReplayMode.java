@@ -0,0 +1,16 @@
+package sys.azentic.autumn.domain.enums;
+
+/**
+ * Modo de salida del motor de replay de saldos.
+ */
+public enum BalanceReplayMode {
+    /**
+     * Solo registra las cuentas cuyo saldo reconstruido difiere del actual
+     */
+    DIFF,
+
+    /**
+     * Registra el saldo reconstruido de todas las cuentas
+     */
+    REBUILD
+}
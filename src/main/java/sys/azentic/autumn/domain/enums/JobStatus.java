@@ -0,0 +1,21 @@
+package sys.azentic.autumn.domain.enums;
+
+/**
+ * Estado de un proceso batch de larga duración (replay, reconciliación, etc.)
+ */
+public enum JobStatus {
+    /**
+     * Proceso en ejecución
+     */
+    RUNNING,
+
+    /**
+     * Proceso finalizado correctamente
+     */
+    COMPLETED,
+
+    /**
+     * Proceso interrumpido por un error; puede reanudarse si el proceso lo soporta
+     */
+    FAILED
+}
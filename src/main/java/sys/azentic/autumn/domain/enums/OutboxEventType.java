@@ -0,0 +1,21 @@
+package sys.azentic.autumn.domain.enums;
+
+/**
+ * Tipos de eventos de dominio publicados a consumidores externos vía outbox.
+ */
+public enum OutboxEventType {
+    /**
+     * Transferencia ejecutada (débito y crédito aplicados)
+     */
+    TRANSFER_COMPLETED,
+
+    /**
+     * Transferencia rechazada durante su procesamiento
+     */
+    TRANSFER_FAILED,
+
+    /**
+     * Transferencia retenida en espera de aprobación manual
+     */
+    TRANSFER_PENDING_APPROVAL
+}
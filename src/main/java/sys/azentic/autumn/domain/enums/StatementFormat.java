@@ -0,0 +1,24 @@
+package sys.azentic.autumn.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Formatos soportados para la exportación de estados de cuenta.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum StatementFormat {
+    /**
+     * Un objeto JSON por línea (Newline Delimited JSON)
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Valores separados por coma con fila de encabezado
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+}
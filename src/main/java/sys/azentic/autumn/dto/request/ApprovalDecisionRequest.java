@@ -0,0 +1,38 @@
+package sys.azentic.autumn.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO para aprobar o rechazar un lote de transferencias en espera de aprobación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApprovalDecisionRequest {
+
+    /**
+     * Transferencias a decidir; todas en una misma transacción.
+     */
+    @NotEmpty(message = "Debe indicar al menos una transferencia")
+    @Size(max = 1000, message = "El lote no puede exceder 1000 transferencias")
+    private List<@NotNull UUID> transferIds;
+
+    @NotNull(message = "El revisor es obligatorio")
+    private UUID reviewerId;
+
+    /**
+     * Motivo (obligatorio en la práctica para rechazos; queda en errorMessage)
+     */
+    @Size(max = 500, message = "El motivo no puede exceder 500 caracteres")
+    private String reason;
+}
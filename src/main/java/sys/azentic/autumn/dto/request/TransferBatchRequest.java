@@ -0,0 +1,30 @@
+package sys.azentic.autumn.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para registrar un lote de transferencias (nóminas, liquidaciones).
+ * Cada transferencia lleva su propia clave de idempotencia.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferBatchRequest {
+
+    /**
+     * Transferencias del lote; se ejecutan todas o ninguna.
+     */
+    @NotEmpty(message = "Debe indicar al menos una transferencia")
+    @Size(max = 1000, message = "El lote no puede exceder 1000 transferencias")
+    private List<@NotNull @Valid TransferRequest> transfers;
+}
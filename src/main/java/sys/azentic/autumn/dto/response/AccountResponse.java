@@ -23,6 +23,7 @@ public class AccountResponse {
     private UUID id;
     private String accountNumber;
     private BigDecimal balance;
+    private BigDecimal heldBalance;
     private Currency currency;
     private AccountStatus status;
     private String ownerName;
@@ -0,0 +1,29 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de un lote de aprobaciones o rechazos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApprovalDecisionResponse {
+
+    /**
+     * Transferencias decididas, con su estado final (COMPLETED o FAILED)
+     */
+    private List<TransferResponse> transfers;
+
+    /**
+     * IDs omitidos: inexistentes o que ya no estaban en espera de aprobación
+     */
+    private List<UUID> skipped;
+}
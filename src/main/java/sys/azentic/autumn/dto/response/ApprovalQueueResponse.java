@@ -0,0 +1,25 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Página de la cola de aprobación (paginación por keyset).
+ * Para la página siguiente se envían nextCreatedAt y nextId; ambos nulos = fin de la cola.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApprovalQueueResponse {
+
+    private List<TransferResponse> transfers;
+    private LocalDateTime nextCreatedAt;
+    private UUID nextId;
+}
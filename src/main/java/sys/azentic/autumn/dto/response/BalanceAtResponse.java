@@ -0,0 +1,36 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta para el saldo de una cuenta en un instante del pasado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceAtResponse {
+
+    private UUID accountId;
+    private LocalDateTime at;
+    private BigDecimal balance;
+
+    /**
+     * Origen del saldo: LEDGER (último asiento), SNAPSHOT (apertura/cierre diario),
+     * REPLAY (snapshot + asientos posteriores, cuentas particionadas)
+     * o NONE (la cuenta no tenía saldo registrado a esa fecha)
+     */
+    private String source;
+
+    /**
+     * Instante del asiento o snapshot del que se tomó el saldo
+     */
+    private LocalDateTime effectiveAt;
+}
@@ -0,0 +1,35 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sys.azentic.autumn.domain.enums.BalanceReplayMode;
+import sys.azentic.autumn.domain.enums.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta con el estado y progreso de un replay de saldos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceReplayRunResponse {
+
+    private UUID id;
+    private BalanceReplayMode mode;
+    private JobStatus status;
+    private Boolean fullHistory;
+    private Integer parallelism;
+    private Long accountsTotal;
+    private Long accountsProcessed;
+    private Long entriesProcessed;
+    private Long mismatches;
+    private Long chainBreaks;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,23 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de respuesta de una importación masiva.
+ * rowsSkipped incluye filas inválidas y filas que ya existían.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResponse {
+
+    private String type;
+    private Long rowsStaged;
+    private Long rowsInserted;
+    private Long rowsSkipped;
+    private Long elapsedMs;
+}
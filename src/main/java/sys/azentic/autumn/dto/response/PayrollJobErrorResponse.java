@@ -0,0 +1,24 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de respuesta para una fila rechazada de una carga de nómina.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollJobErrorResponse {
+
+    private Long id;
+    private Long lineNumber;
+    private String rawLine;
+    private String error;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sys.azentic.autumn.domain.enums.JobStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta con el estado y progreso de una carga de nómina.
+ * El progreso es byteOffset / fileSize.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollJobResponse {
+
+    private UUID id;
+    private String sourceAccountNumber;
+    private String fileName;
+    private JobStatus status;
+    private Long fileSize;
+    private Long byteOffset;
+    private Long linesRead;
+    private Long transfersCompleted;
+    private Long rowsFailed;
+    private BigDecimal amountTransferred;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
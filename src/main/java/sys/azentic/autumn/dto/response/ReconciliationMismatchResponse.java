@@ -0,0 +1,34 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta para una diferencia detectada por la reconciliación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationMismatchResponse {
+
+    private Long id;
+    private Integer rangeIndex;
+
+    /**
+     * ACCOUNT_BALANCE, TRANSFER_ENTRIES o HELD_BALANCE
+     */
+    private String mismatchType;
+    private UUID accountId;
+    private UUID transferId;
+    private BigDecimal expected;
+    private BigDecimal actual;
+    private String detail;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sys.azentic.autumn.domain.enums.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta con el estado y progreso de una reconciliación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRunResponse {
+
+    private UUID id;
+    private JobStatus status;
+    private Integer rangesTotal;
+    private Integer rangesCompleted;
+    private Long mismatches;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,35 @@
+package sys.azentic.autumn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de un lote de transferencias compensado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferBatchResponse {
+
+    /**
+     * Transferencias en el orden del request (las ya registradas se devuelven tal cual)
+     */
+    private List<TransferResponse> transfers;
+
+    /**
+     * Posición neta aplicada a cada cuenta (créditos - débitos), por número de cuenta
+     */
+    private Map<String, BigDecimal> netPositions;
+
+    /**
+     * Cuentas actualizadas: una escritura por cuenta sin importar el tamaño del lote
+     */
+    private int accountsUpdated;
+}
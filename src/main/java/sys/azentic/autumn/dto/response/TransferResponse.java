@@ -29,6 +29,8 @@ public class TransferResponse {
     private String description;
     private String errorMessage;
     private Boolean requiresApproval;
+    private UUID approvedBy;
+    private LocalDateTime approvedAt;
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
 }
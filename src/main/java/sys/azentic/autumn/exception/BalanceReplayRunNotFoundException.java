@@ -0,0 +1,13 @@
+package sys.azentic.autumn.exception;
+
+import java.util.UUID;
+
+/**
+ * Excepción lanzada cuando no se encuentra una ejecución de replay de saldos.
+ */
+public class BalanceReplayRunNotFoundException extends RuntimeException {
+
+    public BalanceReplayRunNotFoundException(UUID runId) {
+        super("Replay de saldos no encontrado con ID: " + runId);
+    }
+}
@@ -0,0 +1,23 @@
+package sys.azentic.autumn.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatusCode;
+import sys.azentic.autumn.dto.response.ErrorResponse;
+
+/**
+ * Excepción lanzada cuando el nodo dueño de la cuenta rechaza una transferencia
+ * reenviada. Conserva el estado y el cuerpo de error originales para devolverlos
+ * al cliente tal cual.
+ */
+@Getter
+public class ForwardedRequestException extends RuntimeException {
+    
+    private final HttpStatusCode status;
+    private final ErrorResponse error;
+    
+    public ForwardedRequestException(HttpStatusCode status, ErrorResponse error) {
+        super(error == null ? "Error " + status.value() + " del nodo dueño" : error.getMessage());
+        this.status = status;
+        this.error = error;
+    }
+}
@@ -2,7 +2,10 @@ package sys.azentic.autumn.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -51,6 +54,81 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(BalanceReplayRunNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBalanceReplayRunNotFound(
+            BalanceReplayRunNotFoundException ex, HttpServletRequest request) {
+        log.warn("Replay de saldos no encontrado: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.NOT_FOUND.value(),
+            "Replay Run Not Found",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(ReconciliationRunNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReconciliationRunNotFound(
+            ReconciliationRunNotFoundException ex, HttpServletRequest request) {
+        log.warn("Reconciliación no encontrada: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.NOT_FOUND.value(),
+            "Reconciliation Run Not Found",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(PayrollJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handlePayrollJobNotFound(
+            PayrollJobNotFoundException ex, HttpServletRequest request) {
+        log.warn("Carga de nómina no encontrada: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.NOT_FOUND.value(),
+            "Payroll Job Not Found",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(PayrollJobConflictException.class)
+    public ResponseEntity<ErrorResponse> handlePayrollJobConflict(
+            PayrollJobConflictException ex, HttpServletRequest request) {
+        log.warn("Carga de nómina no reanudable: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.CONFLICT.value(),
+            "Payroll Job Conflict",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(ReconciliationConflictException.class)
+    public ResponseEntity<ErrorResponse> handleReconciliationConflict(
+            ReconciliationConflictException ex, HttpServletRequest request) {
+        log.warn("Reconciliación no reanudable: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.CONFLICT.value(),
+            "Reconciliation Conflict",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(InsufficientBalanceException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientBalance(
             InsufficientBalanceException ex, HttpServletRequest request) {
@@ -153,6 +231,83 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(SubscriptionLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleSubscriptionLimitExceeded(
+            SubscriptionLimitExceededException ex, HttpServletRequest request) {
+        log.warn("Límite de suscripciones alcanzado: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Subscription Limit Exceeded",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "30")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(error);
+    }
+
+    /**
+     * Conflicto de concurrencia que persistió tras los reintentos automáticos
+     * (@Version desactualizado, deadlock o lock no obtenido). El cliente puede
+     * reintentar con la misma clave de idempotencia.
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailure(
+            ConcurrencyFailureException ex, HttpServletRequest request) {
+        log.warn("Conflicto de concurrencia no resuelto: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.CONFLICT.value(),
+            "Concurrent Update",
+            "La cuenta está siendo modificada por otra operación. Reintente con la misma clave de idempotencia.",
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(error);
+    }
+
+    /**
+     * Transferencia reenviada al nodo dueño de la cuenta y rechazada allí:
+     * se responde con el mismo estado y cuerpo que dio ese nodo.
+     */
+    @ExceptionHandler(ForwardedRequestException.class)
+    public ResponseEntity<ErrorResponse> handleForwardedRequest(
+            ForwardedRequestException ex, HttpServletRequest request) {
+        log.warn("Transferencia rechazada por el nodo dueño ({}): {}", ex.getStatus().value(), ex.getMessage());
+        
+        ErrorResponse error = ex.getError() != null ? ex.getError() : ErrorResponse.of(
+            ex.getStatus().value(),
+            "Forwarded Request Failed",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(ex.getStatus()).body(error);
+    }
+
+    /**
+     * Parámetro administrativo fuera de rango (por ejemplo, cantidad de sub-saldos).
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(
+            IllegalArgumentException ex, HttpServletRequest request) {
+        log.warn("Parámetro inválido: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid Parameter",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     /**
      * Maneja cualquier excepción no capturada específicamente.
      */
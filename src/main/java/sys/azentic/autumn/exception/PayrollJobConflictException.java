@@ -0,0 +1,12 @@
+package sys.azentic.autumn.exception;
+
+/**
+ * Excepción lanzada cuando una carga de nómina no puede reanudarse en este nodo:
+ * otro nodo la está procesando o su archivo no está en el spool local.
+ */
+public class PayrollJobConflictException extends RuntimeException {
+
+    public PayrollJobConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package sys.azentic.autumn.exception;
+
+import java.util.UUID;
+
+/**
+ * Excepción lanzada cuando no se encuentra una carga de nómina.
+ */
+public class PayrollJobNotFoundException extends RuntimeException {
+
+    public PayrollJobNotFoundException(UUID jobId) {
+        super("Carga de nómina no encontrada con ID: " + jobId);
+    }
+}
@@ -0,0 +1,12 @@
+package sys.azentic.autumn.exception;
+
+/**
+ * Excepción lanzada cuando una reconciliación no puede reanudarse porque otra
+ * reconciliación (o la misma) está en ejecución en el clúster.
+ */
+public class ReconciliationConflictException extends RuntimeException {
+
+    public ReconciliationConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package sys.azentic.autumn.exception;
+
+import java.util.UUID;
+
+/**
+ * Excepción lanzada cuando no se encuentra una ejecución de reconciliación.
+ */
+public class ReconciliationRunNotFoundException extends RuntimeException {
+
+    public ReconciliationRunNotFoundException(UUID runId) {
+        super("Reconciliación no encontrada con ID: " + runId);
+    }
+}
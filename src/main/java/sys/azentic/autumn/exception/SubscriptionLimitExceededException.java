@@ -0,0 +1,11 @@
+package sys.azentic.autumn.exception;
+
+/**
+ * Excepción lanzada cuando se alcanza el máximo de conexiones SSE (global o por cuenta).
+ */
+public class SubscriptionLimitExceededException extends RuntimeException {
+
+    public SubscriptionLimitExceededException(String message) {
+        super(message);
+    }
+}
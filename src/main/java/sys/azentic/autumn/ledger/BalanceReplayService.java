@@ -0,0 +1,370 @@
+package sys.azentic.autumn.ledger;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sys.azentic.autumn.domain.entity.BalanceReplayRun;
+import sys.azentic.autumn.domain.enums.BalanceReplayMode;
+import sys.azentic.autumn.domain.enums.JobStatus;
+import sys.azentic.autumn.exception.BalanceReplayRunNotFoundException;
+import sys.azentic.autumn.repository.BalanceReplayRunRepository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Motor de reconstrucción (replay) de saldos a partir del libro mayor.
+ *
+ * Para cada cuenta toma un snapshot como punto de partida (el último, o el de
+ * apertura si se pide el historial completo) y acumula los asientos posteriores
+ * (CREDIT suma, DEBIT resta), verificando de paso la cadena de balance_after.
+ *
+ * - Las cuentas se recorren por lotes con paginación keyset (id > último id),
+ *   por lo que la memoria depende del tamaño de lote y no del total de cuentas.
+ * - Cada lote se reparte en un ForkJoinPool dedicado; cada cuenta se lee con un
+ *   cursor (fetchSize) dentro de una transacción REPEATABLE READ, para que el
+ *   saldo actual y los asientos correspondan a la misma foto de la base.
+ * - El progreso se persiste en balance_replay_runs al terminar cada lote.
+ * - Cada replay registra la instancia dueña y un latido periódico. Los RUNNING cuyo
+ *   latido venció (nodo caído o reiniciado) se marcan FAILED al arrancar y en cada
+ *   latido; si el dueño sigue vivo, ve el cambio de estado y se detiene.
+ *
+ * El motor NUNCA modifica accounts.balance: el resultado queda en
+ * balance_replay_results para que un operador lo revise y aplique.
+ */
+@Service
+@Slf4j
+public class BalanceReplayService {
+
+    private static final int SEQUENTIAL_THRESHOLD = 8;
+
+    private static final String HEARTBEAT_SQL = """
+        UPDATE balance_replay_runs SET heartbeat_at = ?
+        WHERE status = 'RUNNING' AND node_id = ?
+        """;
+
+    private static final String REAP_SQL = """
+        UPDATE balance_replay_runs
+        SET status = 'FAILED', error_message = 'Replay interrumpido: su nodo dejó de reportar latido', finished_at = ?
+        WHERE status = 'RUNNING' AND (heartbeat_at IS NULL OR heartbeat_at < ?)
+        """;
+
+    private final BalanceReplayRunRepository runRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final int parallelism;
+    private final int batchSize;
+    private final Duration staleAfter;
+
+    /**
+     * Dueño de los replays de este proceso: el ID de nodo solo no basta, puede
+     * repetirse entre nodos (valor por defecto) o sobrevivir a un reinicio.
+     */
+    private final String owner;
+
+    /**
+     * Un solo replay a la vez por nodo: cada uno ya usa todo el paralelismo configurado.
+     */
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("balance-replay-coordinator").daemon(true).factory());
+
+    public BalanceReplayService(
+            BalanceReplayRunRepository runRepository,
+            JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${autumn.ledger.replay.parallelism:4}") int parallelism,
+            @Value("${autumn.ledger.replay.batch-size:500}") int batchSize,
+            @Value("${autumn.ledger.replay.fetch-size:1000}") int fetchSize,
+            @Value("${autumn.ledger.replay.stale-after-seconds:120}") long staleAfterSeconds,
+            @Value("${autumn.node-id:local}") String nodeId) {
+        this.runRepository = runRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.owner = nodeId + ":" + UUID.randomUUID();
+    }
+
+    /**
+     * Registra y lanza en segundo plano un nuevo replay de saldos.
+     *
+     * @param mode DIFF (solo diferencias) o REBUILD (todos los saldos reconstruidos)
+     * @param fullHistory true para partir del snapshot de apertura de cada cuenta
+     * @return Ejecución registrada en estado RUNNING
+     */
+    public BalanceReplayRun startReplay(BalanceReplayMode mode, boolean fullHistory) {
+        BalanceReplayRun run = runRepository.save(BalanceReplayRun.builder()
+            .mode(mode)
+            .fullHistory(fullHistory)
+            .parallelism(parallelism)
+            .nodeId(owner)
+            .startedAt(LocalDateTime.now())
+            .heartbeatAt(LocalDateTime.now())
+            .build());
+
+        log.info("Replay de saldos {} registrado. Modo: {} - Historial completo: {}", run.getId(), mode, fullHistory);
+        coordinator.submit(() -> execute(run.getId(), mode, fullHistory));
+
+        return run;
+    }
+
+    /**
+     * Consulta el estado y progreso de un replay.
+     */
+    public BalanceReplayRun getRun(UUID runId) {
+        return runRepository.findById(runId)
+            .orElseThrow(() -> new BalanceReplayRunNotFoundException(runId));
+    }
+
+    /**
+     * Renueva el latido de los replays de este proceso (en curso o en cola) y marca
+     * FAILED los que quedaron RUNNING sin latido: su nodo se cayó o se reinició.
+     */
+    @Scheduled(fixedDelayString = "${autumn.ledger.replay.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(HEARTBEAT_SQL, Timestamp.valueOf(now), owner);
+        failStaleRuns(now);
+    }
+
+    /**
+     * Al arrancar, los replays que un reinicio dejó RUNNING se marcan FAILED en cuanto
+     * su latido vence, sin esperar al primer ciclo programado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failStaleRunsOnStartup() {
+        failStaleRuns(LocalDateTime.now());
+    }
+
+    private void failStaleRuns(LocalDateTime now) {
+        int failed = jdbcTemplate.update(REAP_SQL, Timestamp.valueOf(now), Timestamp.valueOf(now.minus(staleAfter)));
+        if (failed > 0) {
+            log.warn("{} replays de saldos sin latido marcados como FAILED", failed);
+        }
+    }
+
+    private void execute(UUID runId, BalanceReplayMode mode, boolean fullHistory) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long started = System.nanoTime();
+        long processed = 0;
+        long entries = 0;
+        long mismatches = 0;
+        long chainBreaks = 0;
+
+        try {
+            Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class);
+            jdbcTemplate.update("UPDATE balance_replay_runs SET accounts_total = ? WHERE id = ?", total, runId);
+
+            UUID lastId = null;
+            while (true) {
+                List<UUID> accountIds = nextAccountBatch(lastId);
+                if (accountIds.isEmpty()) {
+                    break;
+                }
+
+                List<AccountReplay> results = pool.invoke(new ReplayTask(accountIds, 0, accountIds.size(), fullHistory));
+
+                List<AccountReplay> toWrite = new ArrayList<>();
+                for (AccountReplay result : results) {
+                    entries += result.entries();
+                    chainBreaks += result.chainBreaks();
+                    if (!result.isConsistent()) {
+                        mismatches++;
+                    }
+                    if (mode == BalanceReplayMode.REBUILD || !result.isConsistent()) {
+                        toWrite.add(result);
+                    }
+                }
+                writeResults(runId, toWrite);
+
+                processed += accountIds.size();
+                lastId = accountIds.get(accountIds.size() - 1);
+
+                int updated = jdbcTemplate.update("""
+                    UPDATE balance_replay_runs
+                    SET accounts_processed = ?, entries_processed = ?, mismatches = ?, chain_breaks = ?
+                    WHERE id = ? AND status = 'RUNNING'
+                    """, processed, entries, mismatches, chainBreaks, runId);
+                if (updated == 0) {
+                    // Otro nodo lo dio por huérfano: no se sigue escribiendo sobre un run FAILED
+                    log.warn("Replay {} ya no está RUNNING, se detiene tras {} cuentas", runId, processed);
+                    return;
+                }
+
+                double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+                log.info("Replay {}: {}/{} cuentas, {} asientos ({} asientos/s), {} diferencias",
+                    runId, processed, total, entries, Math.round(entries / seconds), mismatches);
+            }
+
+            jdbcTemplate.update("UPDATE balance_replay_runs SET status = ?, finished_at = ? WHERE id = ? AND status = 'RUNNING'",
+                JobStatus.COMPLETED.name(), Timestamp.valueOf(LocalDateTime.now()), runId);
+            log.info("=== REPLAY DE SALDOS {} COMPLETADO === Cuentas: {} - Diferencias: {} - Cadenas rotas: {}",
+                runId, processed, mismatches, chainBreaks);
+
+        } catch (Exception e) {
+            log.error("Replay de saldos {} falló tras {} cuentas", runId, processed, e);
+            jdbcTemplate.update("UPDATE balance_replay_runs SET status = ?, error_message = ?, finished_at = ? WHERE id = ? AND status = 'RUNNING'",
+                JobStatus.FAILED.name(), truncate(e.getMessage()), Timestamp.valueOf(LocalDateTime.now()), runId);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<UUID> nextAccountBatch(UUID lastId) {
+        if (lastId == null) {
+            return jdbcTemplate.queryForList(
+                "SELECT id FROM accounts ORDER BY id LIMIT ?", UUID.class, batchSize);
+        }
+        return jdbcTemplate.queryForList(
+            "SELECT id FROM accounts WHERE id > ? ORDER BY id LIMIT ?", UUID.class, lastId, batchSize);
+    }
+
+    /**
+     * Acumula los asientos de una cuenta a partir de su snapshot.
+     */
+    private AccountReplay replayAccount(UUID accountId, boolean fullHistory) {
+        return snapshotTransaction.execute(status -> {
+            // Cuentas particionadas: saldo = principal + sub-saldos; su balance_after es un
+            // agregado observado sin serializar, por eso no se verifica la cadena
+            Object[] account = jdbcTemplate.queryForObject("""
+                SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0) AS balance,
+                       a.balance_shards > 1 AS sharded
+                FROM accounts a WHERE a.id = ?
+                """, (rs, rowNum) -> new Object[]{rs.getBigDecimal("balance"), rs.getBoolean("sharded")}, accountId);
+            BigDecimal actual = (BigDecimal) account[0];
+            boolean checkChain = !(Boolean) account[1];
+
+            String snapshotSql = fullHistory
+                ? "SELECT snapshot_at, balance FROM account_balance_snapshots WHERE account_id = ? ORDER BY snapshot_at ASC LIMIT 1"
+                : "SELECT snapshot_at, balance FROM account_balance_snapshots WHERE account_id = ? ORDER BY snapshot_at DESC LIMIT 1";
+            List<Object[]> snapshot = jdbcTemplate.query(snapshotSql,
+                (rs, rowNum) -> new Object[]{rs.getTimestamp("snapshot_at"), rs.getBigDecimal("balance")}, accountId);
+
+            Timestamp from = snapshot.isEmpty() ? null : (Timestamp) snapshot.get(0)[0];
+            BigDecimal[] running = {snapshot.isEmpty() ? BigDecimal.ZERO : (BigDecimal) snapshot.get(0)[1]};
+            long[] counters = {0, 0}; // [asientos, cadenas rotas]
+
+            String entriesSql = from == null
+                ? "SELECT type, amount, balance_after FROM ledger_entries WHERE account_id = ? ORDER BY created_at ASC"
+                : "SELECT type, amount, balance_after FROM ledger_entries WHERE account_id = ? AND created_at >= ? ORDER BY created_at ASC";
+            Object[] params = from == null ? new Object[]{accountId} : new Object[]{accountId, from};
+
+            cursorJdbcTemplate.query(entriesSql, rs -> {
+                BigDecimal amount = rs.getBigDecimal("amount");
+                running[0] = "CREDIT".equals(rs.getString("type"))
+                    ? running[0].add(amount)
+                    : running[0].subtract(amount);
+                if (checkChain && running[0].compareTo(rs.getBigDecimal("balance_after")) != 0) {
+                    counters[1]++;
+                }
+                counters[0]++;
+            }, params);
+
+            return new AccountReplay(accountId, running[0], actual, counters[0], counters[1]);
+        });
+    }
+
+    private void writeResults(UUID runId, List<AccountReplay> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO balance_replay_results
+                (run_id, account_id, replayed_balance, actual_balance, difference, entries_replayed, chain_breaks)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """, results, results.size(), (ps, result) -> {
+            ps.setObject(1, runId);
+            ps.setObject(2, result.accountId());
+            ps.setBigDecimal(3, result.replayed());
+            ps.setBigDecimal(4, result.actual());
+            ps.setBigDecimal(5, result.actual().subtract(result.replayed()));
+            ps.setLong(6, result.entries());
+            ps.setLong(7, result.chainBreaks());
+        });
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    /**
+     * Resultado del replay de una cuenta.
+     */
+    private record AccountReplay(UUID accountId, BigDecimal replayed, BigDecimal actual,
+                                 long entries, long chainBreaks) {
+
+        boolean isConsistent() {
+            return replayed.compareTo(actual) == 0 && chainBreaks == 0;
+        }
+    }
+
+    /**
+     * Divide un lote de cuentas en mitades hasta llegar a un tamaño secuencial.
+     */
+    private final class ReplayTask extends RecursiveTask<List<AccountReplay>> {
+
+        private final List<UUID> accountIds;
+        private final int from;
+        private final int to;
+        private final boolean fullHistory;
+
+        private ReplayTask(List<UUID> accountIds, int from, int to, boolean fullHistory) {
+            this.accountIds = accountIds;
+            this.from = from;
+            this.to = to;
+            this.fullHistory = fullHistory;
+        }
+
+        @Override
+        protected List<AccountReplay> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                List<AccountReplay> results = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    results.add(replayAccount(accountIds.get(i), fullHistory));
+                }
+                return results;
+            }
+
+            int middle = (from + to) >>> 1;
+            ReplayTask left = new ReplayTask(accountIds, from, middle, fullHistory);
+            ReplayTask right = new ReplayTask(accountIds, middle, to, fullHistory);
+            left.fork();
+            List<AccountReplay> results = new ArrayList<>(right.compute());
+            results.addAll(0, left.join());
+            return results;
+        }
+    }
+}
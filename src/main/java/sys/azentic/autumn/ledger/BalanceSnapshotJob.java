@@ -0,0 +1,52 @@
+package sys.azentic.autumn.ledger;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import sys.azentic.autumn.repository.AccountBalanceSnapshotRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Proceso nocturno que registra el cierre diario de saldos.
+ *
+ * Solo las cuentas con movimientos en el día reciben un snapshot, por lo que el
+ * costo es proporcional a la actividad del día y no al total de cuentas.
+ * La inserción es idempotente: varios nodos pueden ejecutarlo sin duplicar.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSnapshotJob {
+
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+
+    /**
+     * Registra el cierre del día anterior.
+     */
+    @Scheduled(cron = "${autumn.ledger.snapshot.cron:0 5 0 * * *}")
+    @Transactional
+    public void snapshotPreviousDay() {
+        snapshotDay(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Registra el cierre de un día específico (también usado para backfill).
+     *
+     * @param day Día a cerrar
+     * @return Cantidad de snapshots creados
+     */
+    @Transactional
+    public int snapshotDay(LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+
+        int created = snapshotRepository.insertDailySnapshots(dayStart, dayEnd);
+        log.info("Snapshots de cierre del {} registrados: {}", day, created);
+
+        return created;
+    }
+}
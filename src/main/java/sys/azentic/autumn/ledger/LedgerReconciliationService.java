@@ -0,0 +1,429 @@
+package sys.azentic.autumn.ledger;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sys.azentic.autumn.concurrency.RedisDistributedLock;
+import sys.azentic.autumn.domain.entity.ReconciliationRun;
+import sys.azentic.autumn.domain.enums.JobStatus;
+import sys.azentic.autumn.dto.response.ReconciliationMismatchResponse;
+import sys.azentic.autumn.exception.ReconciliationConflictException;
+import sys.azentic.autumn.exception.ReconciliationRunNotFoundException;
+import sys.azentic.autumn.repository.ReconciliationRunRepository;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reconciliación paralela entre saldos y libro mayor.
+ *
+ * Verifica tres invariantes:
+ * - ACCOUNT_BALANCE: accounts.balance = snapshot de apertura + CREDIT - DEBIT
+ * - TRANSFER_ENTRIES: cada transferencia COMPLETED tiene exactamente un DEBIT y un
+ *   CREDIT; las que no están COMPLETED no tienen asientos
+ * - HELD_BALANCE: accounts.held_balance = suma de sus retenciones activas (HELD)
+ *
+ * En lugar de un único GROUP BY sobre todas las tablas, el espacio de UUIDs se
+ * divide en rangos contiguos que se verifican en paralelo con un número acotado
+ * de conexiones. Cada rango terminado deja un checkpoint en la misma transacción
+ * que sus diferencias, por lo que una ejecución interrumpida se reanuda sin
+ * repetir ni perder rangos.
+ *
+ * Las lecturas pueden dirigirse a una réplica (autumn.reconciliation.replica.url);
+ * el reporte y los checkpoints siempre se escriben en el primario.
+ *
+ * Una sola reconciliación a la vez en el clúster (RedisDistributedLock): la
+ * programada se omite en los nodos que no obtienen el lock, una manual nueva que
+ * no lo obtiene queda FAILED para reanudarla después, y la reanudación se rechaza
+ * (409) sin tocar la ejecución mientras otro nodo tenga el lock. Si el lock se
+ * pierde a mitad de camino los rangos restantes fallan y la ejecución es reanudable.
+ * Los estados finales solo se escriben sobre una ejecución RUNNING.
+ */
+@Service
+@Slf4j
+public class LedgerReconciliationService {
+
+    private static final BigInteger UUID_SPACE = BigInteger.ONE.shiftLeft(128);
+
+    private static final String LOCK_NAME = "reconciliation";
+
+    private static final String ACCOUNT_BALANCE_SQL = """
+        SELECT a.id, a.balance + COALESCE(sh.balance, 0) AS actual,
+               COALESCE(o.balance, 0) + COALESCE(SUM(CASE WHEN l.type = 'CREDIT' THEN l.amount ELSE -l.amount END), 0) AS expected
+        FROM accounts a
+        LEFT JOIN LATERAL (
+            SELECT s.snapshot_at, s.balance
+            FROM account_balance_snapshots s
+            WHERE s.account_id = a.id
+            ORDER BY s.snapshot_at ASC
+            LIMIT 1
+        ) o ON TRUE
+        LEFT JOIN LATERAL (
+            SELECT SUM(x.balance) AS balance FROM account_balance_shards x WHERE x.account_id = a.id
+        ) sh ON TRUE
+        LEFT JOIN ledger_entries l
+            ON l.account_id = a.id AND (o.snapshot_at IS NULL OR l.created_at >= o.snapshot_at)
+        WHERE a.id >= ?::uuid AND (?::uuid IS NULL OR a.id < ?::uuid)
+        GROUP BY a.id, a.balance, sh.balance, o.balance
+        HAVING a.balance + COALESCE(sh.balance, 0) <> COALESCE(o.balance, 0) + COALESCE(SUM(CASE WHEN l.type = 'CREDIT' THEN l.amount ELSE -l.amount END), 0)
+        """;
+
+    private static final String TRANSFER_ENTRIES_SQL = """
+        SELECT t.id, t.status,
+               COUNT(l.id) FILTER (WHERE l.type = 'DEBIT') AS debits,
+               COUNT(l.id) FILTER (WHERE l.type = 'CREDIT') AS credits
+        FROM transfers t
+        LEFT JOIN ledger_entries l ON l.transfer_id = t.id
+        WHERE t.id >= ?::uuid AND (?::uuid IS NULL OR t.id < ?::uuid)
+        GROUP BY t.id, t.status
+        HAVING (t.status = 'COMPLETED'
+                AND (COUNT(l.id) FILTER (WHERE l.type = 'DEBIT') <> 1
+                  OR COUNT(l.id) FILTER (WHERE l.type = 'CREDIT') <> 1))
+            OR (t.status <> 'COMPLETED' AND COUNT(l.id) > 0)
+        """;
+
+    private static final String HELD_BALANCE_SQL = """
+        SELECT a.id, a.held_balance AS actual, COALESCE(SUM(h.amount), 0) AS expected
+        FROM accounts a
+        LEFT JOIN balance_holds h ON h.account_id = a.id AND h.status = 'HELD'
+        WHERE a.id >= ?::uuid AND (?::uuid IS NULL OR a.id < ?::uuid)
+        GROUP BY a.id, a.held_balance
+        HAVING a.held_balance <> COALESCE(SUM(h.amount), 0)
+        """;
+
+    private final ReconciliationRunRepository runRepository;
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate readJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisDistributedLock distributedLock;
+    private final Duration lockTtl;
+    private final HikariDataSource replicaDataSource;
+    private final int parallelism;
+    private final int ranges;
+
+    /**
+     * Un coordinador por nodo: las ejecuciones se encolan en lugar de competir por conexiones.
+     */
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("reconciliation-coordinator").daemon(true).factory());
+
+    public LedgerReconciliationService(
+            ReconciliationRunRepository runRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            RedisDistributedLock distributedLock,
+            @Value("${autumn.reconciliation.parallelism:4}") int parallelism,
+            @Value("${autumn.reconciliation.ranges:256}") int ranges,
+            @Value("${autumn.reconciliation.replica.url:}") String replicaUrl,
+            @Value("${autumn.reconciliation.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${autumn.reconciliation.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${autumn.reconciliation.lock-ttl-seconds:60}") long lockTtlSeconds) {
+        this.runRepository = runRepository;
+        this.primaryJdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.distributedLock = distributedLock;
+        this.lockTtl = Duration.ofSeconds(lockTtlSeconds);
+        this.parallelism = parallelism;
+        this.ranges = ranges;
+
+        if (replicaUrl == null || replicaUrl.isBlank()) {
+            this.replicaDataSource = null;
+            this.readJdbcTemplate = jdbcTemplate;
+        } else {
+            this.replicaDataSource = createReplicaDataSource(replicaUrl, replicaUsername, replicaPassword, parallelism);
+            this.readJdbcTemplate = new JdbcTemplate(replicaDataSource);
+            log.info("Reconciliación configurada para leer desde réplica: {}", replicaUrl);
+        }
+    }
+
+    /**
+     * Ejecución nocturna programada: solo el nodo que obtiene el lock la registra.
+     */
+    @Scheduled(cron = "${autumn.reconciliation.cron:-}")
+    public void scheduledReconciliation() {
+        Optional<RedisDistributedLock.Lease> lease = distributedLock.tryAcquire(LOCK_NAME, lockTtl);
+        if (lease.isEmpty()) {
+            log.info("Reconciliación nocturna en ejecución en otro nodo, se omite");
+            return;
+        }
+        log.info("Iniciando reconciliación nocturna programada");
+        register(lease.get());
+    }
+
+    /**
+     * Registra y lanza en segundo plano una nueva reconciliación.
+     *
+     * @return Ejecución registrada en estado RUNNING
+     */
+    public ReconciliationRun startRun() {
+        return register(null);
+    }
+
+    private ReconciliationRun register(RedisDistributedLock.Lease lease) {
+        ReconciliationRun run = runRepository.save(ReconciliationRun.builder()
+            .rangesTotal(ranges)
+            .startedAt(LocalDateTime.now())
+            .build());
+
+        log.info("Reconciliación {} registrada con {} rangos", run.getId(), ranges);
+        coordinator.submit(() -> executeLocked(run.getId(), ranges, lease));
+
+        return run;
+    }
+
+    /**
+     * Reanuda una reconciliación interrumpida, verificando solo los rangos sin checkpoint.
+     * El lock se toma antes de cambiar el estado: si la ejecución sigue en curso en
+     * otro nodo, su fila no se modifica.
+     *
+     * @param runId ID de la ejecución
+     * @return Ejecución en estado RUNNING
+     * @throws ReconciliationConflictException si hay una reconciliación en ejecución en el clúster
+     */
+    public ReconciliationRun resumeRun(UUID runId) {
+        ReconciliationRun run = getRun(runId);
+        if (run.getStatus() == JobStatus.COMPLETED) {
+            log.info("Reconciliación {} ya estaba completada, no se reanuda", runId);
+            return run;
+        }
+
+        RedisDistributedLock.Lease lease = distributedLock.tryAcquire(LOCK_NAME, lockTtl)
+            .orElseThrow(() -> new ReconciliationConflictException(
+                "Hay una reconciliación en ejecución en el clúster; reanudar la " + runId + " cuando termine"));
+        primaryJdbcTemplate.update(
+            "UPDATE reconciliation_runs SET status = ?, error_message = NULL, finished_at = NULL WHERE id = ?",
+            JobStatus.RUNNING.name(), runId);
+        run.setStatus(JobStatus.RUNNING);
+        run.setErrorMessage(null);
+        run.setFinishedAt(null);
+
+        log.info("Reanudando reconciliación {}", runId);
+        coordinator.submit(() -> executeLocked(runId, run.getRangesTotal(), lease));
+
+        return run;
+    }
+
+    /**
+     * Consulta el estado y progreso de una reconciliación.
+     */
+    public ReconciliationRun getRun(UUID runId) {
+        return runRepository.findById(runId)
+            .orElseThrow(() -> new ReconciliationRunNotFoundException(runId));
+    }
+
+    /**
+     * Lista las diferencias de una ejecución con paginación keyset.
+     *
+     * @param runId ID de la ejecución
+     * @param afterId Último ID recibido (0 para la primera página)
+     * @param limit Máximo de filas a retornar
+     */
+    public List<ReconciliationMismatchResponse> getMismatches(UUID runId, long afterId, int limit) {
+        getRun(runId);
+        return primaryJdbcTemplate.query("""
+            SELECT id, range_index, mismatch_type, account_id, transfer_id, expected, actual, detail, created_at
+            FROM reconciliation_mismatches
+            WHERE run_id = ? AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """, (rs, rowNum) -> ReconciliationMismatchResponse.builder()
+                .id(rs.getLong("id"))
+                .rangeIndex(rs.getInt("range_index"))
+                .mismatchType(rs.getString("mismatch_type"))
+                .accountId(rs.getObject("account_id", UUID.class))
+                .transferId(rs.getObject("transfer_id", UUID.class))
+                .expected(rs.getBigDecimal("expected"))
+                .actual(rs.getBigDecimal("actual"))
+                .detail(rs.getString("detail"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build(),
+            runId, afterId, limit);
+    }
+
+    /**
+     * Ejecuta con el lock del clúster: el ya tomado (programada o reanudación) o uno
+     * nuevo para una manual recién registrada, que queda FAILED si no lo obtiene.
+     */
+    private void executeLocked(UUID runId, int totalRanges, RedisDistributedLock.Lease acquired) {
+        Optional<RedisDistributedLock.Lease> lease = acquired != null
+            ? Optional.of(acquired)
+            : distributedLock.tryAcquire(LOCK_NAME, lockTtl);
+        if (lease.isEmpty()) {
+            log.warn("Reconciliación {}: otra reconciliación está en ejecución en el clúster", runId);
+            primaryJdbcTemplate.update(
+                "UPDATE reconciliation_runs SET status = ?, error_message = ?, finished_at = ? WHERE id = ? AND status = 'RUNNING'",
+                JobStatus.FAILED.name(), "Otra reconciliación en ejecución en el clúster; reanudar más tarde",
+                Timestamp.valueOf(LocalDateTime.now()), runId);
+            return;
+        }
+        try (RedisDistributedLock.Lease held = lease.get()) {
+            execute(runId, totalRanges, held);
+        }
+    }
+
+    private void execute(UUID runId, int totalRanges, RedisDistributedLock.Lease lease) {
+        Set<Integer> done = new HashSet<>(primaryJdbcTemplate.queryForList(
+            "SELECT range_index FROM reconciliation_checkpoints WHERE run_id = ?", Integer.class, runId));
+
+        // Pool fijo: acota las consultas concurrentes contra la base (o réplica)
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+            Thread.ofPlatform().name("reconciliation-worker-", 0).factory());
+        List<Future<?>> pending = new ArrayList<>();
+        try {
+            for (int rangeIndex = 0; rangeIndex < totalRanges; rangeIndex++) {
+                if (done.contains(rangeIndex)) {
+                    continue;
+                }
+                int index = rangeIndex;
+                pending.add(workers.submit(() -> {
+                    if (!lease.isHeld()) {
+                        throw new IllegalStateException("Lock distribuido perdido");
+                    }
+                    checkRange(runId, index, totalRanges);
+                }));
+            }
+            log.info("Reconciliación {}: {} rangos pendientes ({} ya verificados)", runId, pending.size(), done.size());
+
+            int failures = 0;
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    failures++;
+                    log.error("Reconciliación {}: error verificando un rango", runId, e);
+                }
+            }
+
+            if (failures > 0) {
+                primaryJdbcTemplate.update(
+                    "UPDATE reconciliation_runs SET status = ?, error_message = ?, finished_at = ? WHERE id = ? AND status = 'RUNNING'",
+                    JobStatus.FAILED.name(), failures + " rangos fallaron; reanudar para reintentarlos",
+                    Timestamp.valueOf(LocalDateTime.now()), runId);
+                log.warn("Reconciliación {} terminó con {} rangos fallidos", runId, failures);
+            } else {
+                primaryJdbcTemplate.update(
+                    "UPDATE reconciliation_runs SET status = ?, finished_at = ? WHERE id = ? AND status = 'RUNNING'",
+                    JobStatus.COMPLETED.name(), Timestamp.valueOf(LocalDateTime.now()), runId);
+                log.info("=== RECONCILIACIÓN {} COMPLETADA ===", runId);
+            }
+        } catch (Exception e) {
+            log.error("Reconciliación {} falló", runId, e);
+            primaryJdbcTemplate.update(
+                "UPDATE reconciliation_runs SET status = ?, error_message = ?, finished_at = ? WHERE id = ? AND status = 'RUNNING'",
+                JobStatus.FAILED.name(), "Error inesperado: " + e.getClass().getSimpleName(),
+                Timestamp.valueOf(LocalDateTime.now()), runId);
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Verifica un rango: lee de la réplica (o primario) y escribe diferencias
+     * y checkpoint en el primario dentro de una misma transacción.
+     */
+    private void checkRange(UUID runId, int rangeIndex, int totalRanges) {
+        String lower = boundary(rangeIndex, totalRanges);
+        String upper = rangeIndex == totalRanges - 1 ? null : boundary(rangeIndex + 1, totalRanges);
+
+        List<Object[]> mismatches = new ArrayList<>();
+
+        readJdbcTemplate.query(ACCOUNT_BALANCE_SQL, rs -> {
+            BigDecimal expected = rs.getBigDecimal("expected");
+            BigDecimal actual = rs.getBigDecimal("actual");
+            mismatches.add(new Object[]{
+                runId, rangeIndex, "ACCOUNT_BALANCE", rs.getObject("id", UUID.class), null,
+                expected, actual, "Diferencia: " + actual.subtract(expected).toPlainString()
+            });
+        }, lower, upper, upper);
+
+        readJdbcTemplate.query(HELD_BALANCE_SQL, rs -> {
+            BigDecimal expected = rs.getBigDecimal("expected");
+            BigDecimal actual = rs.getBigDecimal("actual");
+            mismatches.add(new Object[]{
+                runId, rangeIndex, "HELD_BALANCE", rs.getObject("id", UUID.class), null,
+                expected, actual, "Retenido sin respaldo: " + actual.subtract(expected).toPlainString()
+            });
+        }, lower, upper, upper);
+
+        readJdbcTemplate.query(TRANSFER_ENTRIES_SQL, rs -> {
+            mismatches.add(new Object[]{
+                runId, rangeIndex, "TRANSFER_ENTRIES", null, rs.getObject("id", UUID.class),
+                null, null, String.format("Estado: %s - DEBIT: %d - CREDIT: %d",
+                    rs.getString("status"), rs.getLong("debits"), rs.getLong("credits"))
+            });
+        }, lower, upper, upper);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!mismatches.isEmpty()) {
+                primaryJdbcTemplate.batchUpdate("""
+                    INSERT INTO reconciliation_mismatches
+                        (run_id, range_index, mismatch_type, account_id, transfer_id, expected, actual, detail, created_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW())
+                    """, mismatches);
+            }
+            primaryJdbcTemplate.update("""
+                INSERT INTO reconciliation_checkpoints (run_id, range_index, mismatches, completed_at)
+                VALUES (?, ?, ?, NOW())
+                """, runId, rangeIndex, mismatches.size());
+            primaryJdbcTemplate.update("""
+                UPDATE reconciliation_runs
+                SET ranges_completed = ranges_completed + 1, mismatches = mismatches + ?
+                WHERE id = ?
+                """, mismatches.size(), runId);
+        });
+
+        if (!mismatches.isEmpty()) {
+            log.warn("Reconciliación {}: rango {} con {} diferencias", runId, rangeIndex, mismatches.size());
+        }
+    }
+
+    /**
+     * Límite inferior del rango i al dividir el espacio de 128 bits en partes iguales.
+     * PostgreSQL ordena los UUID byte a byte (sin signo), igual que este número.
+     */
+    static String boundary(int rangeIndex, int totalRanges) {
+        BigInteger value = UUID_SPACE.multiply(BigInteger.valueOf(rangeIndex))
+            .divide(BigInteger.valueOf(totalRanges));
+        String hex = String.format("%032x", value);
+        return hex.substring(0, 8) + "-" + hex.substring(8, 12) + "-" + hex.substring(12, 16)
+            + "-" + hex.substring(16, 20) + "-" + hex.substring(20);
+    }
+
+    private static HikariDataSource createReplicaDataSource(String url, String username, String password, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("reconciliation-replica");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setReadOnly(true);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(0);
+        return new HikariDataSource(config);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        if (replicaDataSource != null) {
+            replicaDataSource.close();
+        }
+    }
+}
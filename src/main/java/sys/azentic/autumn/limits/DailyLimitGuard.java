@@ -0,0 +1,269 @@
+package sys.azentic.autumn.limits;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.exception.DailyLimitExceededException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica el límite diario de transferencias salientes sin tocar la fila de la cuenta.
+ *
+ * Patrón utilizado:
+ * - Ventana deslizante de N buckets (24 de una hora por defecto): el uso "del día" son
+ *   las últimas 24 horas y los buckets viejos caen solos, sin proceso nocturno.
+ * - Modo redis (por defecto): un script Lua verifica y suma de forma atómica en un
+ *   hash por cuenta, consistente entre todos los nodos.
+ * - Modo local, o Redis caído: contadores en memoria sin locks (SlidingWindowCounter)
+ *   en un ConcurrentHashMap; el límite pasa a ser por nodo mientras dure la falla.
+ * - La reserva se devuelve si la transacción se revierte (afterCompletion).
+ * - accounts.daily_used se actualiza en lote cada pocos segundos, fuera de la
+ *   transacción de la transferencia y sin incrementar @Version.
+ *   Es el único que escribe la columna con uso real; DailyUsedReconcileJob solo
+ *   pone en 0 las cuentas sin actividad dentro de la ventana.
+ */
+@Component
+@Slf4j
+public class DailyLimitGuard {
+
+    private static final String KEY_PREFIX = "autumn:limit:";
+    private static final int SCALE = 4;
+
+    private static final RedisScript<Long> RESERVE = new DefaultRedisScript<>("""
+        local oldest = tonumber(ARGV[1]) - tonumber(ARGV[4]) + 1
+        local used = 0
+        local fields = redis.call('HGETALL', KEYS[1])
+        for i = 1, #fields, 2 do
+            if tonumber(fields[i]) < oldest then
+                redis.call('HDEL', KEYS[1], fields[i])
+            else
+                used = used + tonumber(fields[i + 1])
+            end
+        end
+        if used + tonumber(ARGV[2]) > tonumber(ARGV[3]) then
+            return -used - 1
+        end
+        redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+        redis.call('EXPIRE', KEYS[1], ARGV[5])
+        return used + tonumber(ARGV[2])
+        """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+        if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then
+            redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+        end
+        local used = 0
+        local fields = redis.call('HGETALL', KEYS[1])
+        for i = 1, #fields, 2 do
+            if tonumber(fields[i]) >= tonumber(ARGV[3]) then
+                used = used + tonumber(fields[i + 1])
+            end
+        end
+        return used
+        """, Long.class);
+
+    private static final RedisScript<Long> USED = new DefaultRedisScript<>("""
+        local used = 0
+        local fields = redis.call('HGETALL', KEYS[1])
+        for i = 1, #fields, 2 do
+            if tonumber(fields[i]) >= tonumber(ARGV[1]) then
+                used = used + tonumber(fields[i + 1])
+            end
+        end
+        return used
+        """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final boolean useRedis;
+    private final long bucketSeconds;
+    private final int buckets;
+    private final Counter rejected;
+    private final Counter fallbacks;
+
+    private final Map<UUID, SlidingWindowCounter> localCounters = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> pendingUsage = new ConcurrentHashMap<>();
+
+    public DailyLimitGuard(
+            RedisTemplate<String, Object> redisTemplate,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${autumn.transfer.daily-limit.enabled:true}") boolean enabled,
+            @Value("${autumn.transfer.daily-limit.mode:redis}") String mode,
+            @Value("${autumn.transfer.daily-limit.bucket-seconds:3600}") long bucketSeconds,
+            @Value("${autumn.transfer.daily-limit.buckets:24}") int buckets) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = Clock.systemUTC();
+        this.enabled = enabled;
+        this.useRedis = "redis".equalsIgnoreCase(mode);
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = buckets;
+        this.rejected = Counter.builder("autumn.transfer.daily_limit.rejected")
+            .description("Transferencias rechazadas por límite diario")
+            .register(meterRegistry);
+        this.fallbacks = Counter.builder("autumn.transfer.daily_limit.fallback")
+            .description("Reservas resueltas con contadores locales por falla de Redis")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserva el monto en la ventana de la cuenta origen. Debe llamarse dentro de la
+     * transacción de la transferencia: si esta se revierte, la reserva se devuelve.
+     *
+     * @throws DailyLimitExceededException si el monto supera el cupo disponible
+     */
+    public void reserve(Account account, BigDecimal amount) {
+        if (!enabled || account.getDailyLimit() == null) {
+            return;
+        }
+        UUID accountId = account.getId();
+        long units = toUnits(amount);
+        long limit = toUnits(account.getDailyLimit());
+        long bucket = currentBucket();
+
+        boolean viaRedis = useRedis;
+        long result;
+        if (viaRedis) {
+            try {
+                result = redisTemplate.execute(RESERVE, List.of(key(accountId)),
+                    bucket, units, limit, buckets, bucketSeconds * (buckets + 1));
+            } catch (DataAccessException e) {
+                log.warn("Redis no disponible para límite diario, usando contador local: {}", e.getMessage());
+                fallbacks.increment();
+                viaRedis = false;
+                result = acquireLocal(accountId, bucket, units, limit);
+            }
+        } else {
+            result = acquireLocal(accountId, bucket, units, limit);
+        }
+
+        if (result < 0) {
+            rejected.increment();
+            throw new DailyLimitExceededException(account.getAccountNumber(),
+                account.getDailyLimit(), fromUnits(-result - 1), amount);
+        }
+        pendingUsage.put(accountId, result);
+        releaseOnRollback(accountId, bucket, units, viaRedis);
+    }
+
+    /**
+     * Uso actual de la ventana (para consultas; no reserva nada).
+     */
+    public BigDecimal used(UUID accountId) {
+        long bucket = currentBucket();
+        if (useRedis) {
+            try {
+                return fromUnits(redisTemplate.execute(USED, List.of(key(accountId)), bucket - buckets + 1));
+            } catch (DataAccessException e) {
+                fallbacks.increment();
+            }
+        }
+        SlidingWindowCounter counter = localCounters.get(accountId);
+        return counter == null ? BigDecimal.ZERO : fromUnits(counter.used(bucket));
+    }
+
+    /**
+     * Vuelca el último uso observado de cada cuenta a accounts.daily_used.
+     * Columna informativa: el límite se decide con los contadores, no con ella.
+     */
+    @Scheduled(fixedDelayString = "${autumn.transfer.daily-limit.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        if (pendingUsage.isEmpty()) {
+            evictIdleCounters();
+            return;
+        }
+        List<Map.Entry<UUID, Long>> batch = new ArrayList<>(Map.copyOf(pendingUsage).entrySet());
+        jdbcTemplate.batchUpdate("UPDATE accounts SET daily_used = ? WHERE id = ?", batch, 500,
+            (ps, entry) -> {
+                ps.setBigDecimal(1, fromUnits(entry.getValue()));
+                ps.setObject(2, entry.getKey());
+            });
+        // Solo se descartan los valores escritos: uno más nuevo queda para la próxima pasada
+        batch.forEach(entry -> pendingUsage.remove(entry.getKey(), entry.getValue()));
+        evictIdleCounters();
+        log.debug("daily_used reconciliado para {} cuentas", batch.size());
+    }
+
+    private void releaseOnRollback(UUID accountId, long bucket, long units, boolean viaRedis) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    long used = viaRedis
+                        ? redisTemplate.execute(RELEASE, List.of(key(accountId)), bucket, -units, currentBucket() - buckets + 1)
+                        : localCounter(accountId).release(bucket, units);
+                    pendingUsage.put(accountId, used);
+                } catch (DataAccessException e) {
+                    // La reserva queda consumida hasta que su bucket salga de la ventana
+                    log.warn("No se pudo devolver la reserva de límite diario de la cuenta {}: {}",
+                        accountId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void evictIdleCounters() {
+        long bucket = currentBucket();
+        localCounters.entrySet().removeIf(entry -> entry.getValue().retireIfIdle(bucket));
+    }
+
+    private long acquireLocal(UUID accountId, long bucket, long units, long limit) {
+        while (true) {
+            SlidingWindowCounter counter = localCounter(accountId);
+            long result = counter.tryAcquire(bucket, units, limit);
+            if (result != SlidingWindowCounter.RETIRED) {
+                return result;
+            }
+            localCounters.remove(accountId, counter);
+        }
+    }
+
+    private SlidingWindowCounter localCounter(UUID accountId) {
+        return localCounters.computeIfAbsent(accountId, id -> new SlidingWindowCounter(buckets));
+    }
+
+    private long currentBucket() {
+        return clock.instant().getEpochSecond() / bucketSeconds;
+    }
+
+    private static String key(UUID accountId) {
+        // Hash tag: todas las claves de una cuenta caen en el mismo slot de Redis Cluster
+        return KEY_PREFIX + "{" + accountId + "}";
+    }
+
+    private static long toUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+}
@@ -0,0 +1,115 @@
+package sys.azentic.autumn.limits;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Acumulado de una cuenta en una ventana deslizante de N buckets de tiempo.
+ *
+ * Sin locks: el estado es inmutable y cada operación lo reemplaza con compareAndSet,
+ * de modo que la verificación del límite y la suma son atómicas entre sí (dos hilos
+ * no pueden pasar ambos con el último cupo). Los buckets que salen de la ventana se
+ * descartan al avanzar, por eso no existe un "reset diario".
+ *
+ * Los montos se expresan en unidades enteras (escala 4, igual que la base de datos).
+ */
+final class SlidingWindowCounter {
+
+    /**
+     * Resultado de tryAcquire sobre un contador retirado: se debe obtener uno nuevo.
+     */
+    static final long RETIRED = Long.MIN_VALUE;
+
+    private static final Window RETIRED_WINDOW = new Window(Long.MAX_VALUE, new long[0], 0);
+
+    private final int buckets;
+    private final AtomicReference<Window> window;
+
+    SlidingWindowCounter(int buckets) {
+        this.buckets = buckets;
+        this.window = new AtomicReference<>(new Window(Long.MIN_VALUE, new long[buckets], 0));
+    }
+
+    /**
+     * Suma el monto si el acumulado no supera el límite.
+     *
+     * @return nuevo acumulado, o -(acumulado actual) - 1 si se rechaza
+     */
+    long tryAcquire(long bucket, long amount, long limit) {
+        while (true) {
+            Window current = window.get();
+            if (current == RETIRED_WINDOW) {
+                return RETIRED;
+            }
+            Window rolled = current.rollTo(bucket, buckets);
+            if (rolled.total + amount > limit) {
+                return -rolled.total - 1;
+            }
+            if (window.compareAndSet(current, rolled.add(bucket, amount, buckets))) {
+                return rolled.total + amount;
+            }
+        }
+    }
+
+    /**
+     * Devuelve un monto al bucket donde se sumó (transacción revertida).
+     * Si el bucket ya salió de la ventana no hay nada que devolver.
+     */
+    long release(long bucket, long amount) {
+        while (true) {
+            Window current = window.get();
+            if (bucket <= current.head - buckets || bucket > current.head) {
+                return current.total;
+            }
+            Window released = current.add(bucket, -Math.min(amount, current.amounts[slot(bucket, buckets)]), buckets);
+            if (window.compareAndSet(current, released)) {
+                return released.total;
+            }
+        }
+    }
+
+    long used(long bucket) {
+        Window current = window.get();
+        return current == RETIRED_WINDOW ? 0 : current.rollTo(bucket, buckets).total;
+    }
+
+    /**
+     * Marca el contador como retirado si no tiene uso en la ventana. Una reserva que
+     * llegue después lo ve retirado y reintenta con un contador nuevo, así no se pierde.
+     */
+    boolean retireIfIdle(long bucket) {
+        Window current = window.get();
+        return current == RETIRED_WINDOW
+            || (current.rollTo(bucket, buckets).total == 0 && window.compareAndSet(current, RETIRED_WINDOW));
+    }
+
+    private static int slot(long bucket, int buckets) {
+        return (int) Math.floorMod(bucket, (long) buckets);
+    }
+
+    /**
+     * Foto inmutable: head es el bucket más reciente, amounts un anillo indexado por bucket.
+     */
+    private record Window(long head, long[] amounts, long total) {
+
+        Window rollTo(long bucket, int buckets) {
+            if (bucket <= head) {
+                return this;
+            }
+            long[] next = amounts.clone();
+            long total = this.total;
+            long expired = head == Long.MIN_VALUE ? buckets : Math.min(bucket - head, buckets);
+            for (long b = bucket - expired + 1; b <= bucket; b++) {
+                int slot = slot(b, buckets);
+                total -= next[slot];
+                next[slot] = 0;
+            }
+            return new Window(bucket, next, total);
+        }
+
+        Window add(long bucket, long amount, int buckets) {
+            long[] next = amounts.clone();
+            next[slot(bucket, buckets)] += amount;
+            return new Window(head, next, total + amount);
+        }
+    }
+}
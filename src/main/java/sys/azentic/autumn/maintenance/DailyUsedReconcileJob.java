@@ -0,0 +1,77 @@
+package sys.azentic.autumn.maintenance;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pone en 0 accounts.daily_used de las cuentas cuya ventana del límite diario ya
+ * expiró. Reemplaza el reset nocturno entidad por entidad.
+ *
+ * La fuente de verdad de la columna es DailyLimitGuard, que vuelca cada pocos
+ * segundos el uso de su ventana (incluidas reservas retenidas aún no capturadas);
+ * pero solo escribe las cuentas con movimiento. Este job cubre el resto: una cuenta
+ * sin transferencias salientes ni débitos dentro de la ventana tiene uso 0 en
+ * cualquier modo del guard. Las cuentas con actividad en la ventana no se tocan.
+ */
+@Component
+public class DailyUsedReconcileJob implements MaintenanceJob<UUID> {
+
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    // Los NOT EXISTS usan idx_ledger_account_created_at e idx_transfer_source_account;
+    // daily_used <> 0 evita escrituras inútiles
+    private static final String RESET_SQL = """
+        UPDATE accounts a SET daily_used = 0
+        WHERE a.id > ? AND a.id <= ? AND a.daily_used <> 0
+          AND NOT EXISTS (
+              SELECT 1 FROM ledger_entries l
+              WHERE l.account_id = a.id AND l.type = 'DEBIT' AND l.created_at >= ?
+          )
+          AND NOT EXISTS (
+              SELECT 1 FROM transfers t
+              WHERE t.source_account_id = a.id AND t.created_at >= ?
+          )
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long windowSeconds;
+
+    public DailyUsedReconcileJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${autumn.transfer.daily-limit.bucket-seconds:3600}") long bucketSeconds,
+            @Value("${autumn.transfer.daily-limit.buckets:24}") int buckets) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.windowSeconds = bucketSeconds * buckets;
+    }
+
+    @Override
+    public String name() {
+        return "daily-used-reconcile";
+    }
+
+    @Override
+    public String table() {
+        return "accounts";
+    }
+
+    @Override
+    public Class<UUID> keyType() {
+        return UUID.class;
+    }
+
+    @Override
+    public UUID minKey() {
+        return MIN_UUID;
+    }
+
+    @Override
+    public int processRange(UUID lowerExclusive, UUID upperInclusive) {
+        Timestamp windowStart = Timestamp.valueOf(LocalDateTime.now().minusSeconds(windowSeconds));
+        return jdbcTemplate.update(RESET_SQL, lowerExclusive, upperInclusive, windowStart, windowStart);
+    }
+}
@@ -0,0 +1,40 @@
+package sys.azentic.autumn.maintenance;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint de actuator para los jobs de mantenimiento.
+ *
+ * - GET  /actuator/maintenance        - Última ejecución de cada job en este nodo
+ * - GET  /actuator/maintenance/{job}  - Progreso de un job (filas/s, última clave)
+ * - POST /actuator/maintenance/{job}  - Lanzar un job fuera de su horario
+ */
+@Component
+@Endpoint(id = "maintenance")
+@RequiredArgsConstructor
+public class MaintenanceEndpoint {
+
+    private final MaintenanceJobRunner runner;
+
+    @ReadOperation
+    public Map<String, MaintenanceRun> runs() {
+        return runner.runs();
+    }
+
+    @ReadOperation
+    public MaintenanceRun run(@Selector String job) {
+        return runner.run(job).orElse(null);
+    }
+
+    @WriteOperation
+    public Map<String, Object> trigger(@Selector String job) {
+        return Map.of("job", job, "accepted", runner.trigger(job));
+    }
+}
@@ -0,0 +1,46 @@
+package sys.azentic.autumn.maintenance;
+
+/**
+ * Barrido de mantenimiento sobre una tabla, recorrida por rangos de su clave.
+ *
+ * MaintenanceJobRunner parte la tabla en rangos de chunk-size filas (keyset, sin
+ * OFFSET sobre la tabla completa) y llama a processRange una vez por rango, cada
+ * llamada en su propia transacción corta. processRange debe ser una sentencia
+ * set-based (UPDATE/DELETE ... WHERE key > ? AND key <= ?) e idempotente: si el
+ * job se interrumpe, la siguiente ejecución lo repite desde el principio.
+ *
+ * @param <K> tipo de la clave (UUID, Long)
+ */
+public interface MaintenanceJob<K extends Comparable<K>> {
+
+    /**
+     * Nombre del job (lock distribuido, métricas y actuator).
+     */
+    String name();
+
+    /**
+     * Tabla recorrida.
+     */
+    String table();
+
+    /**
+     * Columna clave con índice único, usada para el recorrido por keyset.
+     */
+    default String keyColumn() {
+        return "id";
+    }
+
+    Class<K> keyType();
+
+    /**
+     * Cota inferior exclusiva del primer rango (menor que cualquier clave real).
+     */
+    K minKey();
+
+    /**
+     * Procesa las filas con clave en (lowerExclusive, upperInclusive].
+     *
+     * @return filas modificadas
+     */
+    int processRange(K lowerExclusive, K upperInclusive);
+}
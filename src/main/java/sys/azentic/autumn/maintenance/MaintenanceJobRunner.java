@@ -0,0 +1,198 @@
+package sys.azentic.autumn.maintenance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import sys.azentic.autumn.concurrency.RedisDistributedLock;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta los MaintenanceJob registrados.
+ *
+ * Patrón utilizado:
+ * - Lock distribuido por job: un solo nodo del clúster lo ejecuta; los demás lo omiten.
+ * - Keyset: cada rango son las siguientes chunk-size claves (index-only scan), nunca
+ *   OFFSET sobre la tabla, así el costo por rango no crece con el avance.
+ * - Un rango = una transacción corta: los locks de fila duran milisegundos y el
+ *   trabajo ya confirmado no se pierde si el job se interrumpe.
+ * - Throttling a max-rows-per-second para no competir con el tráfico de transferencias.
+ * - Progreso en el endpoint de actuator "maintenance" y métricas autumn.maintenance.*.
+ */
+@Component
+@Slf4j
+public class MaintenanceJobRunner {
+
+    private final Map<String, MaintenanceJob<?>> jobs = new LinkedHashMap<>();
+    private final Map<String, MaintenanceRun> runs = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> chunkTimers = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisDistributedLock distributedLock;
+    private final int chunkSize;
+    private final long maxRowsPerSecond;
+    private final Duration lockTtl;
+
+    /**
+     * Un job a la vez por nodo; la ejecución programada no bloquea el scheduler.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("maintenance-runner").daemon(true).factory());
+
+    public MaintenanceJobRunner(
+            List<MaintenanceJob<?>> jobs,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            RedisDistributedLock distributedLock,
+            MeterRegistry meterRegistry,
+            @Value("${autumn.maintenance.chunk-size:5000}") int chunkSize,
+            @Value("${autumn.maintenance.max-rows-per-second:20000}") long maxRowsPerSecond,
+            @Value("${autumn.maintenance.lock-ttl-seconds:60}") long lockTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.distributedLock = distributedLock;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.lockTtl = Duration.ofSeconds(lockTtlSeconds);
+        for (MaintenanceJob<?> job : jobs) {
+            String name = job.name();
+            this.jobs.put(name, job);
+            rowCounters.put(name, Counter.builder("autumn.maintenance.rows")
+                .description("Filas modificadas por jobs de mantenimiento")
+                .tag("job", name)
+                .register(meterRegistry));
+            chunkTimers.put(name, Timer.builder("autumn.maintenance.chunk")
+                .description("Duración de la transacción de cada rango")
+                .tag("job", name)
+                .register(meterRegistry));
+            Gauge.builder("autumn.maintenance.rows_per_second", runs,
+                    r -> r.containsKey(name) ? r.get(name).rowsPerSecond() : 0)
+                .description("Filas recorridas por segundo en la última ejecución")
+                .tag("job", name)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Ejecución nocturna de todos los jobs, uno tras otro.
+     */
+    @Scheduled(cron = "${autumn.maintenance.cron:0 0 1 * * *}")
+    public void runAll() {
+        jobs.keySet().forEach(this::trigger);
+    }
+
+    /**
+     * Encola la ejecución de un job en este nodo.
+     *
+     * @return false si el job no existe
+     */
+    public boolean trigger(String name) {
+        MaintenanceJob<?> job = jobs.get(name);
+        if (job == null) {
+            return false;
+        }
+        executor.submit(() -> run(job));
+        return true;
+    }
+
+    public Map<String, MaintenanceRun> runs() {
+        return Map.copyOf(runs);
+    }
+
+    public Optional<MaintenanceRun> run(String name) {
+        return Optional.ofNullable(runs.get(name));
+    }
+
+    private <K extends Comparable<K>> void run(MaintenanceJob<K> job) {
+        String name = job.name();
+        Optional<RedisDistributedLock.Lease> acquired = distributedLock.tryAcquire("maintenance:" + name, lockTtl);
+        if (acquired.isEmpty()) {
+            log.info("Job de mantenimiento {} en ejecución en otro nodo, se omite", name);
+            runs.put(name, MaintenanceRun.started(name).finished(MaintenanceRun.SKIPPED, null));
+            return;
+        }
+
+        MaintenanceRun run = MaintenanceRun.started(name);
+        runs.put(name, run);
+        log.info("=== JOB DE MANTENIMIENTO {} INICIADO ===", name);
+
+        String nextKeysSql = "SELECT " + job.keyColumn() + " FROM " + job.table()
+            + " WHERE " + job.keyColumn() + " > ? ORDER BY " + job.keyColumn() + " LIMIT ?";
+        long started = System.nanoTime();
+        long chunks = 0;
+        long scanned = 0;
+        long affected = 0;
+
+        try (RedisDistributedLock.Lease lease = acquired.get()) {
+            K lower = job.minKey();
+            while (true) {
+                if (!lease.isHeld()) {
+                    throw new IllegalStateException("Lock distribuido perdido");
+                }
+                List<K> keys = jdbcTemplate.queryForList(nextKeysSql, job.keyType(), lower, chunkSize);
+                if (keys.isEmpty()) {
+                    break;
+                }
+                K lowerExclusive = lower;
+                K upperInclusive = keys.get(keys.size() - 1);
+
+                Integer rows = chunkTimers.get(name).record(() ->
+                    transactionTemplate.execute(status -> job.processRange(lowerExclusive, upperInclusive)));
+                int changed = rows == null ? 0 : rows;
+
+                chunks++;
+                scanned += keys.size();
+                affected += changed;
+                rowCounters.get(name).increment(changed);
+                lower = upperInclusive;
+
+                double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+                run = run.progress(chunks, scanned, affected, scanned / seconds, upperInclusive);
+                runs.put(name, run);
+
+                throttle(started, scanned);
+                if (keys.size() < chunkSize) {
+                    break;
+                }
+            }
+            run = run.finished(MaintenanceRun.COMPLETED, null);
+            log.info("=== JOB DE MANTENIMIENTO {} COMPLETADO === Rangos: {} - Filas: {}/{} - {} filas/s",
+                name, chunks, affected, scanned, Math.round(run.rowsPerSecond()));
+        } catch (Exception e) {
+            // Lo confirmado queda aplicado; el job es idempotente y puede relanzarse
+            log.error("Job de mantenimiento {} falló tras {} rangos", name, chunks, e);
+            run = run.finished(MaintenanceRun.FAILED, e.getMessage());
+        }
+        runs.put(name, run);
+    }
+
+    /**
+     * Duerme lo necesario para no superar max-rows-per-second en promedio.
+     */
+    private void throttle(long startedNanos, long scanned) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long expectedNanos = scanned * 1_000_000_000L / maxRowsPerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - startedNanos);
+        if (aheadNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        }
+    }
+}
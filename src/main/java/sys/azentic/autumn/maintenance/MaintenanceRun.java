@@ -0,0 +1,40 @@
+package sys.azentic.autumn.maintenance;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de la última ejecución de un job de mantenimiento en este nodo.
+ * Inmutable: el runner publica una nueva instancia al terminar cada rango.
+ */
+public record MaintenanceRun(
+    String job,
+    String status,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    long chunks,
+    long rowsScanned,
+    long rowsAffected,
+    double rowsPerSecond,
+    String lastKey,
+    String error
+) {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+
+    static MaintenanceRun started(String job) {
+        return new MaintenanceRun(job, RUNNING, LocalDateTime.now(), null, 0, 0, 0, 0, null, null);
+    }
+
+    MaintenanceRun progress(long chunks, long rowsScanned, long rowsAffected, double rowsPerSecond, Object lastKey) {
+        return new MaintenanceRun(job, status, startedAt, null, chunks, rowsScanned, rowsAffected,
+            rowsPerSecond, String.valueOf(lastKey), null);
+    }
+
+    MaintenanceRun finished(String status, String error) {
+        return new MaintenanceRun(job, status, startedAt, LocalDateTime.now(), chunks, rowsScanned,
+            rowsAffected, rowsPerSecond, lastKey, error);
+    }
+}
@@ -0,0 +1,56 @@
+package sys.azentic.autumn.maintenance;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Elimina los eventos del outbox ya publicados y más antiguos que la retención.
+ * Por rangos de ID en lugar de un único DELETE: evita una transacción larga y un
+ * pico de WAL que retrasaría a las réplicas.
+ */
+@Component
+public class OutboxPurgeJob implements MaintenanceJob<Long> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long retentionDays;
+
+    public OutboxPurgeJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${autumn.outbox.retention-days:7}") long retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public String name() {
+        return "outbox-purge";
+    }
+
+    @Override
+    public String table() {
+        return "outbox_events";
+    }
+
+    @Override
+    public Class<Long> keyType() {
+        return Long.class;
+    }
+
+    @Override
+    public Long minKey() {
+        return 0L;
+    }
+
+    @Override
+    public int processRange(Long lowerExclusive, Long upperInclusive) {
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        return jdbcTemplate.update("""
+            DELETE FROM outbox_events
+            WHERE id > ? AND id <= ? AND published_at IS NOT NULL AND published_at < ?
+            """, lowerExclusive, upperInclusive, before);
+    }
+}
@@ -0,0 +1,14 @@
+package sys.azentic.autumn.mapper;
+
+import org.mapstruct.Mapper;
+import sys.azentic.autumn.domain.entity.BalanceReplayRun;
+import sys.azentic.autumn.dto.response.BalanceReplayRunResponse;
+
+/**
+ * Mapper para convertir ejecuciones de replay a DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface BalanceReplayRunMapper {
+
+    BalanceReplayRunResponse toResponse(BalanceReplayRun run);
+}
@@ -0,0 +1,14 @@
+package sys.azentic.autumn.mapper;
+
+import org.mapstruct.Mapper;
+import sys.azentic.autumn.domain.entity.PayrollJob;
+import sys.azentic.autumn.dto.response.PayrollJobResponse;
+
+/**
+ * Mapper para convertir cargas de nómina a DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface PayrollJobMapper {
+
+    PayrollJobResponse toResponse(PayrollJob job);
+}
@@ -0,0 +1,14 @@
+package sys.azentic.autumn.mapper;
+
+import org.mapstruct.Mapper;
+import sys.azentic.autumn.domain.entity.ReconciliationRun;
+import sys.azentic.autumn.dto.response.ReconciliationRunResponse;
+
+/**
+ * Mapper para convertir ejecuciones de reconciliación a DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface ReconciliationRunMapper {
+
+    ReconciliationRunResponse toResponse(ReconciliationRun run);
+}
@@ -0,0 +1,106 @@
+package sys.azentic.autumn.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Detecta hilos virtuales "pinneados" a su hilo portador.
+ *
+ * En Java 21 un hilo virtual que bloquea dentro de un bloque synchronized (o en
+ * código nativo) no libera su portador; si ocurre dentro del driver JDBC, Hikari
+ * o Lettuce, la concurrencia real queda limitada al número de portadores.
+ *
+ * Escucha el evento JFR jdk.VirtualThreadPinned y por cada ocurrencia:
+ * - Incrementa autumn.virtual-threads.pinned (tag "frame": primer frame de aplicación/librería)
+ * - Registra la traza en WARN para localizar el bloque synchronized
+ *
+ * Solo activo con spring.threads.virtual.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${autumn.virtual-threads.pinned-threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitor de pinning de hilos virtuales activo (umbral: {} ms)", thresholdMs);
+    }
+
+    @Override
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String frame = stackTrace == null ? "unknown" : firstRelevantFrame(stackTrace);
+
+        Counter.builder("autumn.virtual-threads.pinned")
+            .description("Bloqueos de hilos virtuales que retuvieron su hilo portador")
+            .tag("frame", frame)
+            .register(meterRegistry)
+            .increment();
+
+        if (log.isWarnEnabled()) {
+            StringBuilder trace = new StringBuilder();
+            if (stackTrace != null) {
+                stackTrace.getFrames().stream()
+                    .limit(LOGGED_FRAMES)
+                    .forEach(f -> trace.append("\n\tat ").append(describe(f)));
+            }
+            log.warn("Hilo virtual pinneado {} ms en {}{}", event.getDuration().toMillis(), frame, trace);
+        }
+    }
+
+    /**
+     * Primer frame fuera del JDK: identifica qué librería (driver, pool, cliente) causó el pinning.
+     */
+    private static String firstRelevantFrame(RecordedStackTrace stackTrace) {
+        return stackTrace.getFrames().stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .map(f -> f.getMethod().getType().getName())
+            .filter(type -> !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun."))
+            .findFirst()
+            .orElse("jdk");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,95 @@
+package sys.azentic.autumn.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Escribe los eventos como NDJSON en un archivo local (pruebas y desarrollo).
+ *
+ * Recuerda los IDs ya escritos (leyendo el archivo al iniciar) y descarta solo esos:
+ * un evento confirmado fuera de orden, con ID menor que otro ya escrito, se escribe.
+ * La memoria crece con el archivo; aceptable para un destino de pruebas.
+ */
+@Component
+@ConditionalOnProperty(name = "autumn.outbox.sink", havingValue = "file")
+@Slf4j
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final Set<Long> writtenIds;
+
+    public FileOutboxSink(
+            ObjectMapper objectMapper,
+            @Value("${autumn.outbox.file.path:target/outbox-events.ndjson}") String path) throws IOException {
+        this.objectMapper = objectMapper;
+        this.file = Path.of(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.writtenIds = readWrittenIds();
+        log.info("Outbox publicando en archivo {} ({} eventos ya escritos)", file.toAbsolutePath(), writtenIds.size());
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            List<Long> written = new ArrayList<>(messages.size());
+            for (OutboxMessage message : messages) {
+                if (writtenIds.contains(message.id())) {
+                    continue;
+                }
+                ObjectNode line = objectMapper.createObjectNode()
+                    .put("outboxId", message.id())
+                    .put("aggregateType", message.aggregateType())
+                    .put("aggregateId", message.aggregateId().toString())
+                    .put("eventType", message.eventType())
+                    .put("createdAt", message.createdAt().toString());
+                line.set("payload", objectMapper.readTree(message.payload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+                written.add(message.id());
+            }
+            writer.flush();
+            // Durable antes de que el relay marque los eventos como publicados
+            channel.force(false);
+            writtenIds.addAll(written);
+        }
+    }
+
+    private Set<Long> readWrittenIds() throws IOException {
+        Set<Long> ids = new HashSet<>();
+        if (!Files.exists(file)) {
+            return ids;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    ids.add(objectMapper.readTree(line).path("outboxId").asLong(0));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,19 @@
+package sys.azentic.autumn.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento del outbox tal como lo recibe un destino.
+ *
+ * @param id clave de deduplicación: un destino nunca debe entregar dos veces el mismo id
+ */
+public record OutboxMessage(
+    long id,
+    String aggregateType,
+    UUID aggregateId,
+    String eventType,
+    String payload,
+    LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,144 @@
+package sys.azentic.autumn.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drena el outbox hacia el OutboxSink configurado.
+ *
+ * Cada lote corre en una transacción:
+ * 1. pg_try_advisory_xact_lock: un solo relay activo en el clúster
+ * 2. Lee hasta batch-size eventos pendientes en orden de ID
+ * 3. Los entrega al sink
+ * 4. Los marca como publicados y confirma
+ *
+ * Entrega al menos una vez, ordenada por ID entre los eventos ya confirmados al
+ * leer el lote. No respeta el orden de commit: un ID menor puede confirmarse después
+ * de uno mayor y salir en un lote posterior, así que los consumidores no deben
+ * asumir orden de commit (ver OutboxSink).
+ *
+ * Si el sink falla la transacción se revierte y el lote se reintenta; si el nodo
+ * cae entre 3 y 4 el lote se entrega de nuevo y el sink lo descarta por ID.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_KEY = 0x6F7574626F78L; // "outbox"
+
+    private static final String SELECT_BATCH_SQL = """
+        SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at
+        FROM outbox_events
+        WHERE published_at IS NULL
+        ORDER BY id
+        LIMIT ?
+        """;
+
+    private final OutboxSink sink;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+
+    public OutboxRelay(
+            OutboxSink sink,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${autumn.outbox.batch-size:500}") int batchSize,
+            @Value("${autumn.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.sink = sink;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.publishedCounter = Counter.builder("autumn.outbox.published")
+            .description("Eventos del outbox entregados al destino")
+            .register(meterRegistry);
+        this.failureCounter = Counter.builder("autumn.outbox.failures")
+            .description("Lotes del outbox que fallaron y se reintentarán")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${autumn.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int published;
+            try {
+                published = relayBatch();
+            } catch (Exception e) {
+                failureCounter.increment();
+                log.error("Error publicando lote del outbox, se reintentará: {}", e.getMessage(), e);
+                return;
+            }
+            if (published < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return eventos publicados; 0 si no hay pendientes u otro nodo tiene el lock
+     */
+    private int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return 0;
+            }
+
+            List<OutboxMessage> batch = new ArrayList<>(batchSize);
+            jdbcTemplate.query(SELECT_BATCH_SQL, rs -> {
+                batch.add(new OutboxMessage(
+                    rs.getLong("id"),
+                    rs.getString("aggregate_type"),
+                    rs.getObject("aggregate_id", UUID.class),
+                    rs.getString("event_type"),
+                    rs.getString("payload"),
+                    rs.getTimestamp("created_at").toLocalDateTime()));
+            }, batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                sink.publish(batch);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("El destino del outbox rechazó el lote", e);
+            }
+
+            Long[] ids = batch.stream().map(OutboxMessage::id).toArray(Long[]::new);
+            jdbcTemplate.update(connection -> {
+                var ps = connection.prepareStatement("UPDATE outbox_events SET published_at = ? WHERE id = ANY(?)");
+                ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setArray(2, connection.createArrayOf("bigint", ids));
+                return ps;
+            });
+            return batch.size();
+        });
+
+        int count = published == null ? 0 : published;
+        if (count > 0) {
+            publishedCounter.increment(count);
+            log.debug("Outbox: {} eventos publicados", count);
+        }
+        return count;
+    }
+}
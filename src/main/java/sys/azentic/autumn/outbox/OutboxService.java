@@ -0,0 +1,49 @@
+package sys.azentic.autumn.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sys.azentic.autumn.domain.entity.OutboxEvent;
+import sys.azentic.autumn.domain.enums.OutboxEventType;
+import sys.azentic.autumn.repository.OutboxEventRepository;
+
+import java.util.UUID;
+
+/**
+ * Registra eventos de dominio en la tabla outbox.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Agrega un evento al outbox.
+     * MANDATORY: debe llamarse dentro de la transacción del cambio de negocio;
+     * fuera de ella el evento podría publicarse sin que el cambio exista.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, UUID aggregateId, OutboxEventType eventType, Object payloadObject) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(payloadObject);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error al serializar evento de outbox " + eventType, e);
+        }
+
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+            .aggregateType(aggregateType)
+            .aggregateId(aggregateId)
+            .eventType(eventType)
+            .payload(payload)
+            .build());
+        log.debug("Evento {} agregado al outbox (id {}) para {} {}", eventType, event.getId(), aggregateType, aggregateId);
+    }
+}
@@ -0,0 +1,20 @@
+package sys.azentic.autumn.outbox;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos del outbox.
+ *
+ * Contrato:
+ * - Recibe lotes en orden de ID (entre los eventos ya confirmados, no en orden de
+ *   commit) y debe entregarlos en ese orden
+ * - Puede recibir de nuevo un evento ya entregado (el relay falló antes de marcarlo);
+ *   debe descartarlo usando OutboxMessage.id. No por marca de agua: los IDs salen de
+ *   una secuencia y pueden confirmarse fuera de orden, así que un ID menor que el
+ *   último entregado puede ser un evento nuevo
+ * - Si lanza una excepción el lote completo se reintenta
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
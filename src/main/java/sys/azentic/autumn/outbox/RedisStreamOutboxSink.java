@@ -0,0 +1,70 @@
+package sys.azentic.autumn.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publica los eventos en un Redis Stream.
+ *
+ * Cada XADD va en un script Lua junto a un marcador outbox:delivered:{id} (SET NX):
+ * si el marcador ya existe el evento se descarta, así un reintento del relay no
+ * duplica entradas. Se usa un marcador en lugar del ID del stream porque los IDs
+ * del outbox pueden confirmarse fuera de orden y XADD rechaza IDs menores al último.
+ */
+@Component
+@ConditionalOnProperty(name = "autumn.outbox.sink", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisStreamOutboxSink implements OutboxSink {
+
+    private static final String DELIVERED_KEY_PREFIX = "outbox:delivered:";
+
+    private static final RedisScript<Long> XADD_ONCE = new DefaultRedisScript<>("""
+        if redis.call('SET', KEYS[2], '1', 'NX', 'EX', ARGV[1]) then
+            redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[2], '*',
+                'outboxId', ARGV[3], 'aggregateType', ARGV[4], 'aggregateId', ARGV[5],
+                'eventType', ARGV[6], 'payload', ARGV[7], 'createdAt', ARGV[8])
+            return 1
+        end
+        return 0
+        """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String streamKey;
+    private final long maxLength;
+    private final long dedupeTtlSeconds;
+
+    public RedisStreamOutboxSink(
+            RedisTemplate<String, Object> redisTemplate,
+            @Value("${autumn.outbox.redis.stream:autumn:transfers:events}") String streamKey,
+            @Value("${autumn.outbox.redis.max-length:1000000}") long maxLength,
+            @Value("${autumn.outbox.redis.dedupe-ttl-hours:24}") long dedupeTtlHours) {
+        this.redisTemplate = redisTemplate;
+        this.streamKey = streamKey;
+        this.maxLength = maxLength;
+        this.dedupeTtlSeconds = dedupeTtlHours * 3600;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        int duplicates = 0;
+        for (OutboxMessage message : messages) {
+            Long added = redisTemplate.execute(XADD_ONCE,
+                List.of(streamKey, DELIVERED_KEY_PREFIX + message.id()),
+                dedupeTtlSeconds, maxLength, message.id(), message.aggregateType(), message.aggregateId(),
+                message.eventType(), message.payload(), message.createdAt());
+            if (added == null || added == 0) {
+                duplicates++;
+            }
+        }
+        if (duplicates > 0) {
+            log.info("{} eventos del outbox ya estaban entregados en {}", duplicates, streamKey);
+        }
+    }
+}
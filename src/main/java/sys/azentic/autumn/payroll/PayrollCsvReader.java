@@ -0,0 +1,142 @@
+package sys.azentic.autumn.payroll;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de líneas de un archivo de nómina que conoce su posición en bytes.
+ *
+ * Se abre en un offset arbitrario (el checkpoint de la carga) y entrega bloques de
+ * líneas sin cargar el archivo en memoria. Cada línea lleva el offset en que termina,
+ * que es el checkpoint a guardar cuando su bloque se confirma.
+ */
+final class PayrollCsvReader implements Closeable {
+
+    /**
+     * Líneas más largas se truncan: ninguna fila válida se acerca a este tamaño.
+     */
+    static final int MAX_LINE_BYTES = 4096;
+
+    private final InputStream in;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private long offset;
+    private long lineNumber;
+
+    /**
+     * Línea leída: número (1 = primera del archivo), texto sin salto y offset tras el salto.
+     */
+    record Line(long number, String text, long endOffset) {
+    }
+
+    PayrollCsvReader(Path file, long offset, long linesRead) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(offset);
+        this.in = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+        this.offset = offset;
+        this.lineNumber = linesRead;
+    }
+
+    /**
+     * Siguiente línea (las vacías se omiten), o null al final del archivo.
+     */
+    Line next() throws IOException {
+        while (true) {
+            buffer.reset();
+            int b;
+            boolean eof = true;
+            while ((b = in.read()) != -1) {
+                eof = false;
+                offset++;
+                if (b == '\n') {
+                    break;
+                }
+                if (buffer.size() < MAX_LINE_BYTES) {
+                    buffer.write(b);
+                }
+            }
+            if (eof) {
+                return null;
+            }
+            lineNumber++;
+            String text = buffer.toString(StandardCharsets.UTF_8).strip();
+            if (lineNumber == 1 && text.startsWith("﻿")) {
+                text = text.substring(1);
+            }
+            if (!text.isEmpty()) {
+                return new Line(lineNumber, text, offset);
+            }
+        }
+    }
+
+    /**
+     * Hasta size líneas; lista vacía al final del archivo.
+     */
+    List<Line> nextChunk(int size) throws IOException {
+        List<Line> chunk = new ArrayList<>(size);
+        Line line;
+        while (chunk.size() < size && (line = next()) != null) {
+            chunk.add(line);
+        }
+        return chunk;
+    }
+
+    /**
+     * Offset tras la última línea entregada (incluye líneas vacías ya consumidas).
+     */
+    long offset() {
+        return offset;
+    }
+
+    long linesRead() {
+        return lineNumber;
+    }
+
+    /**
+     * Separa los campos de una línea CSV (RFC 4180, comillas dobles, sin saltos dentro de campos).
+     */
+    static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().strip());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        fields.add(current.toString().strip());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,544 @@
+package sys.azentic.autumn.payroll;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sys.azentic.autumn.balance.BalanceHoldService;
+import sys.azentic.autumn.concurrency.ConflictRetryExecutor;
+import sys.azentic.autumn.concurrency.LockHoldTimer;
+import sys.azentic.autumn.concurrency.RedisDistributedLock;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.PayrollJob;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.domain.enums.AccountStatus;
+import sys.azentic.autumn.domain.enums.JobStatus;
+import sys.azentic.autumn.domain.enums.TransferStatus;
+import sys.azentic.autumn.dto.request.TransferRequest;
+import sys.azentic.autumn.dto.response.PayrollJobErrorResponse;
+import sys.azentic.autumn.exception.AccountNotFoundException;
+import sys.azentic.autumn.exception.DailyLimitExceededException;
+import sys.azentic.autumn.exception.InactiveAccountException;
+import sys.azentic.autumn.exception.PayrollJobConflictException;
+import sys.azentic.autumn.exception.PayrollJobNotFoundException;
+import sys.azentic.autumn.limits.DailyLimitGuard;
+import sys.azentic.autumn.payroll.PayrollCsvReader.Line;
+import sys.azentic.autumn.repository.AccountRepository;
+import sys.azentic.autumn.repository.PayrollJobRepository;
+import sys.azentic.autumn.repository.TransferRepository;
+import sys.azentic.autumn.service.TransferApprovalService;
+import sys.azentic.autumn.transfer.TransferNetting;
+import sys.azentic.autumn.transfer.TransferNetting.NettedTransfer;
+import sys.azentic.autumn.transfer.TransferSettlement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Carga de nóminas desde archivos CSV: una cuenta origen y muchos destinos.
+ *
+ * Formato: destination_account_number,amount[,description] (encabezado opcional).
+ *
+ * - El archivo se recibe como stream y se guarda en disco (autumn.payroll.spool-dir);
+ *   nunca se carga completo en memoria.
+ * - Se procesa por bloques de autumn.payroll.chunk-size líneas. Cada bloque se lee y
+ *   valida en paralelo (formato y restricciones de TransferRequest) mientras el bloque
+ *   anterior se liquida.
+ * - Cada bloque es una transacción: la cuenta origen se bloquea una vez, las cuentas
+ *   destino se buscan en una consulta y los saldos se aplican por posición neta
+ *   (TransferNetting). Cada fila sigue teniendo su transferencia y sus asientos.
+ * - Las filas inválidas no detienen la carga: quedan en payroll_job_errors.
+ * - El checkpoint (byte_offset) se guarda en la misma transacción que el bloque; una
+ *   carga interrumpida o fallida se reanuda desde ahí sin repetir ni perder filas.
+ *
+ * - Mientras se procesa, la carga tiene el lock distribuido payroll:<id>: una segunda
+ *   reanudación (en este u otro nodo) se rechaza en lugar de procesar el archivo dos veces.
+ * - El archivo vive en el spool del nodo que lo recibió: solo ese nodo puede reanudarla.
+ *
+ * La clave de idempotencia de cada fila se deriva de la carga y el número de línea.
+ */
+@Service
+@Slf4j
+public class PayrollJobService {
+
+    private static final String INSERT_ERROR_SQL = """
+        INSERT INTO payroll_job_errors (job_id, line_number, raw_line, error, created_at)
+        VALUES (?, ?, ?, ?, NOW())
+        """;
+
+    private static final String CHECKPOINT_SQL = """
+        UPDATE payroll_jobs
+        SET byte_offset = ?, lines_read = ?,
+            transfers_completed = transfers_completed + ?,
+            rows_failed = rows_failed + ?,
+            amount_transferred = amount_transferred + ?
+        WHERE id = ?
+        """;
+
+    private final PayrollJobRepository jobRepository;
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final TransferNetting transferNetting;
+    private final TransferSettlement transferSettlement;
+    private final TransferApprovalService transferApprovalService;
+    private final BalanceHoldService balanceHoldService;
+    private final DailyLimitGuard dailyLimitGuard;
+    private final LockHoldTimer lockHoldTimer;
+    private final RedisDistributedLock distributedLock;
+    private final Validator validator;
+    private final Path spoolDir;
+    private final int chunkSize;
+    private final Duration lockTtl;
+
+    /**
+     * Un coordinador por nodo: las cargas se encolan en lugar de competir por la cuenta origen.
+     */
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("payroll-coordinator").daemon(true).factory());
+
+    private final ForkJoinPool validationPool;
+
+    /**
+     * Fila del archivo ya validada: request listo, o el motivo del rechazo.
+     */
+    record ParsedRow(Line line, TransferRequest request, String error) {
+
+        static ParsedRow rejected(Line line, String error) {
+            return new ParsedRow(line, null, error);
+        }
+    }
+
+    /**
+     * Bloque leído y validado; last es la última línea leída (null al final del archivo).
+     */
+    private record Chunk(List<ParsedRow> rows, Line last) {
+    }
+
+    private record ChunkResult(int completed, int failed, BigDecimal amount) {
+    }
+
+    public PayrollJobService(
+            PayrollJobRepository jobRepository,
+            AccountRepository accountRepository,
+            TransferRepository transferRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ConflictRetryExecutor conflictRetryExecutor,
+            TransferNetting transferNetting,
+            TransferSettlement transferSettlement,
+            TransferApprovalService transferApprovalService,
+            BalanceHoldService balanceHoldService,
+            DailyLimitGuard dailyLimitGuard,
+            LockHoldTimer lockHoldTimer,
+            RedisDistributedLock distributedLock,
+            Validator validator,
+            @Value("${autumn.payroll.spool-dir:${java.io.tmpdir}/autumn-payroll}") String spoolDir,
+            @Value("${autumn.payroll.chunk-size:1000}") int chunkSize,
+            @Value("${autumn.payroll.validation-parallelism:4}") int validationParallelism,
+            @Value("${autumn.payroll.lock-ttl-seconds:60}") long lockTtlSeconds) {
+        this.jobRepository = jobRepository;
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.conflictRetryExecutor = conflictRetryExecutor;
+        this.transferNetting = transferNetting;
+        this.transferSettlement = transferSettlement;
+        this.transferApprovalService = transferApprovalService;
+        this.balanceHoldService = balanceHoldService;
+        this.dailyLimitGuard = dailyLimitGuard;
+        this.lockHoldTimer = lockHoldTimer;
+        this.distributedLock = distributedLock;
+        this.validator = validator;
+        this.spoolDir = Path.of(spoolDir);
+        this.chunkSize = chunkSize;
+        this.validationPool = new ForkJoinPool(validationParallelism);
+        this.lockTtl = Duration.ofSeconds(lockTtlSeconds);
+    }
+
+    /**
+     * Recibe el archivo y lanza la carga en segundo plano.
+     *
+     * @param sourceAccountNumber Cuenta que paga la nómina
+     * @param fileName Nombre original del archivo (informativo)
+     * @param content Contenido CSV; se copia a disco sin cargarlo en memoria
+     * @return Carga registrada en estado RUNNING
+     */
+    public PayrollJob submit(String sourceAccountNumber, String fileName, InputStream content) {
+        Account source = accountRepository.findByAccountNumber(sourceAccountNumber)
+            .orElseThrow(() -> new AccountNotFoundException(sourceAccountNumber));
+
+        UUID jobId = UUID.randomUUID();
+        RedisDistributedLock.Lease lease = distributedLock.tryAcquire(lockName(jobId), lockTtl)
+            .orElseThrow(() -> new IllegalStateException("Lock de carga nueva ocupado: " + jobId));
+        long fileSize;
+        try {
+            Files.createDirectories(spoolDir);
+            fileSize = Files.copy(content, spoolFile(jobId));
+        } catch (IOException e) {
+            lease.close();
+            throw new UncheckedIOException("No se pudo recibir el archivo de nómina", e);
+        }
+
+        PayrollJob job = jobRepository.save(PayrollJob.builder()
+            .id(jobId)
+            .sourceAccountId(source.getId())
+            .sourceAccountNumber(source.getAccountNumber())
+            .fileName(fileName)
+            .fileSize(fileSize)
+            .startedAt(LocalDateTime.now())
+            .build());
+        log.info("Carga de nómina {} registrada: cuenta {} - {} bytes", jobId, sourceAccountNumber, fileSize);
+        coordinator.submit(() -> executeLocked(jobId, lease));
+        return job;
+    }
+
+    /**
+     * Reanuda una carga interrumpida o fallida desde su último checkpoint.
+     *
+     * @param jobId ID de la carga
+     * @return Carga en estado RUNNING
+     * @throws PayrollJobConflictException si otro nodo la procesa o su archivo no está en este nodo
+     */
+    public PayrollJob resume(UUID jobId) {
+        PayrollJob job = getJob(jobId);
+        if (job.getStatus() == JobStatus.COMPLETED) {
+            log.info("Carga de nómina {} ya estaba completada, no se reanuda", jobId);
+            return job;
+        }
+        if (!Files.exists(spoolFile(jobId))) {
+            throw new PayrollJobConflictException("El archivo de la carga " + jobId
+                + " no está en este nodo; reanudar en el nodo que la recibió o volver a cargarla");
+        }
+        RedisDistributedLock.Lease lease = distributedLock.tryAcquire(lockName(jobId), lockTtl)
+            .orElseThrow(() -> new PayrollJobConflictException(
+                "La carga " + jobId + " ya se está procesando en el clúster"));
+        jdbcTemplate.update(
+            "UPDATE payroll_jobs SET status = ?, error_message = NULL, finished_at = NULL WHERE id = ?",
+            JobStatus.RUNNING.name(), jobId);
+        job.setStatus(JobStatus.RUNNING);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        log.info("Reanudando carga de nómina {} desde el byte {}", jobId, job.getByteOffset());
+        coordinator.submit(() -> executeLocked(jobId, lease));
+        return job;
+    }
+
+    /**
+     * Consulta el estado y progreso de una carga.
+     */
+    public PayrollJob getJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+            .orElseThrow(() -> new PayrollJobNotFoundException(jobId));
+    }
+
+    /**
+     * Lista las filas rechazadas de una carga con paginación keyset.
+     *
+     * @param jobId ID de la carga
+     * @param afterId Último ID recibido (0 para la primera página)
+     * @param limit Máximo de filas a retornar
+     */
+    public List<PayrollJobErrorResponse> getErrors(UUID jobId, long afterId, int limit) {
+        getJob(jobId);
+        return jdbcTemplate.query("""
+            SELECT id, line_number, raw_line, error, created_at
+            FROM payroll_job_errors
+            WHERE job_id = ? AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """, (rs, rowNum) -> PayrollJobErrorResponse.builder()
+                .id(rs.getLong("id"))
+                .lineNumber(rs.getLong("line_number"))
+                .rawLine(rs.getString("raw_line"))
+                .error(rs.getString("error"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build(),
+            jobId, afterId, limit);
+    }
+
+    /**
+     * Procesa la carga con su lock tomado; lo libera al terminar o fallar.
+     */
+    private void executeLocked(UUID jobId, RedisDistributedLock.Lease acquired) {
+        try (RedisDistributedLock.Lease lease = acquired) {
+            execute(jobId, lease);
+        }
+    }
+
+    private void execute(UUID jobId, RedisDistributedLock.Lease lease) {
+        PayrollJob job = getJob(jobId);
+        if (job.getStatus() != JobStatus.RUNNING) {
+            return;
+        }
+        if (!Files.exists(spoolFile(jobId))) {
+            log.error("Carga de nómina {}: archivo no encontrado en {}", jobId, spoolDir);
+            fail(jobId, "Archivo de la carga no encontrado en el nodo; volver a cargarla");
+            return;
+        }
+        try (PayrollCsvReader reader = new PayrollCsvReader(spoolFile(jobId), job.getByteOffset(), job.getLinesRead())) {
+            CompletableFuture<Chunk> next = CompletableFuture.supplyAsync(() -> readChunk(job, reader), validationPool);
+            try {
+                long completed = job.getTransfersCompleted();
+                long failed = job.getRowsFailed();
+                while (true) {
+                    Chunk chunk = next.join();
+                    if (chunk.last() == null) {
+                        break;
+                    }
+                    if (!lease.isHeld()) {
+                        throw new IllegalStateException("Lock distribuido perdido");
+                    }
+                    // El siguiente bloque se lee y valida mientras este se liquida
+                    next = CompletableFuture.supplyAsync(() -> readChunk(job, reader), validationPool);
+
+                    ChunkResult result = conflictRetryExecutor.execute(job.getSourceAccountNumber(),
+                        () -> transactionTemplate.execute(status -> executeChunk(job, chunk)));
+                    completed += result.completed();
+                    failed += result.failed();
+                    log.info("Carga de nómina {}: línea {} ({} de {} bytes) - completadas: {} - rechazadas: {}",
+                        jobId, chunk.last().number(), chunk.last().endOffset(), job.getFileSize(), completed, failed);
+                }
+                jdbcTemplate.update("UPDATE payroll_jobs SET status = ?, finished_at = ? WHERE id = ?",
+                    JobStatus.COMPLETED.name(), Timestamp.valueOf(LocalDateTime.now()), jobId);
+                log.info("=== CARGA DE NÓMINA {} COMPLETADA === Completadas: {} - Rechazadas: {}",
+                    jobId, completed, failed);
+            } finally {
+                // El lector no se cierra con una lectura en curso
+                next.exceptionally(e -> null).join();
+            }
+        } catch (DailyLimitExceededException | InactiveAccountException e) {
+            // Condición de la cuenta origen, no del archivo: se reanuda cuando se resuelva
+            log.warn("Carga de nómina {} detenida: {}", jobId, e.getMessage());
+            fail(jobId, e.getMessage() + "; reanudar para continuar");
+            return;
+        } catch (Exception e) {
+            log.error("Carga de nómina {} falló", jobId, e);
+            fail(jobId, "Error inesperado: " + e.getClass().getSimpleName());
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile(jobId));
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo de la carga {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private void fail(UUID jobId, String message) {
+        jdbcTemplate.update("UPDATE payroll_jobs SET status = ?, error_message = ?, finished_at = ? WHERE id = ?",
+            JobStatus.FAILED.name(), message, Timestamp.valueOf(LocalDateTime.now()), jobId);
+    }
+
+    /**
+     * Lee el siguiente bloque y lo valida en paralelo en validationPool.
+     */
+    private Chunk readChunk(PayrollJob job, PayrollCsvReader reader) {
+        List<Line> lines;
+        try {
+            lines = reader.nextChunk(chunkSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (lines.isEmpty()) {
+            return new Chunk(List.of(), null);
+        }
+        // Corre en validationPool: el stream paralelo usa ese pool, no el común
+        List<ParsedRow> rows = lines.parallelStream()
+            .map(line -> parse(job, line))
+            .filter(Objects::nonNull)
+            .toList();
+        return new Chunk(rows, lines.get(lines.size() - 1));
+    }
+
+    /**
+     * Valida formato y restricciones de una fila. Retorna null para el encabezado.
+     */
+    ParsedRow parse(PayrollJob job, Line line) {
+        if (line.number() == 1 && line.text().toLowerCase(Locale.ROOT).startsWith("destination")) {
+            return null;
+        }
+        List<String> fields;
+        try {
+            fields = PayrollCsvReader.fields(line.text());
+        } catch (IllegalArgumentException e) {
+            return ParsedRow.rejected(line, e.getMessage());
+        }
+        if (fields.size() < 2 || fields.size() > 3) {
+            return ParsedRow.rejected(line, "Se esperaban 2 o 3 columnas y hay " + fields.size());
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(fields.get(1));
+        } catch (NumberFormatException e) {
+            return ParsedRow.rejected(line, "Monto inválido: " + fields.get(1));
+        }
+
+        TransferRequest request = TransferRequest.builder()
+            .idempotencyKey(idempotencyKey(job.getId(), line.number()))
+            .sourceAccountNumber(job.getSourceAccountNumber())
+            .destinationAccountNumber(fields.get(0))
+            .amount(amount)
+            .description(fields.size() == 3 && !fields.get(2).isEmpty() ? fields.get(2) : null)
+            .build();
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return ParsedRow.rejected(line, violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        }
+        if (transferApprovalService.requiresApproval(amount)) {
+            return ParsedRow.rejected(line, "El monto requiere aprobación y no se acepta en nómina");
+        }
+        return new ParsedRow(line, request, null);
+    }
+
+    /**
+     * Liquida un bloque dentro de una transacción, con su checkpoint y sus rechazos.
+     * Seguro ante reintentos: todo se revierte junto.
+     */
+    private ChunkResult executeChunk(PayrollJob job, Chunk chunk) {
+        List<Object[]> errors = new ArrayList<>();
+        List<ParsedRow> candidates = new ArrayList<>(chunk.rows().size());
+        for (ParsedRow row : chunk.rows()) {
+            if (row.error() != null) {
+                errors.add(errorRow(job, row.line(), row.error()));
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        // PASO 1: Cuenta origen bloqueada una sola vez para todo el bloque
+        Account source = accountRepository.findByIdWithLock(job.getSourceAccountId())
+            .orElseThrow(() -> new AccountNotFoundException(job.getSourceAccountNumber()));
+        lockHoldTimer.start("payroll");
+        if (source.getStatus() != AccountStatus.ACTIVE) {
+            throw new InactiveAccountException(source.getAccountNumber(), source.getStatus().name());
+        }
+
+        // PASO 2: Cuentas destino y claves ya registradas, una consulta cada una
+        Map<String, Account> destinations = accountRepository.findByAccountNumberIn(candidates.stream()
+                .map(row -> row.request().getDestinationAccountNumber())
+                .collect(Collectors.toSet())).stream()
+            .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+        Set<UUID> registered = transferRepository.findByIdempotencyKeyIn(candidates.stream()
+                .map(row -> row.request().getIdempotencyKey())
+                .toList()).stream()
+            .map(Transfer::getIdempotencyKey)
+            .collect(Collectors.toSet());
+
+        // PASO 3: Filas en orden de archivo mientras el disponible las cubra
+        BigDecimal available = balanceHoldService.availableBalance(source);
+        BigDecimal gross = BigDecimal.ZERO;
+        List<Transfer> transfers = new ArrayList<>(candidates.size());
+        Map<UUID, Account> accountsById = new HashMap<>();
+        accountsById.put(source.getId(), source);
+        for (ParsedRow row : candidates) {
+            TransferRequest request = row.request();
+            if (registered.contains(request.getIdempotencyKey())) {
+                continue;
+            }
+            Account destination = destinations.get(request.getDestinationAccountNumber());
+            String error = null;
+            if (destination == null) {
+                error = "Cuenta destino no encontrada: " + request.getDestinationAccountNumber();
+            } else if (!destination.canReceive()) {
+                error = "Cuenta destino no activa: " + destination.getStatus();
+            } else if (destination.getCurrency() != source.getCurrency()) {
+                error = "Moneda de la cuenta destino distinta: " + destination.getCurrency();
+            } else if (gross.add(request.getAmount()).compareTo(available) > 0) {
+                error = "Saldo insuficiente: disponible " + available.subtract(gross).toPlainString();
+            }
+            if (error != null) {
+                errors.add(errorRow(job, row.line(), error));
+                continue;
+            }
+            gross = gross.add(request.getAmount());
+            accountsById.put(destination.getId(), destination);
+            transfers.add(Transfer.builder()
+                .idempotencyKey(request.getIdempotencyKey())
+                .sourceAccount(source)
+                .destinationAccount(destination)
+                .amount(request.getAmount())
+                .status(TransferStatus.PENDING)
+                .description(request.getDescription())
+                .build());
+        }
+
+        // PASO 4: Límite diario sobre el total del bloque y una sentencia por cuenta
+        if (!transfers.isEmpty()) {
+            dailyLimitGuard.reserve(source, gross);
+            Map<UUID, BigDecimal> opening = transferNetting.apply(
+                TransferNetting.netPositions(transfers), accountsById, UUID.randomUUID());
+            // Las claves derivadas no se publican en la caché de idempotencia: solo la base las consulta
+            for (NettedTransfer netted : TransferNetting.settlementOrder(transfers, opening)) {
+                transferSettlement.settleNetted(netted.transfer(),
+                    netted.sourceBalanceAfter(), netted.destinationBalanceAfter());
+            }
+        }
+
+        // PASO 5: Rechazos y checkpoint en la misma transacción
+        if (!errors.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ERROR_SQL, errors);
+        }
+        jdbcTemplate.update(CHECKPOINT_SQL, chunk.last().endOffset(), chunk.last().number(),
+            transfers.size(), errors.size(), gross, job.getId());
+        return new ChunkResult(transfers.size(), errors.size(), gross);
+    }
+
+    private static Object[] errorRow(PayrollJob job, Line line, String error) {
+        String raw = line.text().length() > 1000 ? line.text().substring(0, 1000) : line.text();
+        String message = error.length() > 500 ? error.substring(0, 500) : error;
+        return new Object[]{job.getId(), line.number(), raw, message};
+    }
+
+    /**
+     * Clave de idempotencia de una fila: la misma en cada reanudación de la carga.
+     */
+    static UUID idempotencyKey(UUID jobId, long lineNumber) {
+        return UUID.nameUUIDFromBytes((jobId + ":" + lineNumber).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String lockName(UUID jobId) {
+        return "payroll:" + jobId;
+    }
+
+    private Path spoolFile(UUID jobId) {
+        return spoolDir.resolve(jobId + ".csv");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        validationPool.shutdownNow();
+    }
+}
@@ -0,0 +1,72 @@
+package sys.azentic.autumn.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sys.azentic.autumn.domain.entity.AccountBalanceSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad AccountBalanceSnapshot.
+ * IMPORTANTE: Solo operaciones de INSERT y SELECT. Nunca UPDATE o DELETE.
+ */
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, UUID> {
+
+    /**
+     * Obtiene el snapshot más reciente de una cuenta tomado en o antes del instante dado.
+     * Se resuelve con una búsqueda sobre el índice único (account_id, snapshot_at).
+     */
+    @Query("SELECT s FROM AccountBalanceSnapshot s WHERE s.account.id = :accountId AND s.snapshotAt <= :at ORDER BY s.snapshotAt DESC LIMIT 1")
+    Optional<AccountBalanceSnapshot> findLatestByAccountIdAt(
+        @Param("accountId") UUID accountId,
+        @Param("at") LocalDateTime at
+    );
+
+    /**
+     * Registra el cierre diario de todas las cuentas con movimientos en [dayStart, dayEnd).
+     * Operación set-based: saldo = snapshot anterior + suma con signo de los asientos
+     * desde ese snapshot hasta el cierre (sin snapshot previo se parte de 0).
+     *
+     * No usa balance_after: en cuentas particionadas es un agregado leído sin serializar
+     * con los créditos concurrentes a sub-saldos y no es exacto.
+     * Es idempotente (ON CONFLICT), por lo que puede re-ejecutarse sin duplicar.
+     *
+     * @return Cantidad de snapshots insertados
+     */
+    @Modifying
+    @Query(value = """
+        WITH day_accounts AS (
+            SELECT DISTINCT l.account_id
+            FROM ledger_entries l
+            WHERE l.created_at >= :dayStart AND l.created_at < :dayEnd
+        )
+        INSERT INTO account_balance_snapshots (id, account_id, snapshot_at, balance, created_at)
+        SELECT gen_random_uuid(), d.account_id, :dayEnd, COALESCE(p.balance, 0) + m.net, NOW()
+        FROM day_accounts d
+        LEFT JOIN LATERAL (
+            SELECT s.snapshot_at, s.balance
+            FROM account_balance_snapshots s
+            WHERE s.account_id = d.account_id AND s.snapshot_at < :dayEnd
+            ORDER BY s.snapshot_at DESC
+            LIMIT 1
+        ) p ON TRUE
+        CROSS JOIN LATERAL (
+            SELECT COALESCE(SUM(CASE l.type WHEN 'CREDIT' THEN l.amount ELSE -l.amount END), 0) AS net
+            FROM ledger_entries l
+            WHERE l.account_id = d.account_id
+              AND l.created_at >= COALESCE(p.snapshot_at, '-infinity'::timestamp)
+              AND l.created_at < :dayEnd
+        ) m
+        ON CONFLICT (account_id, snapshot_at) DO NOTHING
+        """, nativeQuery = true)
+    int insertDailySnapshots(
+        @Param("dayStart") LocalDateTime dayStart,
+        @Param("dayEnd") LocalDateTime dayEnd
+    );
+}
@@ -24,6 +24,11 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
      */
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    /**
+     * Busca varias cuentas por número en una sola consulta (lotes de transferencias).
+     */
+    java.util.List<Account> findByAccountNumberIn(java.util.Collection<String> accountNumbers);
+
     /**
      * Busca una cuenta por su número con bloqueo pesimista.
      * Este método debe usarse dentro de una transacción para bloquear la fila
@@ -35,6 +40,22 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
     Optional<Account> findByAccountNumberWithLock(@Param("accountNumber") String accountNumber);
 
+    /**
+     * Busca una cuenta por ID con bloqueo pesimista (SELECT ... FOR UPDATE).
+     * Usado por el procesamiento asíncrono, que conoce las cuentas por ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdWithLock(@Param("id") UUID id);
+
+    /**
+     * Bloquea varias cuentas en orden de ID (operaciones por lote sin deadlocks).
+     * ORDER BY id de PostgreSQL es el orden de AccountLockOrder.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    java.util.List<Account> findAllByIdInWithLock(@Param("ids") java.util.Collection<UUID> ids);
+
     /**
      * Verifica si existe una cuenta activa con el número dado.
      */
@@ -0,0 +1,14 @@
+package sys.azentic.autumn.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import sys.azentic.autumn.domain.entity.BalanceReplayRun;
+
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad BalanceReplayRun.
+ */
+@Repository
+public interface BalanceReplayRunRepository extends JpaRepository<BalanceReplayRun, UUID> {
+}
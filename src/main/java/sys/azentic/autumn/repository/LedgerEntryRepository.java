@@ -6,7 +6,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sys.azentic.autumn.domain.entity.LedgerEntry;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -32,4 +35,37 @@ public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID>
      */
     @Query("SELECT l FROM LedgerEntry l WHERE l.account.id = :accountId ORDER BY l.createdAt DESC LIMIT :limit")
     List<LedgerEntry> findRecentByAccountId(@Param("accountId") UUID accountId, @Param("limit") int limit);
+
+    /**
+     * Obtiene el último asiento de una cuenta registrado en o antes del instante dado.
+     * Se resuelve con una sola búsqueda sobre idx_ledger_account_created_at.
+     */
+    @Query("SELECT l FROM LedgerEntry l WHERE l.account.id = :accountId AND l.createdAt <= :at ORDER BY l.createdAt DESC LIMIT 1")
+    Optional<LedgerEntry> findLatestByAccountIdAt(@Param("accountId") UUID accountId, @Param("at") LocalDateTime at);
+
+    /**
+     * Suma con signo (CREDIT suma, DEBIT resta) de los asientos de una cuenta en [from, to].
+     * Recorre idx_ledger_account_created_at solo en ese rango.
+     */
+    @Query(value = """
+        SELECT COALESCE(SUM(CASE l.type WHEN 'CREDIT' THEN l.amount ELSE -l.amount END), 0)
+        FROM ledger_entries l
+        WHERE l.account_id = :accountId AND l.created_at >= :from AND l.created_at <= :to
+        """, nativeQuery = true)
+    BigDecimal sumSignedAmountsBetween(
+        @Param("accountId") UUID accountId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Suma con signo de todos los asientos de una cuenta hasta el instante dado
+     * (cuentas sin snapshot: el saldo inicial es 0).
+     */
+    @Query(value = """
+        SELECT COALESCE(SUM(CASE l.type WHEN 'CREDIT' THEN l.amount ELSE -l.amount END), 0)
+        FROM ledger_entries l
+        WHERE l.account_id = :accountId AND l.created_at <= :to
+        """, nativeQuery = true)
+    BigDecimal sumSignedAmountsUntil(@Param("accountId") UUID accountId, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,13 @@
+package sys.azentic.autumn.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import sys.azentic.autumn.domain.entity.OutboxEvent;
+
+/**
+ * Repositorio para la entidad OutboxEvent.
+ * Solo se usa para insertar; el relay lee y marca con SQL por lotes.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+}
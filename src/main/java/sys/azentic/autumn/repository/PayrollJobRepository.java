@@ -0,0 +1,14 @@
+package sys.azentic.autumn.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import sys.azentic.autumn.domain.entity.PayrollJob;
+
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad PayrollJob.
+ */
+@Repository
+public interface PayrollJobRepository extends JpaRepository<PayrollJob, UUID> {
+}
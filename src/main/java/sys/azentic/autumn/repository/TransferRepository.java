@@ -1,6 +1,8 @@
 package sys.azentic.autumn.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -8,6 +10,7 @@ import sys.azentic.autumn.domain.entity.Transfer;
 import sys.azentic.autumn.domain.enums.TransferStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,11 +27,24 @@ public interface TransferRepository extends JpaRepository<Transfer, UUID> {
      */
     Optional<Transfer> findByIdempotencyKey(UUID idempotencyKey);
 
+    /**
+     * Transferencias ya registradas con alguna de las claves (reintentos de lotes).
+     */
+    List<Transfer> findByIdempotencyKeyIn(Collection<UUID> idempotencyKeys);
+
     /**
      * Verifica si existe una transferencia con la clave de idempotencia dada.
      */
     boolean existsByIdempotencyKey(UUID idempotencyKey);
 
+    /**
+     * Busca una transferencia por ID con bloqueo pesimista.
+     * Garantiza que un solo worker procese cada transferencia asíncrona.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transfer t WHERE t.id = :id")
+    Optional<Transfer> findByIdWithLock(@Param("id") UUID id);
+
     /**
      * Busca transferencias por cuenta de origen.
      */
@@ -48,9 +64,49 @@ public interface TransferRepository extends JpaRepository<Transfer, UUID> {
     List<Transfer> findByAccountId(@Param("accountId") UUID accountId);
 
     /**
-     * Busca transferencias pendientes de aprobación.
+     * Primera página de la cola de aprobación (índice parcial idx_transfer_requires_approval).
+     */
+    @Query(value = """
+        SELECT id FROM transfers
+        WHERE requires_approval = TRUE AND status = 'PENDING'
+        ORDER BY created_at, id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> findApprovalQueueIds(@Param("limit") int limit);
+
+    /**
+     * Página siguiente de la cola de aprobación: keyset sobre (created_at, id),
+     * el costo no depende de cuántas páginas se hayan recorrido.
+     */
+    @Query(value = """
+        SELECT id FROM transfers
+        WHERE requires_approval = TRUE AND status = 'PENDING'
+          AND (created_at, id) > (:createdAt, :id)
+        ORDER BY created_at, id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> findApprovalQueueIdsAfter(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Carga transferencias con sus cuentas en una sola consulta (evita N+1 al mapear).
+     */
+    @Query("SELECT t FROM Transfer t JOIN FETCH t.sourceAccount JOIN FETCH t.destinationAccount WHERE t.id IN :ids ORDER BY t.createdAt, t.id")
+    List<Transfer> findAllWithAccountsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Bloquea, en orden de ID, las transferencias del lote que siguen en espera de aprobación.
      */
-    List<Transfer> findByRequiresApprovalTrueAndStatus(TransferStatus status);
+    @Query(value = """
+        SELECT * FROM transfers
+        WHERE id IN (:ids) AND requires_approval = TRUE AND status = 'PENDING'
+        ORDER BY id
+        FOR UPDATE
+        """, nativeQuery = true)
+    List<Transfer> findPendingApprovalForUpdate(@Param("ids") Collection<UUID> ids);
 
     /**
      * Busca transferencias por estado y rango de fechas.
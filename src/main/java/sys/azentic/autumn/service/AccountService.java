@@ -1,8 +1,10 @@
 package sys.azentic.autumn.service;
 
 import sys.azentic.autumn.dto.response.AccountResponse;
+import sys.azentic.autumn.dto.response.BalanceAtResponse;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
@@ -37,4 +39,18 @@ public interface AccountService {
      * @throws sys.azentic.autumn.exception.AccountNotFoundException si no existe
      */
     BigDecimal getBalance(UUID accountId);
+
+    /**
+     * Consulta el saldo que tenía una cuenta en un instante del pasado.
+     * Usa el balanceAfter del último asiento del libro mayor anterior al instante
+     * y, si no hay asientos posteriores al último snapshot, el saldo del snapshot.
+     * En cuentas particionadas acumula los asientos desde el último snapshot
+     * (su balanceAfter no es exacto).
+     *
+     * @param accountId ID de la cuenta
+     * @param at Instante a consultar
+     * @return Saldo histórico y su origen
+     * @throws sys.azentic.autumn.exception.AccountNotFoundException si no existe
+     */
+    BalanceAtResponse getBalanceAt(UUID accountId, LocalDateTime at);
 }
@@ -0,0 +1,31 @@
+package sys.azentic.autumn.service;
+
+import sys.azentic.autumn.domain.enums.StatementFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interfaz de servicio para la exportación de estados de cuenta.
+ *
+ * Los movimientos se leen del libro mayor con un cursor del lado del servidor
+ * y se escriben fila por fila, por lo que el consumo de memoria es constante
+ * sin importar el rango de fechas solicitado.
+ */
+public interface StatementService {
+
+    /**
+     * Escribe los asientos del libro mayor de una cuenta en el stream de salida.
+     *
+     * @param accountId ID de la cuenta
+     * @param from Inicio del rango (inclusivo), o null para no acotar
+     * @param to Fin del rango (exclusivo), o null para no acotar
+     * @param format Formato de salida (NDJSON o CSV)
+     * @param out Stream de salida; no se cierra al terminar
+     * @throws IOException si falla la escritura hacia el cliente
+     */
+    void writeStatement(UUID accountId, LocalDateTime from, LocalDateTime to,
+                        StatementFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,65 @@
+package sys.azentic.autumn.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.dto.request.ApprovalDecisionRequest;
+import sys.azentic.autumn.dto.response.ApprovalDecisionResponse;
+import sys.azentic.autumn.dto.response.ApprovalQueueResponse;
+
+/**
+ * Interfaz de servicio para transferencias que superan el monto sin aprobación.
+ * 
+ * Define el contrato de negocio para:
+ * - Retener fondos y estacionar la transferencia en la cola de aprobación
+ * - Consultar la cola paginada por keyset
+ * - Aprobar o rechazar lotes completos en una transacción
+ */
+public interface TransferApprovalService {
+    
+    /**
+     * Indica si el monto supera autumn.transfer.max-amount-without-approval.
+     */
+    boolean requiresApproval(BigDecimal amount);
+    
+    /**
+     * Retiene el monto en la cuenta origen y guarda la transferencia en PENDING
+     * con requiresApproval = true. Debe llamarse dentro de una transacción.
+     * 
+     * @param transfer Transferencia nueva (aún sin persistir)
+     * @param sourceAccount Cuenta origen
+     * @return Transferencia persistida en espera de aprobación
+     * @throws InsufficientBalanceException si el disponible no alcanza
+     */
+    Transfer park(Transfer transfer, Account sourceAccount);
+    
+    /**
+     * Página de la cola de aprobación, de la más antigua a la más nueva.
+     * 
+     * @param afterCreatedAt createdAt del último elemento de la página anterior (null = inicio)
+     * @param afterId ID del último elemento de la página anterior (null = inicio)
+     * @param limit Tamaño de página
+     * @return Transferencias y cursor de la página siguiente
+     */
+    ApprovalQueueResponse getQueue(LocalDateTime afterCreatedAt, UUID afterId, int limit);
+    
+    /**
+     * Aprueba y ejecuta un lote: libera la retención y aplica débito/crédito.
+     * Una transferencia que excede el límite diario queda FAILED sin afectar al resto.
+     * 
+     * @param request IDs del lote y revisor
+     * @return Transferencias decididas e IDs omitidos
+     */
+    ApprovalDecisionResponse approve(ApprovalDecisionRequest request);
+    
+    /**
+     * Rechaza un lote: libera la retención y deja las transferencias en FAILED.
+     * 
+     * @param request IDs del lote, revisor y motivo
+     * @return Transferencias decididas e IDs omitidos
+     */
+    ApprovalDecisionResponse reject(ApprovalDecisionRequest request);
+}
@@ -0,0 +1,25 @@
+package sys.azentic.autumn.service;
+
+import sys.azentic.autumn.dto.request.TransferBatchRequest;
+import sys.azentic.autumn.dto.response.TransferBatchResponse;
+
+/**
+ * Interfaz de servicio para lotes de transferencias.
+ * 
+ * Define el contrato de negocio para:
+ * - Ejecutar un lote completo en una transacción (todas o ninguna)
+ * - Compensar posiciones: una escritura por cuenta, no por transferencia
+ */
+public interface TransferBatchService {
+    
+    /**
+     * Ejecuta un lote compensado. Cada transferencia queda registrada con sus asientos.
+     * Reintentar con las mismas claves de idempotencia retorna las ya registradas.
+     * 
+     * @param request Transferencias del lote
+     * @return Transferencias y posiciones netas aplicadas
+     * @throws InsufficientBalanceException si una cuenta no cubre su débito neto
+     * @throws DailyLimitExceededException si una cuenta excede su límite diario
+     */
+    TransferBatchResponse createBatch(TransferBatchRequest request);
+}
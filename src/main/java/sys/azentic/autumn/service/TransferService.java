@@ -26,6 +26,9 @@ public interface TransferService {
      * 5. Registra en libro mayor
      * 6. Crea eventos de auditoría
      * 
+     * Si el monto supera el umbral de aprobación, retiene los fondos y retorna la
+     * transferencia en PENDING con requiresApproval = true (ver TransferApprovalService).
+     * 
      * @param request Datos de la transferencia (idempotencyKey, cuentas, monto, etc.)
      * @return Respuesta con estado de la transferencia creada
      * @throws AccountNotFoundException si alguna cuenta no existe
@@ -36,6 +39,29 @@ public interface TransferService {
      */
     TransferResponse createTransfer(TransferRequest request);
     
+    /**
+     * Registra una transferencia para procesamiento asíncrono.
+     * 
+     * Solo valida lo que no requiere locks (cuentas existentes, cuentas distintas),
+     * persiste la transferencia en PENDING; los workers de la cola la toman tras el commit.
+     * Si la clave de idempotencia ya existe retorna la transferencia previa.
+     * 
+     * @param request Datos de la transferencia
+     * @return Transferencia registrada (normalmente en PENDING)
+     * @throws AccountNotFoundException si alguna cuenta no existe
+     */
+    TransferResponse submitTransfer(TransferRequest request);
+    
+    /**
+     * Procesa una transferencia PENDING o reclamada (PROCESSING): bloquea las cuentas,
+     * valida saldo y ejecuta débito/crédito. Un rechazo de negocio deja la transferencia en FAILED.
+     * Si la transferencia ya está en un estado final no hace nada (seguro ante reintentos).
+     * 
+     * @param transferId ID de la transferencia
+     * @throws TransferNotFoundException si no existe
+     */
+    void processTransfer(UUID transferId);
+    
     /**
      * Consulta una transferencia por su ID.
      * 
@@ -4,14 +4,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sys.azentic.autumn.balance.BalanceShardService;
 import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.AccountBalanceSnapshot;
+import sys.azentic.autumn.domain.entity.LedgerEntry;
 import sys.azentic.autumn.dto.response.AccountResponse;
+import sys.azentic.autumn.dto.response.BalanceAtResponse;
 import sys.azentic.autumn.exception.AccountNotFoundException;
 import sys.azentic.autumn.mapper.AccountMapper;
+import sys.azentic.autumn.repository.AccountBalanceSnapshotRepository;
 import sys.azentic.autumn.repository.AccountRepository;
+import sys.azentic.autumn.repository.LedgerEntryRepository;
 import sys.azentic.autumn.service.AccountService;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -32,7 +40,10 @@ import java.util.UUID;
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountBalanceSnapshotRepository snapshotRepository;
     private final AccountMapper accountMapper;
+    private final BalanceShardService balanceShardService;
 
     @Override
     public AccountResponse getAccountById(UUID accountId) {
@@ -43,7 +54,7 @@ public class AccountServiceImpl implements AccountService {
         
         log.info("Cuenta encontrada: {} - Saldo: {}", account.getAccountNumber(), account.getBalance());
         
-        return accountMapper.toResponse(account);
+        return toResponse(account);
     }
 
     @Override
@@ -55,7 +66,7 @@ public class AccountServiceImpl implements AccountService {
         
         log.info("Cuenta encontrada: {} - Saldo: {}", account.getAccountNumber(), account.getBalance());
         
-        return accountMapper.toResponse(account);
+        return toResponse(account);
     }
 
     @Override
@@ -65,10 +76,76 @@ public class AccountServiceImpl implements AccountService {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
         
-        BigDecimal balance = account.getBalance();
+        // Cuentas particionadas: parte principal + sub-saldos
+        BigDecimal balance = balanceShardService.totalBalance(account);
         
         log.info("Saldo de cuenta {}: {}", account.getAccountNumber(), balance);
         
         return balance;
     }
+
+    @Override
+    public BalanceAtResponse getBalanceAt(UUID accountId, LocalDateTime at) {
+        log.debug("Consultando saldo histórico de cuenta {} en {}", accountId, at);
+
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+
+        // Ambas consultas son una única búsqueda en índice: O(log n) sin importar el historial
+        Optional<LedgerEntry> entry = ledgerEntryRepository.findLatestByAccountIdAt(accountId, at);
+        Optional<AccountBalanceSnapshot> snapshot = snapshotRepository.findLatestByAccountIdAt(accountId, at);
+
+        BalanceAtResponse.BalanceAtResponseBuilder response = BalanceAtResponse.builder()
+            .accountId(accountId)
+            .at(at);
+
+        // El snapshot solo incluye asientos anteriores a snapshotAt: si hay un asiento
+        // igual o posterior al snapshot, ese asiento es el dato más reciente
+        boolean entryIsNewer = entry.isPresent() && (snapshot.isEmpty()
+            || !entry.get().getCreatedAt().isBefore(snapshot.get().getSnapshotAt()));
+
+        if (account.isSharded()) {
+            // Cuentas particionadas: su balance_after es un agregado leído sin serializar con
+            // los créditos concurrentes a sub-saldos, así que el saldo se acumula desde el
+            // snapshot (a lo sumo un día de asientos)
+            BigDecimal balance = snapshot
+                .map(s -> s.getBalance().add(ledgerEntryRepository.sumSignedAmountsBetween(accountId, s.getSnapshotAt(), at)))
+                .orElseGet(() -> ledgerEntryRepository.sumSignedAmountsUntil(accountId, at));
+            response.balance(balance);
+            if (entryIsNewer) {
+                response.source("REPLAY").effectiveAt(entry.get().getCreatedAt());
+            } else if (snapshot.isPresent()) {
+                response.source("SNAPSHOT").effectiveAt(snapshot.get().getSnapshotAt());
+            } else {
+                response.source("NONE");
+            }
+        } else if (entryIsNewer) {
+            response.balance(entry.get().getBalanceAfter())
+                .source("LEDGER")
+                .effectiveAt(entry.get().getCreatedAt());
+        } else if (snapshot.isPresent()) {
+            response.balance(snapshot.get().getBalance())
+                .source("SNAPSHOT")
+                .effectiveAt(snapshot.get().getSnapshotAt());
+        } else {
+            response.balance(BigDecimal.ZERO)
+                .source("NONE");
+        }
+
+        BalanceAtResponse result = response.build();
+        log.info("Saldo de cuenta {} en {}: {} ({})", accountId, at, result.getBalance(), result.getSource());
+
+        return result;
+    }
+
+    /**
+     * Las cuentas particionadas exponen el saldo agregado, no solo la parte principal.
+     */
+    private AccountResponse toResponse(Account account) {
+        AccountResponse response = accountMapper.toResponse(account);
+        if (account.isSharded()) {
+            response.setBalance(balanceShardService.totalBalance(account));
+        }
+        return response;
+    }
 }
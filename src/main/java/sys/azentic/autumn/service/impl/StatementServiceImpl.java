@@ -0,0 +1,215 @@
+package sys.azentic.autumn.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sys.azentic.autumn.domain.enums.StatementFormat;
+import sys.azentic.autumn.service.StatementService;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementación del servicio de estados de cuenta.
+ *
+ * Patrón utilizado:
+ * - JdbcTemplate con fetchSize: PostgreSQL solo usa un cursor del lado del servidor
+ *   cuando la conexión NO está en autocommit, por eso la consulta corre dentro de
+ *   una transacción de solo lectura (TransactionTemplate).
+ * - Cada fila se escribe directamente al stream (JsonGenerator o Writer CSV),
+ *   sin construir listas ni entidades intermedias.
+ */
+@Service
+@Slf4j
+public class StatementServiceImpl implements StatementService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public StatementServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${autumn.statement.fetch-size:1000}") int fetchSize) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void writeStatement(UUID accountId, LocalDateTime from, LocalDateTime to,
+                               StatementFormat format, OutputStream out) throws IOException {
+        log.info("Exportando estado de cuenta {} ({}) desde {} hasta {}", accountId, format, from, to);
+
+        StringBuilder sql = new StringBuilder("""
+            SELECT l.id, l.transfer_id, l.type, l.amount, l.balance_after, l.description, l.created_at
+            FROM ledger_entries l
+            WHERE l.account_id = ?
+            """);
+        List<Object> params = new ArrayList<>();
+        params.add(accountId);
+        if (from != null) {
+            sql.append(" AND l.created_at >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND l.created_at < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        // El id desempata asientos con el mismo instante (ambas patas de un lote o neteo):
+        // cada exportación sale en el mismo orden
+        sql.append(" ORDER BY l.created_at, l.id");
+
+        RowWriter writer = format == StatementFormat.CSV
+            ? new CsvRowWriter(out)
+            : new NdjsonRowWriter(out);
+
+        writer.begin();
+        try {
+            long rows = readOnlyTransaction.execute(status -> {
+                long[] count = {0};
+                cursorJdbcTemplate.query(sql.toString(), rs -> {
+                    try {
+                        writer.write(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                }, params.toArray());
+                return count[0];
+            });
+            log.info("Estado de cuenta {} exportado: {} movimientos", accountId, rows);
+        } catch (UncheckedIOException e) {
+            // El cliente cerró la conexión: se aborta la consulta y se libera el cursor
+            log.warn("Exportación de estado de cuenta {} interrumpida: {}", accountId, e.getMessage());
+            throw e.getCause();
+        }
+        writer.end();
+    }
+
+    /**
+     * Escritor incremental de filas del libro mayor.
+     */
+    private interface RowWriter {
+
+        void begin() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void end() throws IOException;
+    }
+
+    /**
+     * Un objeto JSON por línea usando el generador de streaming de Jackson.
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            this.generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        }
+
+        @Override
+        public void begin() {
+            // NDJSON no tiene encabezado
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("entryId", rs.getString("id"));
+            generator.writeStringField("transferId", rs.getString("transfer_id"));
+            generator.writeStringField("type", rs.getString("type"));
+            generator.writeFieldName("amount");
+            generator.writeNumber(rs.getBigDecimal("amount"));
+            generator.writeFieldName("balanceAfter");
+            generator.writeNumber(rs.getBigDecimal("balance_after"));
+            generator.writeStringField("description", rs.getString("description"));
+            generator.writeStringField("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * CSV con encabezado; los campos de texto se escapan según RFC 4180.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write("entry_id,transfer_id,type,amount,balance_after,description,created_at\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(rs.getString("id"));
+            writer.write(',');
+            writer.write(rs.getString("transfer_id"));
+            writer.write(',');
+            writer.write(rs.getString("type"));
+            writer.write(',');
+            writer.write(rs.getBigDecimal("amount").toPlainString());
+            writer.write(',');
+            writer.write(rs.getBigDecimal("balance_after").toPlainString());
+            writer.write(',');
+            writer.write(escape(rs.getString("description")));
+            writer.write(',');
+            writer.write(rs.getTimestamp("created_at").toLocalDateTime().toString());
+            writer.write('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
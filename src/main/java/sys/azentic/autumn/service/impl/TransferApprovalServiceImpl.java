@@ -0,0 +1,244 @@
+package sys.azentic.autumn.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import sys.azentic.autumn.balance.BalanceHoldService;
+import sys.azentic.autumn.balance.BalanceHoldService.CapturedHold;
+import sys.azentic.autumn.concurrency.AccountLockOrder;
+import sys.azentic.autumn.concurrency.ConflictRetryExecutor;
+import sys.azentic.autumn.concurrency.LockHoldTimer;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.domain.enums.OutboxEventType;
+import sys.azentic.autumn.domain.enums.TransferStatus;
+import sys.azentic.autumn.dto.request.ApprovalDecisionRequest;
+import sys.azentic.autumn.dto.response.ApprovalDecisionResponse;
+import sys.azentic.autumn.dto.response.ApprovalQueueResponse;
+import sys.azentic.autumn.dto.response.TransferResponse;
+import sys.azentic.autumn.exception.DailyLimitExceededException;
+import sys.azentic.autumn.exception.InsufficientBalanceException;
+import sys.azentic.autumn.limits.DailyLimitGuard;
+import sys.azentic.autumn.mapper.TransferMapper;
+import sys.azentic.autumn.outbox.OutboxService;
+import sys.azentic.autumn.repository.AccountRepository;
+import sys.azentic.autumn.repository.TransferRepository;
+import sys.azentic.autumn.service.TransferApprovalService;
+import sys.azentic.autumn.transfer.TransferSettlement;
+
+/**
+ * Implementación del servicio de aprobación de transferencias.
+ * 
+ * Patrón utilizado:
+ * - Retención de fondos con UPDATE condicional: la transferencia queda estacionada
+ *   sin mantener locks mientras espera al revisor.
+ * - Cola sobre un índice parcial (created_at, id) con paginación por keyset.
+ * - Lotes en UNA transacción: transferencias y luego cuentas bloqueadas en el orden
+ *   de AccountLockOrder (el mismo que workers y capturas), y una sola captura o
+ *   liberación por cuenta aunque el lote tenga muchas transferencias de la misma cuenta.
+ * - Cada lote corre bajo ConflictRetryExecutor: un conflicto revierte y reintenta el
+ *   lote completo; las transferencias ya decididas no vuelven a estar pendientes.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class TransferApprovalServiceImpl implements TransferApprovalService {
+    
+    private static final String AGGREGATE_TYPE = "Transfer";
+    
+    private final TransferRepository transferRepository;
+    private final AccountRepository accountRepository;
+    private final TransferMapper transferMapper;
+    private final BalanceHoldService balanceHoldService;
+    private final DailyLimitGuard dailyLimitGuard;
+    private final OutboxService outboxService;
+    private final TransferSettlement transferSettlement;
+    private final LockHoldTimer lockHoldTimer;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final BigDecimal maxAmountWithoutApproval;
+    private final int maxPageSize;
+    
+    public TransferApprovalServiceImpl(
+            TransferRepository transferRepository,
+            AccountRepository accountRepository,
+            TransferMapper transferMapper,
+            BalanceHoldService balanceHoldService,
+            DailyLimitGuard dailyLimitGuard,
+            OutboxService outboxService,
+            TransferSettlement transferSettlement,
+            LockHoldTimer lockHoldTimer,
+            ConflictRetryExecutor conflictRetryExecutor,
+            TransactionTemplate transactionTemplate,
+            @Value("${autumn.transfer.max-amount-without-approval:10000.00}") BigDecimal maxAmountWithoutApproval,
+            @Value("${autumn.transfer.approval.max-page-size:500}") int maxPageSize) {
+        this.transferRepository = transferRepository;
+        this.accountRepository = accountRepository;
+        this.transferMapper = transferMapper;
+        this.balanceHoldService = balanceHoldService;
+        this.dailyLimitGuard = dailyLimitGuard;
+        this.outboxService = outboxService;
+        this.transferSettlement = transferSettlement;
+        this.lockHoldTimer = lockHoldTimer;
+        this.conflictRetryExecutor = conflictRetryExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAmountWithoutApproval = maxAmountWithoutApproval;
+        this.maxPageSize = maxPageSize;
+    }
+    
+    @Override
+    public boolean requiresApproval(BigDecimal amount) {
+        return amount.compareTo(maxAmountWithoutApproval) > 0;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transfer park(Transfer transfer, Account sourceAccount) {
+        transfer.setRequiresApproval(true);
+        transfer.setStatus(TransferStatus.PENDING);
+        Transfer parked = transferRepository.saveAndFlush(transfer);
+        
+        // La retención referencia la transferencia: se inserta después del flush
+        if (!balanceHoldService.authorize(sourceAccount, parked.getId(), parked.getAmount())) {
+            throw new InsufficientBalanceException(sourceAccount.getAccountNumber(),
+                parked.getAmount(), balanceHoldService.availableBalance(sourceAccount));
+        }
+        outboxService.append(AGGREGATE_TYPE, parked.getId(), OutboxEventType.TRANSFER_PENDING_APPROVAL,
+            transferMapper.toResponse(parked));
+        
+        log.info("Transferencia {} por {} en espera de aprobación (fondos retenidos)",
+            parked.getId(), parked.getAmount());
+        return parked;
+    }
+    
+    @Override
+    public ApprovalQueueResponse getQueue(LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        int pageSize = Math.clamp(limit, 1, maxPageSize);
+        List<UUID> ids = afterCreatedAt == null || afterId == null
+            ? transferRepository.findApprovalQueueIds(pageSize)
+            : transferRepository.findApprovalQueueIdsAfter(afterCreatedAt, afterId, pageSize);
+        
+        if (ids.isEmpty()) {
+            return ApprovalQueueResponse.builder().transfers(List.of()).build();
+        }
+        
+        List<Transfer> transfers = transferRepository.findAllWithAccountsByIdIn(ids);
+        ApprovalQueueResponse.ApprovalQueueResponseBuilder response = ApprovalQueueResponse.builder()
+            .transfers(transfers.stream().map(transferMapper::toResponse).toList());
+        
+        // Página completa: puede haber más; el cursor es el último elemento
+        if (ids.size() == pageSize) {
+            Transfer last = transfers.get(transfers.size() - 1);
+            response.nextCreatedAt(last.getCreatedAt()).nextId(last.getId());
+        }
+        return response.build();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ApprovalDecisionResponse approve(ApprovalDecisionRequest request) {
+        log.info("=== APROBANDO LOTE DE {} TRANSFERENCIAS === Revisor: {}",
+            request.getTransferIds().size(), request.getReviewerId());
+        return conflictRetryExecutor.execute("approval",
+            () -> transactionTemplate.execute(status -> approveBatch(request)));
+    }
+    
+    private ApprovalDecisionResponse approveBatch(ApprovalDecisionRequest request) {
+        List<Transfer> transfers = transferRepository.findPendingApprovalForUpdate(request.getTransferIds());
+        
+        // Todas las cuentas del lote en un único SELECT ... FOR UPDATE ordenado por ID
+        // (orden de AccountLockOrder): capturas y créditos posteriores no esperan locks en otro orden
+        Set<UUID> accountIds = new TreeSet<>(AccountLockOrder.COMPARATOR);
+        for (Transfer transfer : transfers) {
+            accountIds.add(transfer.getSourceAccount().getId());
+            accountIds.add(transfer.getDestinationAccount().getId());
+        }
+        if (!accountIds.isEmpty()) {
+            lockHoldTimer.start("approval");
+            accountRepository.findAllByIdInWithLock(accountIds);
+        }
+        
+        // Límite diario por transferencia: las que lo exceden se rechazan y liberan
+        List<Transfer> accepted = new ArrayList<>();
+        List<Transfer> limited = new ArrayList<>();
+        for (Transfer transfer : transfers) {
+            try {
+                dailyLimitGuard.reserve(transfer.getSourceAccount(), transfer.getAmount());
+                accepted.add(transfer);
+            } catch (DailyLimitExceededException e) {
+                log.warn("Transferencia {} rechazada al aprobar: {}", transfer.getId(), e.getMessage());
+                transferSettlement.reject(transfer, e.getMessage());
+                limited.add(transfer);
+            }
+        }
+        balanceHoldService.release(limited.stream().map(Transfer::getId).toList());
+        
+        // Una captura por cuenta origen para todo el lote, luego el crédito de cada destino
+        Map<UUID, Transfer> byId = accepted.stream()
+            .collect(Collectors.toMap(Transfer::getId, Function.identity()));
+        LocalDateTime approvedAt = LocalDateTime.now();
+        int approved = 0;
+        for (CapturedHold captured : balanceHoldService.capture(byId.keySet())) {
+            Transfer transfer = byId.get(captured.transferId());
+            transfer.setApprovedBy(request.getReviewerId());
+            transfer.setApprovedAt(approvedAt);
+            transferSettlement.settleCaptured(transfer, captured);
+            transferSettlement.storeIdempotencyAfterCommit(transfer.getIdempotencyKey(), transfer.getId());
+            approved++;
+        }
+        
+        log.info("=== LOTE APROBADO === Ejecutadas: {} - Rechazadas por límite: {}",
+            approved, transfers.size() - approved);
+        return toDecisionResponse(request, transfers);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ApprovalDecisionResponse reject(ApprovalDecisionRequest request) {
+        log.info("=== RECHAZANDO LOTE DE {} TRANSFERENCIAS === Revisor: {}",
+            request.getTransferIds().size(), request.getReviewerId());
+        return conflictRetryExecutor.execute("approval",
+            () -> transactionTemplate.execute(status -> rejectBatch(request)));
+    }
+    
+    private ApprovalDecisionResponse rejectBatch(ApprovalDecisionRequest request) {
+        List<Transfer> transfers = transferRepository.findPendingApprovalForUpdate(request.getTransferIds());
+        String error = "Rechazada por " + request.getReviewerId()
+            + (request.getReason() == null ? "" : ": " + request.getReason());
+        
+        // Una liberación por cuenta, en orden de locks: lotes concurrentes no se bloquean en orden inverso
+        balanceHoldService.release(transfers.stream().map(Transfer::getId).toList());
+        transfers.forEach(transfer -> transferSettlement.reject(transfer, error));
+        
+        log.info("=== LOTE RECHAZADO === Transferencias: {}", transfers.size());
+        return toDecisionResponse(request, transfers);
+    }
+    
+    private ApprovalDecisionResponse toDecisionResponse(ApprovalDecisionRequest request, List<Transfer> transfers) {
+        Set<UUID> decided = transfers.stream().map(Transfer::getId).collect(Collectors.toSet());
+        List<TransferResponse> responses = transfers.stream().map(transferMapper::toResponse).toList();
+        List<UUID> skipped = request.getTransferIds().stream()
+            .filter(id -> !decided.contains(id))
+            .distinct()
+            .toList();
+        return ApprovalDecisionResponse.builder()
+            .transfers(responses)
+            .skipped(skipped)
+            .build();
+    }
+}
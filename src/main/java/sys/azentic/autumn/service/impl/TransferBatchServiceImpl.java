@@ -0,0 +1,170 @@
+package sys.azentic.autumn.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import sys.azentic.autumn.concurrency.ConflictRetryExecutor;
+import sys.azentic.autumn.concurrency.LockHoldTimer;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.domain.enums.TransferStatus;
+import sys.azentic.autumn.dto.request.TransferBatchRequest;
+import sys.azentic.autumn.dto.request.TransferRequest;
+import sys.azentic.autumn.dto.response.TransferBatchResponse;
+import sys.azentic.autumn.exception.AccountNotFoundException;
+import sys.azentic.autumn.limits.DailyLimitGuard;
+import sys.azentic.autumn.mapper.TransferMapper;
+import sys.azentic.autumn.repository.AccountRepository;
+import sys.azentic.autumn.repository.TransferRepository;
+import sys.azentic.autumn.service.TransferApprovalService;
+import sys.azentic.autumn.service.TransferBatchService;
+import sys.azentic.autumn.transfer.TransferNetting;
+import sys.azentic.autumn.transfer.TransferNetting.NettedTransfer;
+import sys.azentic.autumn.transfer.TransferSettlement;
+
+/**
+ * Implementación del servicio de lotes de transferencias.
+ *
+ * Patrón utilizado:
+ * - Una transacción por lote (todas o ninguna), reintentada ante conflictos como
+ *   las transferencias individuales.
+ * - Cuentas y claves de idempotencia en una consulta cada una, no una por transferencia.
+ * - Netting (TransferNetting): una sentencia por cuenta con su posición neta; la
+ *   validación de saldo es contra el débito neto, no contra cada transferencia.
+ * - Límite diario por cuenta origen sobre el total bruto de sus débitos.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class TransferBatchServiceImpl implements TransferBatchService {
+
+    private final TransferRepository transferRepository;
+    private final AccountRepository accountRepository;
+    private final TransferMapper transferMapper;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferNetting transferNetting;
+    private final TransferSettlement transferSettlement;
+    private final TransferApprovalService transferApprovalService;
+    private final DailyLimitGuard dailyLimitGuard;
+    private final LockHoldTimer lockHoldTimer;
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransferBatchResponse createBatch(TransferBatchRequest request) {
+        List<TransferRequest> requests = request.getTransfers();
+        log.info("=== INICIANDO LOTE DE {} TRANSFERENCIAS ===", requests.size());
+
+        Set<UUID> keys = new HashSet<>();
+        for (TransferRequest transfer : requests) {
+            if (!keys.add(transfer.getIdempotencyKey())) {
+                throw new IllegalArgumentException("Clave de idempotencia repetida en el lote: " + transfer.getIdempotencyKey());
+            }
+            if (transfer.getSourceAccountNumber().equals(transfer.getDestinationAccountNumber())) {
+                throw new IllegalArgumentException("No puedes transferir a la misma cuenta: " + transfer.getIdempotencyKey());
+            }
+            if (transferApprovalService.requiresApproval(transfer.getAmount())) {
+                throw new IllegalArgumentException("Las transferencias que requieren aprobación no se aceptan en lote: "
+                    + transfer.getIdempotencyKey());
+            }
+        }
+
+        return conflictRetryExecutor.execute(requests.get(0).getSourceAccountNumber(),
+            () -> transactionTemplate.execute(status -> executeBatch(requests)));
+    }
+
+    /**
+     * Un intento del lote dentro de una transacción.
+     * Seguro ante reintentos: las transferencias ya registradas se omiten.
+     */
+    private TransferBatchResponse executeBatch(List<TransferRequest> requests) {
+        // PASO 1: Idempotencia del lote completo en una consulta
+        Map<UUID, Transfer> byKey = transferRepository.findByIdempotencyKeyIn(
+                requests.stream().map(TransferRequest::getIdempotencyKey).toList()).stream()
+            .collect(Collectors.toMap(Transfer::getIdempotencyKey, Function.identity()));
+        List<TransferRequest> pending = requests.stream()
+            .filter(transfer -> !byKey.containsKey(transfer.getIdempotencyKey()))
+            .toList();
+        if (pending.size() < requests.size()) {
+            log.warn("Lote con {} transferencias ya registradas", requests.size() - pending.size());
+        }
+
+        Map<String, BigDecimal> netPositions = new LinkedHashMap<>();
+        if (!pending.isEmpty()) {
+            // PASO 2: Cuentas del lote en una consulta
+            Set<String> accountNumbers = new HashSet<>();
+            pending.forEach(transfer -> {
+                accountNumbers.add(transfer.getSourceAccountNumber());
+                accountNumbers.add(transfer.getDestinationAccountNumber());
+            });
+            Map<String, Account> accounts = accountRepository.findByAccountNumberIn(accountNumbers).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+            for (String accountNumber : accountNumbers) {
+                if (!accounts.containsKey(accountNumber)) {
+                    throw new AccountNotFoundException(accountNumber);
+                }
+            }
+
+            // PASO 3: Transferencias y límite diario sobre el total bruto por cuenta origen
+            List<Transfer> transfers = new ArrayList<>(pending.size());
+            Map<Account, BigDecimal> grossDebits = new HashMap<>();
+            for (TransferRequest transfer : pending) {
+                Account source = accounts.get(transfer.getSourceAccountNumber());
+                transfers.add(Transfer.builder()
+                    .idempotencyKey(transfer.getIdempotencyKey())
+                    .sourceAccount(source)
+                    .destinationAccount(accounts.get(transfer.getDestinationAccountNumber()))
+                    .amount(transfer.getAmount())
+                    .status(TransferStatus.PENDING)
+                    .description(transfer.getDescription())
+                    .build());
+                grossDebits.merge(source, transfer.getAmount(), BigDecimal::add);
+            }
+            grossDebits.forEach(dailyLimitGuard::reserve);
+
+            // PASO 4: Una sentencia por cuenta con su posición neta, en orden de locks (AccountLockOrder)
+            Map<UUID, BigDecimal> positions = TransferNetting.netPositions(transfers);
+            Map<UUID, Account> accountsById = accounts.values().stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+            lockHoldTimer.start("netting");
+            Map<UUID, BigDecimal> opening = transferNetting.apply(positions, accountsById, UUID.randomUUID());
+            positions.forEach((accountId, net) -> netPositions.put(accountsById.get(accountId).getAccountNumber(), net));
+
+            // PASO 5: Cada transferencia con sus asientos, en un orden en que cada débito está cubierto
+            for (NettedTransfer netted : TransferNetting.settlementOrder(transfers, opening)) {
+                Transfer saved = transferSettlement.settleNetted(netted.transfer(),
+                    netted.sourceBalanceAfter(), netted.destinationBalanceAfter());
+                transferSettlement.storeIdempotencyAfterCommit(saved.getIdempotencyKey(), saved.getId());
+                byKey.put(saved.getIdempotencyKey(), saved);
+            }
+
+            log.info("=== LOTE COMPLETADO === Transferencias: {} - Cuentas actualizadas: {}",
+                transfers.size(), positions.size());
+        }
+
+        return TransferBatchResponse.builder()
+            .transfers(requests.stream()
+                .map(transfer -> transferMapper.toResponse(byKey.get(transfer.getIdempotencyKey())))
+                .toList())
+            .netPositions(netPositions)
+            .accountsUpdated(netPositions.size())
+            .build();
+    }
+}
@@ -1,26 +1,40 @@
 package sys.azentic.autumn.service.impl;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import sys.azentic.autumn.balance.BalanceHoldService;
+import sys.azentic.autumn.concurrency.AccountLockOrder;
+import sys.azentic.autumn.concurrency.AdaptiveLockingStrategy;
+import sys.azentic.autumn.concurrency.ConflictRetryExecutor;
+import sys.azentic.autumn.concurrency.LockHoldTimer;
+import sys.azentic.autumn.datasource.ReadFromPrimary;
 import sys.azentic.autumn.domain.entity.Account;
 import sys.azentic.autumn.domain.entity.Transfer;
 import sys.azentic.autumn.domain.enums.TransferStatus;
 import sys.azentic.autumn.dto.request.TransferRequest;
 import sys.azentic.autumn.dto.response.TransferResponse;
 import sys.azentic.autumn.exception.AccountNotFoundException;
+import sys.azentic.autumn.exception.DailyLimitExceededException;
 import sys.azentic.autumn.exception.InsufficientBalanceException;
 import sys.azentic.autumn.exception.TransferNotFoundException;
+import sys.azentic.autumn.limits.DailyLimitGuard;
 import sys.azentic.autumn.mapper.TransferMapper;
 import sys.azentic.autumn.repository.AccountRepository;
 import sys.azentic.autumn.repository.TransferRepository;
-import sys.azentic.autumn.service.IdempotencyService;
+import sys.azentic.autumn.service.TransferApprovalService;
 import sys.azentic.autumn.service.TransferService;
+import sys.azentic.autumn.transfer.TransferSettlement;
 
 /**
  * Implementación del servicio de transferencias bancarias.
@@ -41,10 +55,31 @@ public class TransferServiceImpl implements TransferService {
     private final TransferRepository transferRepository;
     private final AccountRepository accountRepository;
     private final TransferMapper transferMapper;
-    private final IdempotencyService idempotencyService;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceHoldService balanceHoldService;
+    private final DailyLimitGuard dailyLimitGuard;
+    private final TransferSettlement transferSettlement;
+    private final TransferApprovalService transferApprovalService;
+    private final LockHoldTimer lockHoldTimer;
+    private final AdaptiveLockingStrategy adaptiveLockingStrategy;
+    private final EntityManager entityManager;
     
+    /**
+     * Dos transacciones cortas en lugar de una larga (ver BalanceHoldService):
+     * - FASE 1 (autorizar): validaciones, idempotencia, límite diario y un UPDATE
+     *   condicional que retiene los fondos. El lock sobre la cuenta origen dura solo
+     *   desde esa sentencia hasta el commit; si la cuenta está caliente
+     *   (AdaptiveLockingStrategy) se bloquea desde el inicio de la fase.
+     * - FASE 2 (capturar): débito de lo retenido y crédito al destino, sin validaciones.
+     * 
+     * Sin transacción propia: cada intento del retrier abre una nueva, de modo que un
+     * conflicto revierte solo ese intento. Si la FASE 2 no llega a confirmar, la
+     * transferencia queda PROCESSING con su retención y el reaper de la cola la
+     * devuelve a los workers, que completan la captura.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransferResponse createTransfer(TransferRequest request) {
         log.info("=== INICIANDO CREACIÓN DE TRANSFERENCIA ===");
         log.info("IdempotencyKey: {}", request.getIdempotencyKey());
@@ -53,11 +88,29 @@ public class TransferServiceImpl implements TransferService {
             request.getDestinationAccountNumber(),
             request.getAmount());
         
+        Authorization authorization = conflictRetryExecutor.execute(request.getSourceAccountNumber(),
+            () -> transactionTemplate.execute(status -> authorize(request)));
+        if (!authorization.captureRequired()) {
+            return authorization.response();
+        }
+        
+        return conflictRetryExecutor.execute(request.getSourceAccountNumber(),
+            () -> transactionTemplate.execute(status -> capture(authorization.transferId())));
+    }
+    
+    /**
+     * FASE 1: retiene los fondos de la transferencia.
+     * Seguro ante reintentos: el PASO 1 detecta si un intento previo ya confirmó.
+     */
+    private Authorization authorize(TransferRequest request) {
         // PASO 1: Verificar idempotencia - Si ya existe, retornar la transferencia previa
+        // (si quedó autorizada sin capturar, la FASE 2 la completa)
         var existingTransfer = transferRepository.findByIdempotencyKey(request.getIdempotencyKey());
         if (existingTransfer.isPresent()) {
             log.warn("Transferencia duplicada detectada. IdempotencyKey: {}", request.getIdempotencyKey());
-            return transferMapper.toResponse(existingTransfer.get());
+            Transfer existing = existingTransfer.get();
+            return new Authorization(transferMapper.toResponse(existing),
+                existing.getStatus() == TransferStatus.PROCESSING, existing.getId());
         }
         
         // PASO 2: Obtener cuenta origen
@@ -82,17 +135,30 @@ public class TransferServiceImpl implements TransferService {
             throw new IllegalArgumentException("No puedes transferir a la misma cuenta");
         }
         
-        // PASO 5: Validar saldo suficiente
+        // PASO 4.1: Cuenta origen caliente - se bloquea ya y se valida con su saldo actual;
+        // las frías se bloquean recién en la retención del PASO 8
+        boolean lockedUpfront = adaptiveLockingStrategy.shouldLock(sourceAccount.getId());
+        if (lockedUpfront) {
+            log.debug("Cuenta origen con alta contención, bloqueando desde el inicio de la autorización");
+            lockHoldTimer.start("authorize-locked");
+            long waitStart = System.nanoTime();
+            entityManager.refresh(sourceAccount, LockModeType.PESSIMISTIC_WRITE);
+            adaptiveLockingStrategy.recordLockWait(sourceAccount.getId(), System.nanoTime() - waitStart);
+        }
+        
+        // PASO 5: Validar saldo disponible (sub-saldos incluidos, fondos retenidos excluidos)
+        // Sin lock (cuenta fría) para fallar rápido; la garantía la da la retención del PASO 8
+        BigDecimal availableBalance = balanceHoldService.availableBalance(sourceAccount);
         log.debug("Validando saldo. Saldo actual: {} - Monto a transferir: {}", 
-            sourceAccount.getBalance(), request.getAmount());
+            availableBalance, request.getAmount());
             
-        if (sourceAccount.getBalance().compareTo(request.getAmount()) < 0) {
+        if (availableBalance.compareTo(request.getAmount()) < 0) {
             log.error("Fondos insuficientes. Saldo: {} - Requerido: {}", 
-                sourceAccount.getBalance(), request.getAmount());
+                availableBalance, request.getAmount());
             throw new InsufficientBalanceException(
                 sourceAccount.getAccountNumber(), 
                 request.getAmount(), 
-                sourceAccount.getBalance()
+                availableBalance
             );
         }
         
@@ -107,23 +173,60 @@ public class TransferServiceImpl implements TransferService {
             .description(request.getDescription())
             .build();
         
-        // PASO 7: Actualizar saldos (Contabilidad de Doble Entrada)
-        log.info("Actualizando saldos...");
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(request.getAmount()));
-        destinationAccount.setBalance(destinationAccount.getBalance().add(request.getAmount()));
+        // PASO 6.1: Monto sobre el umbral - retener fondos y esperar aprobación
+        if (transferApprovalService.requiresApproval(request.getAmount())) {
+            Transfer parked = transferApprovalService.park(transfer, sourceAccount);
+            transferSettlement.storeIdempotencyAfterCommit(request.getIdempotencyKey(), parked.getId());
+            return new Authorization(transferMapper.toResponse(parked), false, parked.getId());
+        }
+        
+        // PASO 6.2: Reservar cupo del límite diario (se devuelve si la transacción se revierte)
+        dailyLimitGuard.reserve(sourceAccount, request.getAmount());
+        
+        // PASO 7: Registrar la transferencia reclamada por este nodo (la retención la referencia)
+        transferSettlement.claim(transfer);
+        Transfer savedTransfer = transferRepository.saveAndFlush(transfer);
         
-        // PASO 8: Cambiar estado a COMPLETED
-        transfer.setStatus(TransferStatus.COMPLETED);
+        // PASO 8: Retener fondos - última sentencia de la fase: el lock dura hasta el commit
+        boolean authorized;
+        if (lockedUpfront) {
+            authorized = balanceHoldService.authorize(sourceAccount, savedTransfer.getId(), request.getAmount());
+        } else {
+            lockHoldTimer.start("authorize");
+            long waitStart = System.nanoTime();
+            authorized = balanceHoldService.authorize(sourceAccount, savedTransfer.getId(), request.getAmount());
+            adaptiveLockingStrategy.recordLockWait(sourceAccount.getId(), System.nanoTime() - waitStart);
+        }
+        if (!authorized) {
+            // Otra transferencia consumió el disponible entre el PASO 5 y la retención
+            adaptiveLockingStrategy.recordConflict(sourceAccount.getId());
+            BigDecimal currentAvailable = balanceHoldService.availableBalance(sourceAccount);
+            log.error("Fondos insuficientes al retener. Requerido: {}", request.getAmount());
+            throw new InsufficientBalanceException(
+                sourceAccount.getAccountNumber(), request.getAmount(), currentAvailable);
+        }
+        
+        // PASO 9: Guardar en caché de idempotencia (24 horas), solo si la transacción confirma
+        transferSettlement.storeIdempotencyAfterCommit(request.getIdempotencyKey(), savedTransfer.getId());
+        
+        log.info("Transferencia {} autorizada (fondos retenidos)", savedTransfer.getId());
+        return new Authorization(null, true, savedTransfer.getId());
+    }
+    
+    /**
+     * FASE 2: captura la retención, acredita el destino y registra el libro mayor.
+     */
+    private TransferResponse capture(UUID transferId) {
+        Transfer transfer = transferRepository.findByIdWithLock(transferId)
+            .orElseThrow(() -> new TransferNotFoundException(transferId));
         
-        // PASO 9: Guardar transferencia y cuentas
-        log.info("Guardando cambios en base de datos...");
-        Transfer savedTransfer = transferRepository.save(transfer);
-        accountRepository.save(sourceAccount);
-        accountRepository.save(destinationAccount);
+        // Un intento previo, o un worker tras el reaper, ya la completó
+        if (transfer.isFinalState() || !balanceHoldService.isHeld(transferId)) {
+            return transferMapper.toResponse(transfer);
+        }
         
-        // PASO 10: Guardar en caché de idempotencia (24 horas)
-        log.info("Guardando en caché de idempotencia...");
-        idempotencyService.store(request.getIdempotencyKey(), savedTransfer.getId());
+        // PASOS 10-12: Débito de lo retenido, crédito, libro mayor y eventos
+        Transfer savedTransfer = transferSettlement.settleHeld(transfer);
         
         log.info("=== TRANSFERENCIA COMPLETADA ===");
         log.info("Transferencia ID: {} - Estado: {}", savedTransfer.getId(), savedTransfer.getStatus());
@@ -132,6 +235,122 @@ public class TransferServiceImpl implements TransferService {
     }
     
     @Override
+    @Transactional
+    public TransferResponse submitTransfer(TransferRequest request) {
+        log.info("Solicitud de transferencia asíncrona. IdempotencyKey: {}", request.getIdempotencyKey());
+        
+        // Reintento del cliente: se retorna la transferencia ya registrada (en cualquier estado)
+        var existingTransfer = transferRepository.findByIdempotencyKey(request.getIdempotencyKey());
+        if (existingTransfer.isPresent()) {
+            log.warn("Transferencia duplicada detectada. IdempotencyKey: {}", request.getIdempotencyKey());
+            return transferMapper.toResponse(existingTransfer.get());
+        }
+        
+        // Validaciones que no dependen de saldos: sin locks en el camino del request
+        Account sourceAccount = accountRepository.findByAccountNumber(request.getSourceAccountNumber())
+            .orElseThrow(() -> new AccountNotFoundException(request.getSourceAccountNumber()));
+        Account destinationAccount = accountRepository.findByAccountNumber(request.getDestinationAccountNumber())
+            .orElseThrow(() -> new AccountNotFoundException(request.getDestinationAccountNumber()));
+        
+        if (sourceAccount.getId().equals(destinationAccount.getId())) {
+            throw new IllegalArgumentException("No puedes transferir a la misma cuenta");
+        }
+        
+        Transfer transfer = Transfer.builder()
+            .idempotencyKey(request.getIdempotencyKey())
+            .sourceAccount(sourceAccount)
+            .destinationAccount(destinationAccount)
+            .amount(request.getAmount())
+            .status(TransferStatus.PENDING)
+            .description(request.getDescription())
+            .build();
+        
+        // Sobre el umbral: la retención es un solo UPDATE condicional, sin bloquear la cuenta
+        if (transferApprovalService.requiresApproval(request.getAmount())) {
+            return transferMapper.toResponse(transferApprovalService.park(transfer, sourceAccount));
+        }
+        transfer = transferRepository.save(transfer);
+        
+        // El trigger de la tabla notifica a los workers al confirmar (ver TransferQueueWorkers)
+        log.info("Transferencia {} registrada como PENDING", transfer.getId());
+        return transferMapper.toResponse(transfer);
+    }
+    
+    @Override
+    @Transactional
+    public void processTransfer(UUID transferId) {
+        // El lock sobre la transferencia evita que dos workers la procesen a la vez
+        Transfer transfer = transferRepository.findByIdWithLock(transferId)
+            .orElseThrow(() -> new TransferNotFoundException(transferId));
+        
+        // PENDING o PROCESSING (reclamada por un worker): cualquier estado final ya fue procesado
+        if (transfer.isFinalState()) {
+            log.debug("Transferencia {} ya procesada ({}), se omite", transferId, transfer.getStatus());
+            return;
+        }
+        // Las que esperan aprobación se ejecutan desde TransferApprovalService
+        if (Boolean.TRUE.equals(transfer.getRequiresApproval())) {
+            log.debug("Transferencia {} en espera de aprobación, se omite", transferId);
+            return;
+        }
+        
+        // Autorizada en el camino síncrono sin llegar a capturarse (FASE 2 interrumpida):
+        // fondos y cupo diario ya están reservados, solo falta capturar
+        if (balanceHoldService.isHeld(transferId)) {
+            transferSettlement.settleHeld(transfer);
+            log.info("Transferencia {} retenida completada por la cola", transferId);
+            return;
+        }
+        transfer.startProcessing();
+        
+        // Locks de cuentas siempre en el mismo orden (AccountLockOrder) para evitar deadlocks entre workers
+        UUID sourceId = transfer.getSourceAccount().getId();
+        UUID destinationId = transfer.getDestinationAccount().getId();
+        Account sourceAccount;
+        Account destinationAccount;
+        lockHoldTimer.start("queue");
+        if (transfer.getDestinationAccount().isSharded()) {
+            // El crédito va a un sub-saldo: solo se bloquea el origen
+            sourceAccount = lockAccount(sourceId);
+            destinationAccount = accountRepository.findById(destinationId)
+                .orElseThrow(() -> new AccountNotFoundException(destinationId));
+        } else {
+            boolean sourceFirst = AccountLockOrder.before(sourceId, destinationId);
+            Account first = lockAccount(sourceFirst ? sourceId : destinationId);
+            Account second = lockAccount(sourceFirst ? destinationId : sourceId);
+            sourceAccount = sourceFirst ? first : second;
+            destinationAccount = sourceFirst ? second : first;
+        }
+        
+        // Un rechazo de negocio es un resultado final: se persiste FAILED en lugar de revertir
+        BigDecimal availableBalance = balanceHoldService.availableBalance(sourceAccount);
+        if (availableBalance.compareTo(transfer.getAmount()) < 0) {
+            String error = new InsufficientBalanceException(
+                sourceAccount.getAccountNumber(), transfer.getAmount(), availableBalance).getMessage();
+            log.warn("Transferencia {} rechazada: {}", transferId, error);
+            transferSettlement.reject(transfer, error);
+            return;
+        }
+        try {
+            dailyLimitGuard.reserve(sourceAccount, transfer.getAmount());
+        } catch (DailyLimitExceededException e) {
+            log.warn("Transferencia {} rechazada: {}", transferId, e.getMessage());
+            transferSettlement.reject(transfer, e.getMessage());
+            return;
+        }
+        
+        transferSettlement.settle(transfer, sourceAccount, destinationAccount);
+        transferSettlement.storeIdempotencyAfterCommit(transfer.getIdempotencyKey(), transfer.getId());
+        
+        log.info("Transferencia asíncrona {} completada", transferId);
+    }
+    
+    /**
+     * Lee del primario: los clientes consultan la transferencia justo después de
+     * crearla (o al reintentar con la misma clave) y la réplica podría no tenerla aún.
+     */
+    @Override
+    @ReadFromPrimary
     public TransferResponse getTransferById(UUID transferId) {
         log.debug("Consultando transferencia por ID: {}", transferId);
         
@@ -159,4 +378,15 @@ public class TransferServiceImpl implements TransferService {
             .map(transferMapper::toResponse)
             .toList();
     }
+    
+    private Account lockAccount(UUID accountId) {
+        return accountRepository.findByIdWithLock(accountId)
+            .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+    
+    /**
+     * Resultado de la FASE 1: respuesta final, o la transferencia cuya retención falta capturar.
+     */
+    private record Authorization(TransferResponse response, boolean captureRequired, UUID transferId) {
+    }
 }
@@ -0,0 +1,34 @@
+package sys.azentic.autumn.streaming;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento enviado a los suscriptores SSE de una cuenta.
+ *
+ * @param type      "balance" (saldo actual) o "transfer" (transferencia completada)
+ * @param direction DEBIT o CREDIT para eventos "transfer"; null para "balance"
+ */
+public record AccountEvent(
+    UUID accountId,
+    String type,
+    BigDecimal balance,
+    UUID transferId,
+    String direction,
+    BigDecimal amount,
+    LocalDateTime occurredAt
+) {
+
+    public static final String BALANCE = "balance";
+    public static final String TRANSFER = "transfer";
+
+    public static AccountEvent balance(UUID accountId, BigDecimal balance, LocalDateTime occurredAt) {
+        return new AccountEvent(accountId, BALANCE, balance, null, null, null, occurredAt);
+    }
+
+    public static AccountEvent transfer(UUID accountId, BigDecimal balance, UUID transferId,
+                                        String direction, BigDecimal amount, LocalDateTime occurredAt) {
+        return new AccountEvent(accountId, TRANSFER, balance, transferId, direction, amount, occurredAt);
+    }
+}
@@ -0,0 +1,138 @@
+package sys.azentic.autumn.streaming;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sys.azentic.autumn.exception.SubscriptionLimitExceededException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro local de suscripciones SSE por cuenta.
+ *
+ * - Cupos: máximo global por nodo y máximo por cuenta (503 al excederlos)
+ * - Cada suscripción envía desde su propio hilo virtual: una conexión inactiva
+ *   solo ocupa un hilo virtual bloqueado en su cola, no un hilo de plataforma
+ * - dispatch nunca bloquea: un suscriptor con la cola llena se desconecta
+ */
+@Component
+@Slf4j
+public class AccountEventBroker {
+
+    private final Map<UUID, Set<AccountSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("sse-sender-", 0).factory());
+
+    private final int maxConnections;
+    private final int maxConnectionsPerAccount;
+    private final int queueCapacity;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Counter slowConsumerCounter;
+
+    public AccountEventBroker(
+            MeterRegistry meterRegistry,
+            @Value("${autumn.sse.max-connections:10000}") int maxConnections,
+            @Value("${autumn.sse.max-connections-per-account:5}") int maxConnectionsPerAccount,
+            @Value("${autumn.sse.queue-capacity:32}") int queueCapacity,
+            @Value("${autumn.sse.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${autumn.sse.timeout-minutes:30}") long timeoutMinutes) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerAccount = maxConnectionsPerAccount;
+        this.queueCapacity = queueCapacity;
+        this.heartbeat = Duration.ofSeconds(heartbeatSeconds);
+        this.timeout = Duration.ofMinutes(timeoutMinutes);
+
+        Gauge.builder("autumn.sse.connections", connections, AtomicInteger::get)
+            .description("Conexiones SSE abiertas en este nodo")
+            .register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("autumn.sse.slow-consumers")
+            .description("Suscripciones cerradas por no consumir eventos a tiempo")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Abre una suscripción para la cuenta y le envía el estado inicial.
+     *
+     * @throws SubscriptionLimitExceededException si se alcanzó algún cupo
+     */
+    public SseEmitter subscribe(UUID accountId, AccountEvent initialEvent) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new SubscriptionLimitExceededException(
+                "Se alcanzó el máximo de conexiones de eventos (" + maxConnections + ")");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AccountSubscription subscription = new AccountSubscription(accountId, emitter, queueCapacity, this::release);
+
+        boolean[] accepted = {false};
+        subscriptions.compute(accountId, (id, current) -> {
+            Set<AccountSubscription> set = current == null ? ConcurrentHashMap.newKeySet() : current;
+            if (set.size() < maxConnectionsPerAccount) {
+                set.add(subscription);
+                accepted[0] = true;
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!accepted[0]) {
+            connections.decrementAndGet();
+            throw new SubscriptionLimitExceededException(
+                "Se alcanzó el máximo de conexiones de eventos para la cuenta " + accountId);
+        }
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        subscription.offer(initialEvent);
+        senders.execute(() -> subscription.drain(heartbeat));
+
+        log.debug("Suscripción SSE abierta para cuenta {} ({} conexiones)", accountId, connections.get());
+        return emitter;
+    }
+
+    /**
+     * Entrega un evento a los suscriptores locales de su cuenta.
+     */
+    public void dispatch(AccountEvent event) {
+        Set<AccountSubscription> set = subscriptions.get(event.accountId());
+        if (set == null) {
+            return;
+        }
+        for (AccountSubscription subscription : set) {
+            if (!subscription.offer(event)) {
+                slowConsumerCounter.increment();
+                log.info("Suscriptor SSE lento en cuenta {}, se desconecta", event.accountId());
+                subscription.close();
+            }
+        }
+    }
+
+    private void release(AccountSubscription subscription) {
+        subscriptions.computeIfPresent(subscription.getAccountId(), (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+        connections.decrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(set -> set.forEach(AccountSubscription::close));
+        senders.shutdownNow();
+    }
+}
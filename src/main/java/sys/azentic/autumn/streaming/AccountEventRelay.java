@@ -0,0 +1,75 @@
+package sys.azentic.autumn.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sys.azentic.autumn.transfer.TransferSettledEvent;
+
+import java.util.List;
+
+/**
+ * Distribuye los eventos de cuenta a todos los nodos vía Redis pub/sub.
+ *
+ * 1. Tras el commit de una transferencia se publican dos eventos (origen y destino)
+ *    en el canal autumn:account-events
+ * 2. Cada nodo (incluido el emisor) los recibe y los entrega a sus suscriptores locales
+ *
+ * Pub/sub no garantiza entrega: es aceptable porque cada evento trae el saldo
+ * completo y un cliente que reconecta recibe el saldo actual.
+ */
+@Component
+@Slf4j
+public class AccountEventRelay implements MessageListener {
+
+    static final String CHANNEL = "autumn:account-events";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AccountEventBroker broker;
+
+    public AccountEventRelay(
+            RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            ObjectMapper objectMapper,
+            AccountEventBroker broker) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.broker = broker;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferSettled(TransferSettledEvent event) {
+        List<AccountEvent> events = List.of(
+            AccountEvent.transfer(event.sourceAccountId(), event.sourceBalance(), event.transferId(),
+                "DEBIT", event.amount(), event.completedAt()),
+            AccountEvent.transfer(event.destinationAccountId(), event.destinationBalance(), event.transferId(),
+                "CREDIT", event.amount(), event.completedAt()));
+
+        for (AccountEvent accountEvent : events) {
+            try {
+                redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(accountEvent));
+            } catch (Exception e) {
+                // Sin Redis al menos los suscriptores de este nodo reciben el evento
+                log.warn("No se pudo publicar evento de cuenta en Redis: {}", e.getMessage());
+                broker.dispatch(accountEvent);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            broker.dispatch(objectMapper.readValue(message.getBody(), AccountEvent.class));
+        } catch (Exception e) {
+            log.error("Evento de cuenta inválido recibido de Redis: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package sys.azentic.autumn.streaming;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Conexión SSE de un cliente con su propia cola acotada.
+ *
+ * Backpressure: los eventos se encolan sin bloquear al productor. Un hilo virtual
+ * por suscripción los envía; si el cliente lee lento el envío se bloquea (TCP),
+ * la cola se llena y la suscripción se cierra. El cliente reconecta y recibe el
+ * saldo actual, así que no se pierde estado, solo eventos intermedios.
+ */
+@Slf4j
+class AccountSubscription {
+
+    @Getter
+    private final UUID accountId;
+    @Getter
+    private final SseEmitter emitter;
+    private final BlockingQueue<AccountEvent> queue;
+    private final Consumer<AccountSubscription> onClosed;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+    private long sequence;
+
+    AccountSubscription(UUID accountId, SseEmitter emitter, int queueCapacity, Consumer<AccountSubscription> onClosed) {
+        this.accountId = accountId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.onClosed = onClosed;
+    }
+
+    /**
+     * @return false si la cola está llena (consumidor lento)
+     */
+    boolean offer(AccountEvent event) {
+        return open.get() && queue.offer(event);
+    }
+
+    /**
+     * Envía eventos hasta que la suscripción se cierre; sin eventos envía heartbeats
+     * para detectar clientes desconectados y mantener vivos los proxies.
+     */
+    void drain(Duration heartbeat) {
+        try {
+            while (open.get()) {
+                AccountEvent event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (!open.get()) {
+                    return;
+                }
+                if (event == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                        .id(Long.toString(++sequence))
+                        .name(event.type())
+                        .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Suscripción SSE de cuenta {} desconectada: {}", accountId, e.getMessage());
+            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        }
+    }
+
+    /**
+     * Cierra la suscripción; idempotente (la llaman el hilo de envío, el productor
+     * y los callbacks del emitter). Solo la primera llamada libera el cupo.
+     */
+    void close() {
+        if (!open.compareAndSet(true, false)) {
+            return;
+        }
+        queue.clear();
+        onClosed.accept(this);
+        try {
+            emitter.complete();
+        } catch (Exception e) {
+            // La respuesta ya estaba cerrada
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package sys.azentic.autumn.transfer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sys.azentic.autumn.balance.BalanceHoldService;
+import sys.azentic.autumn.balance.BalanceShardService;
+import sys.azentic.autumn.concurrency.AccountLockOrder;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.exception.InsufficientBalanceException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Compensación (netting) de lotes de transferencias entre un conjunto de cuentas.
+ *
+ * En lugar de un débito y un crédito por transferencia, cada cuenta recibe UNA
+ * sentencia con su posición neta (créditos - débitos del lote), en orden de locks:
+ * las escrituras sobre accounts pasan de O(transferencias) a O(cuentas) y los
+ * locks se toman en el mismo orden que los workers.
+ *
+ * Cada transferencia sigue teniendo su fila y sus dos asientos. El balance_after
+ * de cada asiento se reconstruye a partir del saldo previo al lote, recorriendo
+ * las transferencias en un orden en el que cada débito está cubierto (el libro
+ * mayor no admite saldos intermedios negativos).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferNetting {
+
+    /**
+     * Valida y aplica la posición neta en la misma sentencia (disponible = saldo - retenido).
+     * Retorna el saldo total resultante (sub-saldos incluidos).
+     */
+    private static final String APPLY_NET_SQL = """
+        UPDATE accounts a
+        SET balance = a.balance + ?, version = a.version + 1, updated_at = now()
+        WHERE a.id = ? AND a.balance + ? - a.held_balance >= 0
+        RETURNING a.balance
+            + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceShardService balanceShardService;
+    private final BalanceHoldService balanceHoldService;
+
+    /**
+     * Transferencia del lote con los saldos resultantes en el orden de liquidación.
+     */
+    public record NettedTransfer(Transfer transfer, BigDecimal sourceBalanceAfter, BigDecimal destinationBalanceAfter) {
+    }
+
+    /**
+     * Posición neta de cada cuenta del lote (créditos - débitos), en el orden de AccountLockOrder.
+     */
+    public static Map<UUID, BigDecimal> netPositions(List<Transfer> transfers) {
+        Map<UUID, BigDecimal> positions = new TreeMap<>(AccountLockOrder.COMPARATOR);
+        for (Transfer transfer : transfers) {
+            positions.merge(transfer.getSourceAccount().getId(), transfer.getAmount().negate(), BigDecimal::add);
+            positions.merge(transfer.getDestinationAccount().getId(), transfer.getAmount(), BigDecimal::add);
+        }
+        return positions;
+    }
+
+    /**
+     * Aplica las posiciones netas, una sentencia por cuenta en orden de locks. Las cuentas
+     * con posición 0 también se actualizan: la sentencia las bloquea y lee su saldo.
+     *
+     * @return saldo total de cada cuenta antes del lote
+     * @throws InsufficientBalanceException si el disponible no cubre un débito neto
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<UUID, BigDecimal> apply(Map<UUID, BigDecimal> positions, Map<UUID, Account> accounts, UUID spreadKey) {
+        Map<UUID, BigDecimal> opening = new HashMap<>();
+        positions.forEach((accountId, net) -> {
+            Account account = accounts.get(accountId);
+            BigDecimal balanceAfter;
+            if (account.isSharded() && net.signum() > 0) {
+                // Crédito neto a una cuenta particionada: a un sub-saldo, sin tocar la fila principal
+                balanceAfter = balanceShardService.creditAccount(accountId, spreadKey, net);
+            } else {
+                if (account.isSharded()) {
+                    balanceShardService.consolidate(accountId);
+                }
+                List<BigDecimal> result = jdbcTemplate.queryForList(APPLY_NET_SQL, BigDecimal.class, net, accountId, net);
+                if (result.isEmpty()) {
+                    throw new InsufficientBalanceException(account.getAccountNumber(), net.negate(),
+                        balanceHoldService.availableBalance(account));
+                }
+                balanceAfter = result.get(0);
+            }
+            opening.put(accountId, balanceAfter.subtract(net));
+        });
+        return opening;
+    }
+
+    /**
+     * Ordena el lote para que cada débito esté cubierto por el saldo acumulado de su
+     * cuenta y calcula los saldos resultantes de cada asiento.
+     *
+     * Un lote puede ser válido por posición neta y no tener orden secuencial posible
+     * (p. ej. un ciclo A→B→A sin fondos previos): se rechaza, porque sus asientos
+     * tendrían saldos intermedios negativos.
+     *
+     * @param opening saldo de cada cuenta antes del lote
+     */
+    public static List<NettedTransfer> settlementOrder(List<Transfer> transfers, Map<UUID, BigDecimal> opening) {
+        Map<UUID, BigDecimal> running = new HashMap<>(opening);
+        LinkedList<Transfer> pending = new LinkedList<>(transfers);
+        List<NettedTransfer> ordered = new ArrayList<>(transfers.size());
+
+        // Pasadas sobre las pendientes: cada una liquida las que ya están cubiertas
+        while (!pending.isEmpty()) {
+            boolean progress = false;
+            var iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                Transfer transfer = iterator.next();
+                UUID sourceId = transfer.getSourceAccount().getId();
+                UUID destinationId = transfer.getDestinationAccount().getId();
+                BigDecimal sourceBalance = running.get(sourceId);
+                if (sourceBalance.compareTo(transfer.getAmount()) < 0) {
+                    continue;
+                }
+                BigDecimal sourceAfter = sourceBalance.subtract(transfer.getAmount());
+                BigDecimal destinationAfter = running.get(destinationId).add(transfer.getAmount());
+                running.put(sourceId, sourceAfter);
+                running.put(destinationId, destinationAfter);
+                ordered.add(new NettedTransfer(transfer, sourceAfter, destinationAfter));
+                iterator.remove();
+                progress = true;
+            }
+            if (!progress) {
+                Transfer blocked = pending.getFirst();
+                throw new InsufficientBalanceException(blocked.getSourceAccount().getAccountNumber(),
+                    blocked.getAmount(), running.get(blocked.getSourceAccount().getId()));
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,75 @@
+package sys.azentic.autumn.transfer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Escucha el canal transfer_queue (LISTEN/NOTIFY) y despierta a los workers.
+ *
+ * Usa una conexión dedicada fuera del pool: LISTEN queda ligado a la sesión y la
+ * conexión permanece abierta mientras la aplicación corre. Si la conexión se cae
+ * se reconecta; mientras tanto los workers siguen con su polling de respaldo.
+ */
+@Slf4j
+class TransferQueueNotificationListener implements Runnable {
+
+    static final String CHANNEL = "transfer_queue";
+
+    private static final int WAIT_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Runnable onNotification;
+
+    private volatile boolean running = true;
+
+    TransferQueueNotificationListener(String url, String username, String password, Runnable onNotification) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.onNotification = onNotification;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Escuchando notificaciones de la cola de transferencias ({})", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(WAIT_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        onNotification.run();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexión LISTEN perdida, reintentando en {} ms: {}", RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+}
@@ -0,0 +1,230 @@
+package sys.azentic.autumn.transfer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sys.azentic.autumn.service.TransferService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Motor de workers que consume la tabla transfers como cola de trabajo.
+ *
+ * Varios nodos pueden correr este motor a la vez sin coordinación externa:
+ * - Claim: UPDATE ... WHERE id IN (SELECT ... FOR UPDATE SKIP LOCKED) marca un lote
+ *   como PROCESSING a nombre de este nodo. Filas bloqueadas por otro nodo se saltan
+ *   en lugar de esperar, así que cada transferencia la reclama un solo worker.
+ * - Cada transferencia reclamada se procesa en su propia transacción (processTransfer).
+ * - Lease: un claim más antiguo que lease-seconds (nodo caído) vuelve a PENDING.
+ *
+ * Cuando la cola está vacía los workers esperan con backoff exponencial hasta
+ * max-poll-interval; una notificación LISTEN/NOTIFY los despierta de inmediato.
+ */
+@Component
+@ConditionalOnProperty(name = "autumn.transfer.queue.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TransferQueueWorkers implements SmartLifecycle {
+
+    private static final String CLAIM_SQL = """
+        UPDATE transfers t
+        SET status = 'PROCESSING', claimed_by = ?, claimed_at = ?
+        WHERE t.id IN (
+            SELECT q.id FROM transfers q
+            WHERE q.status = 'PENDING' AND NOT q.requires_approval
+            ORDER BY q.created_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING t.id, t.created_at
+        """;
+
+    private static final String RELEASE_SQL = """
+        UPDATE transfers SET status = 'PENDING', claimed_by = NULL, claimed_at = NULL
+        WHERE id = ? AND status = 'PROCESSING'
+        """;
+
+    private static final String REAP_SQL = """
+        UPDATE transfers SET status = 'PENDING', claimed_by = NULL, claimed_at = NULL
+        WHERE status = 'PROCESSING' AND claimed_at < ?
+        """;
+
+    private static final String DEPTH_SQL =
+        "SELECT COUNT(*) FROM transfers WHERE status = 'PENDING' AND NOT requires_approval";
+
+    private final TransferService transferService;
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration minPollInterval;
+    private final Duration maxPollInterval;
+    private final Duration lease;
+    private final TransferQueueNotificationListener notificationListener;
+
+    /**
+     * Permisos liberados por cada notificación; un worker dormido despierta al tomar uno.
+     */
+    private final Semaphore wakeups = new Semaphore(0);
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Timer claimTimer;
+    private final Timer queueWaitTimer;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public TransferQueueWorkers(
+            TransferService transferService,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${autumn.node-id}") String nodeId,
+            @Value("${autumn.transfer.queue.workers:4}") int workerCount,
+            @Value("${autumn.transfer.queue.batch-size:10}") int batchSize,
+            @Value("${autumn.transfer.queue.min-poll-interval-ms:50}") long minPollIntervalMs,
+            @Value("${autumn.transfer.queue.max-poll-interval-ms:5000}") long maxPollIntervalMs,
+            @Value("${autumn.transfer.queue.lease-seconds:300}") long leaseSeconds,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password) {
+        this.transferService = transferService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.minPollInterval = Duration.ofMillis(minPollIntervalMs);
+        this.maxPollInterval = Duration.ofMillis(maxPollIntervalMs);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.notificationListener = new TransferQueueNotificationListener(
+            url, username, password, () -> wakeups.release(workerCount));
+
+        this.claimTimer = Timer.builder("autumn.transfer.queue.claim")
+            .description("Duración de la consulta de claim (SKIP LOCKED)")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("autumn.transfer.queue.wait")
+            .description("Tiempo entre el registro de la transferencia y su claim")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("autumn.transfer.queue.depth", queueDepth, AtomicLong::get)
+            .description("Transferencias PENDING en la cola")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            threads.add(Thread.ofPlatform().name("transfer-worker-" + i).daemon(true).start(this::workLoop));
+        }
+        threads.add(Thread.ofPlatform().name("transfer-queue-listener").daemon(true).start(notificationListener));
+        log.info("Cola de transferencias iniciada en nodo {}: {} workers, lotes de {}", nodeId, workerCount, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        notificationListener.stop();
+        wakeups.release(workerCount);
+        for (Thread thread : threads) {
+            try {
+                thread.join(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Devuelve a PENDING los claims cuyo lease venció (nodo caído o worker colgado).
+     * Si el worker original sigue vivo, su processTransfer ve el estado y no duplica nada.
+     */
+    @Scheduled(fixedDelayString = "${autumn.transfer.queue.reaper-interval-ms:30000}")
+    public void reapExpiredClaims() {
+        int reaped = jdbcTemplate.update(REAP_SQL, Timestamp.valueOf(LocalDateTime.now().minus(lease)));
+        if (reaped > 0) {
+            log.warn("{} transferencias con lease vencido devueltas a la cola", reaped);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${autumn.transfer.queue.depth-interval-ms:10000}")
+    public void refreshQueueDepth() {
+        Long depth = jdbcTemplate.queryForObject(DEPTH_SQL, Long.class);
+        queueDepth.set(depth == null ? 0 : depth);
+    }
+
+    private void workLoop() {
+        Duration idle = minPollInterval;
+        while (running) {
+            try {
+                List<UUID> claimed = claimBatch();
+                if (claimed.isEmpty()) {
+                    // Espera hasta una notificación o hasta el siguiente poll de respaldo
+                    if (wakeups.tryAcquire(idle.toMillis(), TimeUnit.MILLISECONDS)) {
+                        idle = minPollInterval;
+                    } else {
+                        Duration doubled = idle.multipliedBy(2);
+                        idle = doubled.compareTo(maxPollInterval) > 0 ? maxPollInterval : doubled;
+                    }
+                    continue;
+                }
+                idle = minPollInterval;
+                claimed.forEach(this::process);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error en worker de la cola de transferencias: {}", e.getMessage(), e);
+                sleepQuietly(maxPollInterval);
+            }
+        }
+    }
+
+    private List<UUID> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> claimed = new ArrayList<>(batchSize);
+        claimTimer.record(() -> jdbcTemplate.query(CLAIM_SQL, rs -> {
+            claimed.add(rs.getObject("id", UUID.class));
+            queueWaitTimer.record(Duration.between(rs.getTimestamp("created_at").toLocalDateTime(), now));
+        }, nodeId, Timestamp.valueOf(now), batchSize));
+        return claimed;
+    }
+
+    private void process(UUID transferId) {
+        try {
+            transferService.processTransfer(transferId);
+        } catch (Exception e) {
+            // Error técnico: se libera el claim para que otro intento (o nodo) la tome
+            log.error("Error procesando transferencia {}, se devuelve a la cola: {}", transferId, e.getMessage(), e);
+            jdbcTemplate.update(RELEASE_SQL, transferId);
+        }
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
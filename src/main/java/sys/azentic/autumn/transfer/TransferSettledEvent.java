@@ -0,0 +1,20 @@
+package sys.azentic.autumn.transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento local publicado al ejecutar una transferencia, con los saldos resultantes.
+ * Se consume después del commit (@TransactionalEventListener).
+ */
+public record TransferSettledEvent(
+    UUID transferId,
+    UUID sourceAccountId,
+    BigDecimal sourceBalance,
+    UUID destinationAccountId,
+    BigDecimal destinationBalance,
+    BigDecimal amount,
+    LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,231 @@
+package sys.azentic.autumn.transfer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sys.azentic.autumn.balance.BalanceHoldService;
+import sys.azentic.autumn.balance.BalanceHoldService.CapturedHold;
+import sys.azentic.autumn.balance.BalanceShardService;
+import sys.azentic.autumn.concurrency.AccountLockOrder;
+import sys.azentic.autumn.concurrency.LockHoldTimer;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.LedgerEntry;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.domain.enums.OutboxEventType;
+import sys.azentic.autumn.mapper.TransferMapper;
+import sys.azentic.autumn.outbox.OutboxService;
+import sys.azentic.autumn.repository.AccountRepository;
+import sys.azentic.autumn.repository.LedgerEntryRepository;
+import sys.azentic.autumn.repository.TransferRepository;
+import sys.azentic.autumn.service.IdempotencyService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pasos finales comunes a todos los caminos de una transferencia (síncrono, cola
+ * asíncrona, aprobaciones): débito/crédito, libro mayor, eventos y outbox.
+ *
+ * Siempre dentro de la transacción del llamador (MANDATORY), que es responsable
+ * de haber bloqueado o validado las cuentas.
+ *
+ * Dos formas de liquidar:
+ * - settle: cuentas bloqueadas y cargadas como entidades (workers de la cola).
+ * - settleHeld / settleCaptured: los fondos ya fueron retenidos (BalanceHoldService);
+ *   débito y crédito son sentencias SQL sobre las filas, sin releer ni validar saldos.
+ * - settleNetted: lotes compensados, saldos ya aplicados por posición neta.
+ */
+@Component
+@Slf4j
+public class TransferSettlement {
+
+    private static final String AGGREGATE_TYPE = "Transfer";
+
+    private final TransferRepository transferRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final TransferMapper transferMapper;
+    private final IdempotencyService idempotencyService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BalanceShardService balanceShardService;
+    private final BalanceHoldService balanceHoldService;
+    private final LockHoldTimer lockHoldTimer;
+    private final String nodeId;
+
+    public TransferSettlement(
+            TransferRepository transferRepository,
+            AccountRepository accountRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            TransferMapper transferMapper,
+            IdempotencyService idempotencyService,
+            OutboxService outboxService,
+            ApplicationEventPublisher eventPublisher,
+            BalanceShardService balanceShardService,
+            BalanceHoldService balanceHoldService,
+            LockHoldTimer lockHoldTimer,
+            @Value("${autumn.node-id:local}") String nodeId) {
+        this.transferRepository = transferRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.transferMapper = transferMapper;
+        this.idempotencyService = idempotencyService;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.balanceShardService = balanceShardService;
+        this.balanceHoldService = balanceHoldService;
+        this.lockHoldTimer = lockHoldTimer;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Aplica débito/crédito, marca la transferencia COMPLETED y registra los asientos.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transfer settle(Transfer transfer, Account sourceAccount, Account destinationAccount) {
+        BigDecimal amount = transfer.getAmount();
+        
+        // Actualizar saldos (Contabilidad de Doble Entrada)
+        // Cuenta particionada: el débito puede requerir consolidar sub-saldos y el
+        // crédito va a un sub-saldo sin tocar la fila de accounts
+        log.info("Actualizando saldos...");
+        balanceShardService.prepareDebit(sourceAccount, amount);
+        sourceAccount.setBalance(sourceAccount.getBalance().subtract(amount));
+        if (destinationAccount.isSharded()) {
+            balanceShardService.credit(destinationAccount, transfer.getId(), amount);
+        } else {
+            destinationAccount.setBalance(destinationAccount.getBalance().add(amount));
+        }
+        
+        // Guardar cuentas
+        log.info("Guardando cambios en base de datos...");
+        accountRepository.save(sourceAccount);
+        accountRepository.save(destinationAccount);
+        
+        // Completar y registrar asientos en el libro mayor (DEBIT + CREDIT)
+        // balanceAfter se captura de las cuentas ya actualizadas (agregado si están particionadas)
+        return record(transfer,
+            balanceShardService.totalBalance(sourceAccount),
+            balanceShardService.totalBalance(destinationAccount));
+    }
+
+    /**
+     * Marca la transferencia como reclamada por este nodo (PROCESSING) antes de retener
+     * los fondos: si la captura nunca llega a ejecutarse, el reaper de la cola la
+     * devuelve a PENDING y un worker la completa (ver TransferServiceImpl.processTransfer).
+     */
+    public void claim(Transfer transfer) {
+        transfer.startProcessing();
+        transfer.setClaimedBy(nodeId);
+        transfer.setClaimedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Captura la retención de la transferencia y acredita el destino.
+     * Ambas cuentas se escriben en el orden de AccountLockOrder, el mismo que los workers.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transfer settleHeld(Transfer transfer) {
+        UUID sourceId = transfer.getSourceAccount().getId();
+        UUID destinationId = transfer.getDestinationAccount().getId();
+        lockHoldTimer.start("capture");
+        
+        BigDecimal destinationBalanceAfter = null;
+        if (AccountLockOrder.before(destinationId, sourceId)) {
+            destinationBalanceAfter = balanceShardService.creditAccount(destinationId, transfer.getId(), transfer.getAmount());
+        }
+        List<CapturedHold> captured = balanceHoldService.capture(List.of(transfer.getId()));
+        if (captured.isEmpty()) {
+            throw new IllegalStateException("La transferencia " + transfer.getId() + " no tiene fondos retenidos");
+        }
+        if (destinationBalanceAfter == null) {
+            destinationBalanceAfter = balanceShardService.creditAccount(destinationId, transfer.getId(), transfer.getAmount());
+        }
+        return record(transfer, captured.get(0).balanceAfter(), destinationBalanceAfter);
+    }
+
+    /**
+     * Completa una transferencia cuya retención ya fue capturada (lotes de aprobación):
+     * solo falta acreditar el destino. El llamador bloquea las cuentas en orden.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transfer settleCaptured(Transfer transfer, CapturedHold captured) {
+        BigDecimal destinationBalanceAfter = balanceShardService.creditAccount(
+            transfer.getDestinationAccount().getId(), transfer.getId(), captured.amount());
+        return record(transfer, captured.balanceAfter(), destinationBalanceAfter);
+    }
+
+    /**
+     * Completa una transferencia de un lote compensado: los saldos ya fueron aplicados
+     * por posición neta (TransferNetting); solo faltan los asientos y los eventos.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transfer settleNetted(Transfer transfer, BigDecimal sourceBalanceAfter, BigDecimal destinationBalanceAfter) {
+        return record(transfer, sourceBalanceAfter, destinationBalanceAfter);
+    }
+
+    /**
+     * Marca COMPLETED, registra los asientos con los saldos resultantes y publica
+     * los eventos (SSE después del commit, outbox en la misma transacción).
+     */
+    private Transfer record(Transfer transfer, BigDecimal sourceBalanceAfter, BigDecimal destinationBalanceAfter) {
+        BigDecimal amount = transfer.getAmount();
+        transfer.markAsCompleted();
+        Transfer savedTransfer = transferRepository.save(transfer);
+        
+        log.info("Registrando asientos en libro mayor...");
+        ledgerEntryRepository.save(LedgerEntry.createDebit(
+            savedTransfer, savedTransfer.getSourceAccount(), amount, transfer.getDescription(), sourceBalanceAfter));
+        ledgerEntryRepository.save(LedgerEntry.createCredit(
+            savedTransfer, savedTransfer.getDestinationAccount(), amount, transfer.getDescription(), destinationBalanceAfter));
+        
+        // Notificación a suscriptores SSE; se entrega solo si la transacción confirma
+        eventPublisher.publishEvent(new TransferSettledEvent(savedTransfer.getId(),
+            savedTransfer.getSourceAccount().getId(), sourceBalanceAfter,
+            savedTransfer.getDestinationAccount().getId(), destinationBalanceAfter,
+            amount, savedTransfer.getCompletedAt()));
+        
+        // Evento para consumidores externos, en la misma transacción (outbox)
+        outboxService.append(AGGREGATE_TYPE, savedTransfer.getId(), OutboxEventType.TRANSFER_COMPLETED,
+            transferMapper.toResponse(savedTransfer));
+        
+        return savedTransfer;
+    }
+
+    /**
+     * Marca la transferencia FAILED y publica el rechazo en el outbox.
+     * Un rechazo de negocio es un resultado final: se persiste en lugar de revertir.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reject(Transfer transfer, String error) {
+        transfer.markAsFailed(error);
+        outboxService.append(AGGREGATE_TYPE, transfer.getId(), OutboxEventType.TRANSFER_FAILED,
+            transferMapper.toResponse(transfer));
+    }
+
+    /**
+     * Registra la clave de idempotencia en Redis después del commit.
+     * Dentro de la transacción, un intento revertido (p. ej. por conflicto) dejaría
+     * en Redis una clave apuntando a una transferencia inexistente.
+     */
+    public void storeIdempotencyAfterCommit(UUID idempotencyKey, UUID transferId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    idempotencyService.store(idempotencyKey, transferId);
+                } catch (Exception e) {
+                    // La base de datos sigue siendo la fuente de verdad (PASO 1)
+                    log.warn("No se pudo guardar la clave de idempotencia {} en Redis: {}", idempotencyKey, e.getMessage());
+                }
+            }
+        });
+    }
+}
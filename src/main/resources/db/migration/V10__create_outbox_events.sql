@@ -0,0 +1,20 @@
+-- V10__create_outbox_events.sql
+-- Outbox transaccional: eventos de dominio escritos en la misma transacción que el cambio
+
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP
+);
+
+-- El relay solo recorre los pendientes, en orden de ID
+CREATE INDEX idx_outbox_unpublished ON outbox_events(id) WHERE published_at IS NULL;
+-- Limpieza de publicados por antigüedad
+CREATE INDEX idx_outbox_published_at ON outbox_events(published_at) WHERE published_at IS NOT NULL;
+
+COMMENT ON TABLE outbox_events IS 'Eventos de dominio pendientes de publicar (patrón outbox)';
+COMMENT ON COLUMN outbox_events.id IS 'Orden de publicación y clave de deduplicación en el destino';
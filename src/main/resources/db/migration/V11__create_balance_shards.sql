@@ -0,0 +1,19 @@
+-- V11__create_balance_shards.sql
+-- Saldo particionado para cuentas con muchos créditos concurrentes (cuentas recaudadoras)
+
+-- 0 = saldo normal; N >= 2 = los créditos se reparten en N sub-saldos
+ALTER TABLE accounts ADD COLUMN balance_shards INT NOT NULL DEFAULT 0;
+ALTER TABLE accounts ADD CONSTRAINT chk_balance_shards CHECK (balance_shards = 0 OR balance_shards BETWEEN 2 AND 256);
+
+CREATE TABLE account_balance_shards (
+    account_id UUID NOT NULL,
+    shard INT NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL DEFAULT 0.0000,
+
+    CONSTRAINT pk_account_balance_shards PRIMARY KEY (account_id, shard),
+    CONSTRAINT fk_shard_account FOREIGN KEY (account_id) REFERENCES accounts(id),
+    CONSTRAINT chk_shard_balance_positive CHECK (balance >= 0)
+);
+
+COMMENT ON TABLE account_balance_shards IS 'Sub-saldos de cuentas particionadas; saldo real = accounts.balance + SUM(shards)';
+COMMENT ON COLUMN accounts.balance_shards IS 'Cantidad de sub-saldos (0 = sin particionar)';
@@ -0,0 +1,22 @@
+-- V12__create_approval_queue.sql
+-- Cola de aprobación de transferencias grandes con retención de fondos
+
+-- Fondos retenidos por transferencias en espera de aprobación (disponible = saldo - retenido)
+ALTER TABLE accounts ADD COLUMN held_balance DECIMAL(19, 4) NOT NULL DEFAULT 0;
+ALTER TABLE accounts ADD CONSTRAINT chk_held_balance_positive CHECK (held_balance >= 0);
+
+-- La cola se recorre por keyset (created_at, id) y solo contiene las pendientes:
+-- el índice parcial queda del tamaño del backlog, no de toda la tabla
+DROP INDEX idx_transfer_requires_approval;
+CREATE INDEX idx_transfer_requires_approval ON transfers(created_at, id)
+    WHERE requires_approval = TRUE AND status = 'PENDING';
+
+-- Las transferencias en espera de aprobación no despiertan a los workers
+DROP TRIGGER trg_transfer_queue_insert ON transfers;
+CREATE TRIGGER trg_transfer_queue_insert
+    AFTER INSERT ON transfers
+    FOR EACH ROW
+    WHEN (NEW.status = 'PENDING' AND NOT NEW.requires_approval)
+    EXECUTE FUNCTION notify_transfer_queue();
+
+COMMENT ON COLUMN accounts.held_balance IS 'Fondos retenidos por transferencias pendientes de aprobación';
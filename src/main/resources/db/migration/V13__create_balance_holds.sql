@@ -0,0 +1,32 @@
+-- V13__create_balance_holds.sql
+-- Retenciones de fondos por transferencia (autorizar ahora, capturar o liberar después)
+
+CREATE TABLE balance_holds (
+    transfer_id UUID PRIMARY KEY,
+    account_id UUID NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    resolved_at TIMESTAMP,
+
+    CONSTRAINT fk_balance_hold_transfer FOREIGN KEY (transfer_id) REFERENCES transfers(id),
+    CONSTRAINT fk_balance_hold_account FOREIGN KEY (account_id) REFERENCES accounts(id),
+    CONSTRAINT chk_balance_hold_amount_positive CHECK (amount > 0)
+);
+
+-- Retenciones activas por cuenta (verificación held_balance = SUM de activas)
+CREATE INDEX idx_balance_hold_active ON balance_holds(account_id) WHERE status = 'HELD';
+
+-- Transferencias ya estacionadas en la cola de aprobación (V12) pasan a tener su retención
+INSERT INTO balance_holds (transfer_id, account_id, amount, status, created_at)
+SELECT id, source_account_id, amount, 'HELD', created_at
+FROM transfers
+WHERE requires_approval = TRUE AND status = 'PENDING';
+
+-- La reconciliación verifica held_balance contra las retenciones activas
+ALTER TABLE reconciliation_mismatches DROP CONSTRAINT chk_mismatch_type;
+ALTER TABLE reconciliation_mismatches ADD CONSTRAINT chk_mismatch_type
+    CHECK (mismatch_type IN ('ACCOUNT_BALANCE', 'TRANSFER_ENTRIES', 'HELD_BALANCE'));
+
+COMMENT ON TABLE balance_holds IS 'Fondos retenidos por transferencia; accounts.held_balance es la suma de las activas';
+COMMENT ON COLUMN balance_holds.status IS 'HELD, CAPTURED (debitada) o RELEASED (devuelta al disponible)';
@@ -0,0 +1,40 @@
+-- V14__create_payroll_jobs.sql
+-- Carga de nóminas: una cuenta origen, muchos destinos, procesada por bloques reanudables
+
+CREATE TABLE payroll_jobs (
+    id UUID PRIMARY KEY,
+    source_account_id UUID NOT NULL,
+    source_account_number VARCHAR(20) NOT NULL,
+    file_name VARCHAR(255),
+    file_size BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    byte_offset BIGINT NOT NULL DEFAULT 0,
+    lines_read BIGINT NOT NULL DEFAULT 0,
+    transfers_completed BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    amount_transferred DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT fk_payroll_source FOREIGN KEY (source_account_id) REFERENCES accounts(id),
+    CONSTRAINT chk_payroll_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Filas rechazadas (formato, validación, cuenta inexistente, saldo); se escriben
+-- en la misma transacción que el bloque y su checkpoint
+CREATE TABLE payroll_job_errors (
+    id BIGSERIAL PRIMARY KEY,
+    job_id UUID NOT NULL,
+    line_number BIGINT NOT NULL,
+    raw_line VARCHAR(1000),
+    error VARCHAR(500) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_payroll_error_job FOREIGN KEY (job_id) REFERENCES payroll_jobs(id)
+);
+
+CREATE INDEX idx_payroll_error_job ON payroll_job_errors(job_id, id);
+
+COMMENT ON TABLE payroll_jobs IS 'Cargas de nómina: byte_offset es el checkpoint desde el que se reanuda el archivo';
+COMMENT ON TABLE payroll_job_errors IS 'Filas de nómina rechazadas con su número de línea';
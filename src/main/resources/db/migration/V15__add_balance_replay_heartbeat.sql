@@ -0,0 +1,8 @@
+-- V15__add_balance_replay_heartbeat.sql
+-- Dueño y latido de cada replay: permite marcar FAILED los que quedaron RUNNING tras un reinicio
+
+ALTER TABLE balance_replay_runs ADD COLUMN node_id VARCHAR(100);
+ALTER TABLE balance_replay_runs ADD COLUMN heartbeat_at TIMESTAMP;
+
+COMMENT ON COLUMN balance_replay_runs.node_id IS 'Instancia que ejecuta el replay (nodo + arranque)';
+COMMENT ON COLUMN balance_replay_runs.heartbeat_at IS 'Último latido del dueño; vencido, el replay se marca FAILED';
@@ -0,0 +1,38 @@
+-- V6__create_balance_snapshots.sql
+-- Consultas de saldo histórico (point-in-time) y snapshots diarios de saldo
+
+-- Índice compuesto para encontrar el último asiento de una cuenta antes de un instante
+-- con una sola búsqueda en el índice (también sirve a los estados de cuenta ordenados)
+CREATE INDEX idx_ledger_account_created_at ON ledger_entries(account_id, created_at DESC);
+
+-- Redundante: el prefijo del índice compuesto cubre las búsquedas por account_id
+DROP INDEX idx_ledger_account_id;
+
+CREATE TABLE account_balance_snapshots (
+    id UUID PRIMARY KEY,
+    account_id UUID NOT NULL,
+    snapshot_at TIMESTAMP NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_snapshot_account FOREIGN KEY (account_id) REFERENCES accounts(id),
+    CONSTRAINT uk_snapshot_account_at UNIQUE (account_id, snapshot_at),
+    CONSTRAINT chk_snapshot_balance_positive CHECK (balance >= 0)
+);
+
+-- Snapshot de apertura: saldo de cada cuenta al momento de su creación,
+-- descontando los movimientos ya registrados en el libro mayor
+INSERT INTO account_balance_snapshots (id, account_id, snapshot_at, balance, created_at)
+SELECT gen_random_uuid(),
+       a.id,
+       a.created_at,
+       a.balance - COALESCE((
+           SELECT SUM(CASE WHEN l.type = 'CREDIT' THEN l.amount ELSE -l.amount END)
+           FROM ledger_entries l
+           WHERE l.account_id = a.id
+       ), 0),
+       NOW()
+FROM accounts a;
+
+COMMENT ON TABLE account_balance_snapshots IS 'Saldos por cuenta a un instante dado (apertura y cierres diarios)';
+COMMENT ON COLUMN account_balance_snapshots.balance IS 'Saldo considerando los asientos con created_at < snapshot_at';
@@ -0,0 +1,38 @@
+-- V7__create_balance_replay_tables.sql
+-- Motor de reconstrucción (replay) de saldos a partir del libro mayor
+
+CREATE TABLE balance_replay_runs (
+    id UUID PRIMARY KEY,
+    mode VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    full_history BOOLEAN NOT NULL DEFAULT FALSE,
+    parallelism INT NOT NULL,
+    accounts_total BIGINT NOT NULL DEFAULT 0,
+    accounts_processed BIGINT NOT NULL DEFAULT 0,
+    entries_processed BIGINT NOT NULL DEFAULT 0,
+    mismatches BIGINT NOT NULL DEFAULT 0,
+    chain_breaks BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT chk_replay_mode CHECK (mode IN ('DIFF', 'REBUILD')),
+    CONSTRAINT chk_replay_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE TABLE balance_replay_results (
+    run_id UUID NOT NULL,
+    account_id UUID NOT NULL,
+    replayed_balance DECIMAL(19, 4) NOT NULL,
+    actual_balance DECIMAL(19, 4) NOT NULL,
+    difference DECIMAL(19, 4) NOT NULL,
+    entries_replayed BIGINT NOT NULL,
+    chain_breaks BIGINT NOT NULL,
+
+    CONSTRAINT pk_balance_replay_results PRIMARY KEY (run_id, account_id),
+    CONSTRAINT fk_replay_result_run FOREIGN KEY (run_id) REFERENCES balance_replay_runs(id)
+);
+
+COMMENT ON TABLE balance_replay_runs IS 'Ejecuciones del motor de replay de saldos';
+COMMENT ON TABLE balance_replay_results IS 'Saldos reconstruidos (REBUILD) o diferencias encontradas (DIFF) por cuenta';
+COMMENT ON COLUMN balance_replay_results.chain_breaks IS 'Asientos cuyo balance_after no coincide con el saldo acumulado';
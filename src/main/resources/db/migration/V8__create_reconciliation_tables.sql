@@ -0,0 +1,47 @@
+-- V8__create_reconciliation_tables.sql
+-- Reconciliación paralela entre saldos y libro mayor
+
+CREATE TABLE reconciliation_runs (
+    id UUID PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    ranges_total INT NOT NULL,
+    ranges_completed INT NOT NULL DEFAULT 0,
+    mismatches BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT chk_reconciliation_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Un registro por rango verificado: permite reanudar una ejecución interrumpida
+CREATE TABLE reconciliation_checkpoints (
+    run_id UUID NOT NULL,
+    range_index INT NOT NULL,
+    mismatches INT NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_reconciliation_checkpoints PRIMARY KEY (run_id, range_index),
+    CONSTRAINT fk_checkpoint_run FOREIGN KEY (run_id) REFERENCES reconciliation_runs(id)
+);
+
+CREATE TABLE reconciliation_mismatches (
+    id BIGSERIAL PRIMARY KEY,
+    run_id UUID NOT NULL,
+    range_index INT NOT NULL,
+    mismatch_type VARCHAR(30) NOT NULL,
+    account_id UUID,
+    transfer_id UUID,
+    expected DECIMAL(19, 4),
+    actual DECIMAL(19, 4),
+    detail VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_mismatch_run FOREIGN KEY (run_id) REFERENCES reconciliation_runs(id),
+    CONSTRAINT chk_mismatch_type CHECK (mismatch_type IN ('ACCOUNT_BALANCE', 'TRANSFER_ENTRIES'))
+);
+
+CREATE INDEX idx_reconciliation_mismatch_run ON reconciliation_mismatches(run_id, id);
+
+COMMENT ON TABLE reconciliation_runs IS 'Ejecuciones de la reconciliación saldo vs libro mayor';
+COMMENT ON TABLE reconciliation_mismatches IS 'Diferencias detectadas: saldos que no cuadran y transferencias sin exactamente un DEBIT y un CREDIT';
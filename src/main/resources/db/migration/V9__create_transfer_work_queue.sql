@@ -0,0 +1,35 @@
+-- V9__create_transfer_work_queue.sql
+-- Cola de trabajo sobre la tabla transfers (SELECT ... FOR UPDATE SKIP LOCKED)
+
+-- Nodo que reclamó la transferencia y cuándo (lease para recuperar claims abandonados)
+ALTER TABLE transfers ADD COLUMN claimed_by VARCHAR(100);
+ALTER TABLE transfers ADD COLUMN claimed_at TIMESTAMP;
+
+-- Los workers leen "las PENDING más antiguas": (status, created_at) sirve el filtro y el orden.
+-- Reemplaza a idx_transfer_status, que es prefijo de este índice.
+CREATE INDEX idx_transfer_status_created_at ON transfers(status, created_at);
+DROP INDEX idx_transfer_status;
+
+-- Despierta a los workers al haber trabajo nuevo (evita polling continuo).
+-- PostgreSQL agrupa notificaciones idénticas dentro de una misma transacción.
+CREATE OR REPLACE FUNCTION notify_transfer_queue() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('transfer_queue', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transfer_queue_insert
+    AFTER INSERT ON transfers
+    FOR EACH ROW
+    WHEN (NEW.status = 'PENDING')
+    EXECUTE FUNCTION notify_transfer_queue();
+
+CREATE TRIGGER trg_transfer_queue_release
+    AFTER UPDATE OF status ON transfers
+    FOR EACH ROW
+    WHEN (NEW.status = 'PENDING' AND OLD.status IS DISTINCT FROM 'PENDING')
+    EXECUTE FUNCTION notify_transfer_queue();
+
+COMMENT ON COLUMN transfers.claimed_by IS 'Nodo que reclamó la transferencia de la cola';
+COMMENT ON COLUMN transfers.claimed_at IS 'Momento del claim; vencido el lease vuelve a PENDING';
@@ -0,0 +1,84 @@
+package sys.azentic.autumn.bulk;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests unitarios de ZipfSampler: rango de las muestras y ajuste a la distribución
+ * teórica P(k) = k^-s / H(n, s). Semilla fija: los resultados son reproducibles.
+ */
+class ZipfSamplerTest {
+
+	private static final int SAMPLES = 200_000;
+
+	@Test
+	void rechazaParametrosInvalidos() {
+		assertThatThrownBy(() -> new ZipfSampler(0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ZipfSampler(10, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void conUnSoloElementoSiempreRetornaUno() {
+		ZipfSampler sampler = new ZipfSampler(1, 1.2);
+		SplittableRandom random = new SplittableRandom(7);
+
+		for (int i = 0; i < 1_000; i++) {
+			assertThat(sampler.sample(random)).isEqualTo(1);
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource({"10, 0.5", "10, 1.0", "50, 1.0", "1000, 1.2", "1000000, 0.99"})
+	void lasMuestrasQuedanEnElRango(int n, double exponent) {
+		ZipfSampler sampler = new ZipfSampler(n, exponent);
+		SplittableRandom random = new SplittableRandom(42);
+
+		for (int i = 0; i < SAMPLES / 10; i++) {
+			assertThat(sampler.sample(random)).isBetween(1, n);
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource({"10, 0.5", "10, 1.0", "20, 1.5"})
+	void lasFrecuenciasSiguenLaDistribucionTeorica(int n, double exponent) {
+		ZipfSampler sampler = new ZipfSampler(n, exponent);
+		SplittableRandom random = new SplittableRandom(42);
+		long[] counts = new long[n + 1];
+		for (int i = 0; i < SAMPLES; i++) {
+			counts[sampler.sample(random)]++;
+		}
+
+		double normalization = 0;
+		for (int k = 1; k <= n; k++) {
+			normalization += Math.pow(k, -exponent);
+		}
+		for (int k = 1; k <= n; k++) {
+			double expected = Math.pow(k, -exponent) / normalization;
+			assertThat((double) counts[k] / SAMPLES)
+					.as("frecuencia del rango %d", k)
+					.isCloseTo(expected, within(0.005));
+		}
+	}
+
+	@Test
+	void losRangosBajosConcentranElTrafico() {
+		ZipfSampler sampler = new ZipfSampler(100_000, 1.0);
+		SplittableRandom random = new SplittableRandom(42);
+		int top100 = 0;
+		for (int i = 0; i < SAMPLES; i++) {
+			if (sampler.sample(random) <= 100) {
+				top100++;
+			}
+		}
+
+		// H(100) / H(100000) ≈ 5.19 / 12.09 ≈ 0.43: el 0.1% de las cuentas recibe ~43% del tráfico
+		assertThat((double) top100 / SAMPLES).isCloseTo(0.43, within(0.01));
+	}
+}
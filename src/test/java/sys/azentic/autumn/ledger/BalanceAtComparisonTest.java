@@ -0,0 +1,227 @@
+package sys.azentic.autumn.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sys.azentic.autumn.bulk.BulkImportService;
+import sys.azentic.autumn.service.AccountService;
+import sys.azentic.autumn.support.AbstractContainerTest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comparación del saldo histórico (GET /accounts/{id}/balance?at=) contra recalcularlo
+ * desde las transferencias, para historiales de distinto tamaño.
+ *
+ * Por cada tamaño se importa (COPY) una cuenta con N transferencias completadas contra
+ * una contraparte, con sus asientos, y se consultan instantes aleatorios del historial:
+ * - ledger: AccountService.getBalanceAt (búsqueda en idx_ledger_account_created_at y
+ *   en los snapshots), independiente de N
+ * - recálculo: saldo de apertura + neto de las transferencias completadas hasta el
+ *   instante, que recorre todo el historial anterior
+ * Ambos deben dar el mismo saldo en cada instante; el reporte muestra la latencia
+ * media, p50 y p99 de cada uno.
+ *
+ * Excluida del build normal. Ejecutar con: make balance-at-compare
+ * Parámetros (-D): history.sizes (lista separada por comas), history.queries
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.show-sql=false",
+		"autumn.outbox.sink=file",
+		"autumn.reconciliation.cron=-",
+		"autumn.ledger.snapshot.cron=-",
+		"autumn.maintenance.cron=-",
+		"logging.level.sys.azentic.autumn=WARN"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+@Slf4j
+class BalanceAtComparisonTest extends AbstractContainerTest {
+
+	private static final int[] HISTORY_SIZES = Arrays.stream(System.getProperty("history.sizes", "1000,10000,100000")
+			.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+	private static final int QUERIES = Integer.getInteger("history.queries", 200);
+	private static final int WARMUP_QUERIES = 50;
+	private static final int IMPORT_BATCH = 50_000;
+
+	private static final String ACCOUNT_PREFIX = "HIST";
+	private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.00");
+
+	/**
+	 * Saldo de apertura + neto de las transferencias completadas hasta el instante.
+	 */
+	private static final String RECOMPUTE_SQL = """
+			SELECT ? + COALESCE(SUM(CASE WHEN t.destination_account_id = ? THEN t.amount ELSE -t.amount END), 0)
+			FROM transfers t
+			WHERE (t.source_account_id = ? OR t.destination_account_id = ?)
+			  AND t.status = 'COMPLETED' AND t.completed_at <= ?
+			""";
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void ledgerLookupMatchesRecomputationFromTransfers() {
+		StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+				"%n=== SALDO HISTÓRICO: libro mayor vs recálculo desde transferencias === %d consultas por tamaño%n"
+						+ "    %-12s %-10s %10s %10s %10s%n",
+				QUERIES, "Historial", "Método", "media ms", "p50 ms", "p99 ms"));
+
+		for (int i = 0; i < HISTORY_SIZES.length; i++) {
+			int size = HISTORY_SIZES[i];
+			History history = seedHistory(i, size);
+			SplittableRandom random = new SplittableRandom(size);
+			LocalDateTime[] instants = new LocalDateTime[WARMUP_QUERIES + QUERIES];
+			for (int q = 0; q < instants.length; q++) {
+				instants[q] = history.firstEntryAt().plusSeconds(random.nextLong(history.spanSeconds()));
+			}
+
+			// Mismo saldo por ambos caminos en cada instante
+			for (LocalDateTime at : instants) {
+				assertThat(ledgerBalance(history, at)).as("saldo en %s", at).isEqualByComparingTo(recomputedBalance(history, at));
+			}
+
+			long[] ledger = measure(instants, at -> ledgerBalance(history, at));
+			long[] recompute = measure(instants, at -> recomputedBalance(history, at));
+			report.append(row(size, "ledger", ledger)).append(row(size, "recálculo", recompute));
+		}
+		log.warn(report.toString());
+	}
+
+	/**
+	 * Una cuenta con size transferencias completadas (una por minuto, alternando crédito
+	 * y débito) contra una contraparte, importadas por COPY junto con sus asientos.
+	 * Las cuentas quedan con su saldo final; el de apertura es OPENING_BALANCE.
+	 */
+	private History seedHistory(int index, int size) {
+		String accountNumber = String.format("%s%08d", ACCOUNT_PREFIX, 2 * index);
+		String counterpartyNumber = String.format("%s%08d", ACCOUNT_PREFIX, 2 * index + 1);
+		LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(size + 1L);
+		SplittableRandom random = new SplittableRandom(index);
+
+		// Saldos finales antes de importar las cuentas: la importación los toma como vigentes
+		BigDecimal[] amounts = new BigDecimal[size];
+		BigDecimal balance = OPENING_BALANCE;
+		BigDecimal counterpartyBalance = OPENING_BALANCE;
+		for (int n = 0; n < size; n++) {
+			amounts[n] = BigDecimal.valueOf(100 + random.nextInt(10_000), 2);
+			boolean credit = n % 2 == 0;
+			balance = credit ? balance.add(amounts[n]) : balance.subtract(amounts[n]);
+			counterpartyBalance = credit ? counterpartyBalance.subtract(amounts[n]) : counterpartyBalance.add(amounts[n]);
+		}
+		String accounts = account(accountNumber, balance, start) + account(counterpartyNumber, counterpartyBalance, start);
+		bulkImportService.importAccounts(csv(accounts), false);
+
+		balance = OPENING_BALANCE;
+		counterpartyBalance = OPENING_BALANCE;
+		for (int from = 0; from < size; from += IMPORT_BATCH) {
+			StringBuilder transfers = new StringBuilder();
+			StringBuilder entries = new StringBuilder();
+			for (int n = from; n < Math.min(size, from + IMPORT_BATCH); n++) {
+				boolean credit = n % 2 == 0;
+				balance = credit ? balance.add(amounts[n]) : balance.subtract(amounts[n]);
+				counterpartyBalance = credit ? counterpartyBalance.subtract(amounts[n]) : counterpartyBalance.add(amounts[n]);
+				String source = credit ? counterpartyNumber : accountNumber;
+				String destination = credit ? accountNumber : counterpartyNumber;
+				String key = UUID.randomUUID().toString();
+				LocalDateTime at = start.plusMinutes(n + 1L);
+				transfers.append(key).append(',').append(source).append(',').append(destination).append(',')
+						.append(amounts[n].toPlainString()).append(",COMPLETED,,").append(timestamp(at)).append(',')
+						.append(timestamp(at)).append('\n');
+				entries.append(entry(key, accountNumber, credit ? "CREDIT" : "DEBIT", amounts[n], balance, at))
+						.append(entry(key, counterpartyNumber, credit ? "DEBIT" : "CREDIT", amounts[n], counterpartyBalance, at));
+			}
+			bulkImportService.importTransfers(csv(transfers.toString()), false);
+			bulkImportService.importLedgerEntries(csv(entries.toString()), false);
+		}
+		jdbcTemplate.execute("ANALYZE transfers");
+		jdbcTemplate.execute("ANALYZE ledger_entries");
+
+		UUID accountId = jdbcTemplate.queryForObject(
+				"SELECT id FROM accounts WHERE account_number = ?", UUID.class, accountNumber);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM ledger_entries WHERE account_id = ?", Long.class, accountId))
+				.as("asientos importados").isEqualTo(size);
+		// Instantes consultables: desde el primer asiento hasta el último
+		return new History(accountId, start.plusMinutes(1), (size - 1) * 60L + 1);
+	}
+
+	private BigDecimal ledgerBalance(History history, LocalDateTime at) {
+		return accountService.getBalanceAt(history.accountId(), at).getBalance();
+	}
+
+	private BigDecimal recomputedBalance(History history, LocalDateTime at) {
+		UUID id = history.accountId();
+		return jdbcTemplate.queryForObject(RECOMPUTE_SQL, BigDecimal.class, OPENING_BALANCE, id, id, id, Timestamp.valueOf(at));
+	}
+
+	/**
+	 * Latencias en nanosegundos, sin las consultas de calentamiento, ordenadas.
+	 */
+	private static long[] measure(LocalDateTime[] instants, Function<LocalDateTime, BigDecimal> lookup) {
+		long[] nanos = new long[QUERIES];
+		for (int q = 0; q < instants.length; q++) {
+			long start = System.nanoTime();
+			lookup.apply(instants[q]);
+			if (q >= WARMUP_QUERIES) {
+				nanos[q - WARMUP_QUERIES] = System.nanoTime() - start;
+			}
+		}
+		Arrays.sort(nanos);
+		return nanos;
+	}
+
+	private static String row(int size, String method, long[] sortedNanos) {
+		return String.format(Locale.ROOT, "    %-12d %-10s %10.3f %10.3f %10.3f%n", size, method,
+				Arrays.stream(sortedNanos).average().orElse(0) / 1e6,
+				sortedNanos[(int) (sortedNanos.length * 0.50)] / 1e6,
+				sortedNanos[Math.min(sortedNanos.length - 1, (int) (sortedNanos.length * 0.99))] / 1e6);
+	}
+
+	private static String account(String accountNumber, BigDecimal balance, LocalDateTime createdAt) {
+		return accountNumber + ",Historial " + accountNumber + ",,USD," + balance.toPlainString()
+				+ ",ACTIVE,100000000.00," + timestamp(createdAt) + "\n";
+	}
+
+	private static String entry(String key, String accountNumber, String type, BigDecimal amount,
+								BigDecimal balanceAfter, LocalDateTime createdAt) {
+		return key + "," + accountNumber + "," + type + "," + amount.toPlainString() + ","
+				+ balanceAfter.toPlainString() + ",," + timestamp(createdAt) + "\n";
+	}
+
+	private static String timestamp(LocalDateTime value) {
+		return Timestamp.valueOf(value).toString();
+	}
+
+	private static ByteArrayInputStream csv(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private record History(UUID accountId, LocalDateTime firstEntryAt, long spanSeconds) {
+	}
+}
@@ -0,0 +1,120 @@
+package sys.azentic.autumn.limits;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios de SlidingWindowCounter: límite, expiración de buckets,
+ * devoluciones, retiro y atomicidad bajo concurrencia.
+ */
+class SlidingWindowCounterTest {
+
+	@Test
+	void acumulaHastaElLimiteYRechazaLoQueLoSupera() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+
+		assertThat(counter.tryAcquire(0, 60, 100)).isEqualTo(60);
+		assertThat(counter.tryAcquire(0, 50, 100)).as("rechazo: -(acumulado) - 1").isEqualTo(-61);
+		assertThat(counter.tryAcquire(0, 40, 100)).as("el límite exacto se acepta").isEqualTo(100);
+		assertThat(counter.used(0)).isEqualTo(100);
+	}
+
+	@Test
+	void losBucketsQueSalenDeLaVentanaLiberanCupo() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+		counter.tryAcquire(0, 100, 100);
+
+		assertThat(counter.tryAcquire(2, 1, 100)).as("el bucket 0 sigue en la ventana").isEqualTo(-101);
+		assertThat(counter.tryAcquire(3, 1, 100)).as("el bucket 0 salió de la ventana").isEqualTo(1);
+		assertThat(counter.used(3)).isEqualTo(1);
+	}
+
+	@Test
+	void unSaltoMayorQueLaVentanaLaVaciaCompleta() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(4);
+		counter.tryAcquire(10, 30, 100);
+		counter.tryAcquire(11, 30, 100);
+
+		assertThat(counter.used(1_000)).isZero();
+		assertThat(counter.tryAcquire(1_000, 100, 100)).isEqualTo(100);
+	}
+
+	@Test
+	void releaseDevuelveAlBucketDondeSeSumo() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+		counter.tryAcquire(0, 50, 100);
+		counter.tryAcquire(1, 20, 100);
+
+		assertThat(counter.release(0, 30)).isEqualTo(40);
+		assertThat(counter.release(1, 500)).as("nunca devuelve más de lo sumado en el bucket").isEqualTo(20);
+		// Al expirar el bucket 0 solo se descuenta lo que quedó en él
+		assertThat(counter.used(3)).isZero();
+	}
+
+	@Test
+	void releaseDeUnBucketExpiradoNoHaceNada() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+		counter.tryAcquire(0, 50, 100);
+		counter.tryAcquire(5, 10, 100);
+
+		assertThat(counter.release(0, 50)).isEqualTo(10);
+		assertThat(counter.release(6, 10)).as("bucket posterior a la cabeza").isEqualTo(10);
+		assertThat(counter.used(5)).isEqualTo(10);
+	}
+
+	@Test
+	void soloSeRetiraSinUsoEnLaVentana() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+		counter.tryAcquire(0, 10, 100);
+
+		assertThat(counter.retireIfIdle(2)).isFalse();
+		assertThat(counter.retireIfIdle(3)).isTrue();
+		assertThat(counter.tryAcquire(3, 1, 100)).isEqualTo(SlidingWindowCounter.RETIRED);
+		assertThat(counter.used(3)).isZero();
+		assertThat(counter.retireIfIdle(4)).as("retirar es idempotente").isTrue();
+	}
+
+	@Test
+	void bajoConcurrenciaNuncaSuperaElLimite() throws Exception {
+		SlidingWindowCounter counter = new SlidingWindowCounter(5);
+		int threads = 8;
+		int attemptsPerThread = 1_000;
+		long limit = 3_000;
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> accepted = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				accepted.add(executor.submit(() -> {
+					start.await();
+					int count = 0;
+					for (int i = 0; i < attemptsPerThread; i++) {
+						if (counter.tryAcquire(0, 1, limit) >= 0) {
+							count++;
+						}
+					}
+					return count;
+				}));
+			}
+			start.countDown();
+
+			int total = 0;
+			for (Future<Integer> future : accepted) {
+				total += future.get();
+			}
+			assertThat(total).as("reservas aceptadas").isEqualTo(limit);
+			assertThat(counter.used(0)).isEqualTo(limit);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
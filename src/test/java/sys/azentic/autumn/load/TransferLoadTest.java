@@ -0,0 +1,307 @@
+package sys.azentic.autumn.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sys.azentic.autumn.bulk.BulkImportService;
+import sys.azentic.autumn.support.AbstractContainerTest;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de extremo a extremo, sin servicios externos.
+ *
+ * Levanta la aplicación completa (Tomcat en un puerto aleatorio) contra PostgreSQL y
+ * Redis en contenedores locales: con las imágenes ya descargadas no necesita red.
+ * El esquema es el de Flyway (ddl-auto=validate), con sus restricciones e índices.
+ *
+ * Modelo abierto: los requests se lanzan a tasa constante sin esperar respuestas,
+ * y la latencia se mide desde el instante programado de envío, no desde el envío
+ * real; una aplicación saturada se ve en la latencia en lugar de frenar la carga
+ * (sin omisión coordinada).
+ *
+ * Mezcla: 70% POST /api/v1/transfers, 20% GET /api/v1/accounts/{id}/balance y
+ * 10% GET /api/v1/transfers/{id}. Una fracción de las transferencias sale de unas
+ * pocas cuentas calientes.
+ *
+ * Modelo de hilos: load.threads=platform (Tomcat con su pool) o virtual (perfil
+ * virtual-threads). Ambos modos usan el mismo pool de conexiones (load.db-pool-size),
+ * así la diferencia de throughput y latencia de cola es la del modelo de hilos.
+ *
+ * Excluida del build normal. Ejecutar con: make load-test (o make load-compare)
+ * Parámetros (-D): load.rate (req/s), load.duration-seconds, load.accounts,
+ * load.hot-accounts, load.hot-fraction, load.threads, load.db-pool-size
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.show-sql=false",
+		"autumn.outbox.sink=file",
+		"autumn.reconciliation.cron=-",
+		"autumn.ledger.snapshot.cron=-",
+		"autumn.maintenance.cron=-",
+		"logging.level.sys.azentic.autumn=WARN"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles(resolver = TransferLoadTest.ThreadModelProfiles.class)
+@Slf4j
+class TransferLoadTest extends AbstractContainerTest {
+
+	private static final int RATE = Integer.getInteger("load.rate", 200);
+	private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+	private static final int ACCOUNTS = Integer.getInteger("load.accounts", 1000);
+	private static final int HOT_ACCOUNTS = Integer.getInteger("load.hot-accounts", 5);
+	private static final double HOT_FRACTION = Double.parseDouble(System.getProperty("load.hot-fraction", "0.2"));
+	private static final String THREAD_MODEL = System.getProperty("load.threads", "platform");
+	private static final int DB_POOL_SIZE = Integer.getInteger("load.db-pool-size", 20);
+
+	private static final String POST_TRANSFER = "POST /api/v1/transfers";
+	private static final String GET_BALANCE = "GET /api/v1/accounts/{id}/balance";
+	private static final String GET_TRANSFER = "GET /api/v1/transfers/{id}";
+
+	/**
+	 * Perfil test, más virtual-threads si load.threads=virtual.
+	 */
+	static final class ThreadModelProfiles implements ActiveProfilesResolver {
+
+		@Override
+		public String[] resolve(Class<?> testClass) {
+			return switch (THREAD_MODEL) {
+				case "platform" -> new String[]{"test"};
+				case "virtual" -> new String[]{"test", "virtual-threads"};
+				default -> throw new IllegalArgumentException(
+						"load.threads debe ser platform o virtual: " + THREAD_MODEL);
+			};
+		}
+	}
+
+	/**
+	 * Mismo pool de conexiones en ambos modos de hilos.
+	 */
+	@DynamicPropertySource
+	static void connectionPool(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.hikari.maximum-pool-size", () -> DB_POOL_SIZE);
+	}
+
+	@Value("${local.server.port}")
+	private int port;
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Latencias y errores de un endpoint.
+	 */
+	private static final class EndpointStats {
+
+		private final List<Long> latenciesNanos = Collections.synchronizedList(new ArrayList<>());
+		private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+		private final LongAdder requests = new LongAdder();
+
+		void record(long latencyNanos, String error) {
+			requests.increment();
+			latenciesNanos.add(latencyNanos);
+			if (error != null) {
+				errors.computeIfAbsent(error, key -> new LongAdder()).increment();
+			}
+		}
+
+		long errorCount() {
+			return errors.values().stream().mapToLong(LongAdder::sum).sum();
+		}
+	}
+
+	@Test
+	void openModelTransferLoad() throws Exception {
+		List<String> accountNumbers = seedAccounts();
+		List<UUID> accountIds = jdbcTemplate.queryForList(
+				"SELECT id FROM accounts WHERE account_number LIKE 'LOAD%' ORDER BY account_number", UUID.class);
+
+		Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+		AtomicReferenceArray<UUID> recentTransfers = new AtomicReferenceArray<>(1024);
+		AtomicLong transfersCreated = new AtomicLong();
+		String baseUrl = "http://localhost:" + port;
+
+		ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.executor(executor)
+				.build();
+
+		long total = (long) RATE * DURATION_SECONDS;
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+		log.warn("Carga: {} req/s durante {} s ({} requests) - {} cuentas, {} calientes ({}%)",
+				RATE, DURATION_SECONDS, total, ACCOUNTS, HOT_ACCOUNTS, Math.round(HOT_FRACTION * 100));
+
+		long start = System.nanoTime();
+		for (long i = 0; i < total; i++) {
+			long intended = start + i * intervalNanos;
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			executor.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				double roll = random.nextDouble();
+				UUID transferId = recentTransfers.get(random.nextInt(recentTransfers.length()));
+				String endpoint;
+				HttpRequest request;
+				if (roll < 0.7 || (roll >= 0.9 && transferId == null)) {
+					endpoint = POST_TRANSFER;
+					request = transferRequest(baseUrl, accountNumbers, random);
+				} else if (roll < 0.9) {
+					endpoint = GET_BALANCE;
+					request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/accounts/"
+							+ accountIds.get(random.nextInt(accountIds.size())) + "/balance")).GET().build();
+				} else {
+					endpoint = GET_TRANSFER;
+					request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transfers/" + transferId))
+							.GET().build();
+				}
+
+				String error = null;
+				try {
+					HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+					if (response.statusCode() >= 400) {
+						error = "HTTP " + response.statusCode();
+					} else if (endpoint.equals(POST_TRANSFER)) {
+						JsonNode body = objectMapper.readTree(response.body());
+						long created = transfersCreated.incrementAndGet();
+						recentTransfers.set((int) (created % recentTransfers.length()),
+								UUID.fromString(body.get("id").asText()));
+					}
+				} catch (Exception e) {
+					error = e.getClass().getSimpleName();
+				}
+				stats.computeIfAbsent(endpoint, key -> new EndpointStats())
+						.record(System.nanoTime() - intended, error);
+			});
+		}
+		long issuedNanos = System.nanoTime() - start;
+		executor.shutdown();
+		assertThat(executor.awaitTermination(2, TimeUnit.MINUTES))
+				.as("requests en curso al terminar la carga").isTrue();
+		long elapsedNanos = System.nanoTime() - start;
+
+		report(stats, issuedNanos, elapsedNanos);
+
+		assertThat(transfersCreated.get()).as("transferencias creadas").isPositive();
+		stats.forEach((endpoint, endpointStats) -> {
+			assertThat(endpointStats.errors.keySet())
+					.as("errores de servidor o de transporte en %s", endpoint)
+					.allSatisfy(error -> assertThat(error).matches("HTTP 4\\d\\d"));
+		});
+	}
+
+	/**
+	 * Cuentas de la prueba por el camino COPY, con saldo y límite diario holgados.
+	 */
+	private List<String> seedAccounts() {
+		StringBuilder csv = new StringBuilder();
+		List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			String accountNumber = String.format("LOAD%08d", i);
+			accountNumbers.add(accountNumber);
+			csv.append(accountNumber).append(",Carga ").append(i).append(",,USD,1000000.00,ACTIVE,100000000.00,\n");
+		}
+		bulkImportService.importAccounts(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), false);
+		return accountNumbers;
+	}
+
+	private HttpRequest transferRequest(String baseUrl, List<String> accountNumbers, ThreadLocalRandom random) {
+		String source = pickAccount(accountNumbers, random);
+		String destination;
+		do {
+			destination = pickAccount(accountNumbers, random);
+		} while (destination.equals(source));
+		String body = String.format(Locale.ROOT,
+				"{\"idempotencyKey\":\"%s\",\"sourceAccountNumber\":\"%s\",\"destinationAccountNumber\":\"%s\",\"amount\":%.2f}",
+				UUID.randomUUID(), source, destination, 1 + random.nextDouble() * 99);
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transfers"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+
+	/**
+	 * Cuenta caliente con probabilidad load.hot-fraction; si no, cualquiera.
+	 */
+	private static String pickAccount(List<String> accountNumbers, ThreadLocalRandom random) {
+		if (random.nextDouble() < HOT_FRACTION) {
+			return accountNumbers.get(random.nextInt(Math.min(HOT_ACCOUNTS, accountNumbers.size())));
+		}
+		return accountNumbers.get(random.nextInt(accountNumbers.size()));
+	}
+
+	private static void report(Map<String, EndpointStats> stats, long issuedNanos, long elapsedNanos) {
+		StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+				"%n=== PRUEBA DE CARGA === Hilos: %s - Pool: %d - Emisión: %.1f s - Total: %.1f s%n"
+						+ "%-36s %9s %9s %10s %9s %9s %9s %9s%n",
+				THREAD_MODEL, DB_POOL_SIZE, issuedNanos / 1e9, elapsedNanos / 1e9,
+				"Endpoint", "Requests", "Errores", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+		stats.forEach((endpoint, endpointStats) -> {
+			List<Long> latencies;
+			synchronized (endpointStats.latenciesNanos) {
+				latencies = new ArrayList<>(endpointStats.latenciesNanos);
+			}
+			Collections.sort(latencies);
+			report.append(String.format(Locale.ROOT, "%-36s %9d %9d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+					endpoint, endpointStats.requests.sum(), endpointStats.errorCount(),
+					endpointStats.requests.sum() / (elapsedNanos / 1e9),
+					percentile(latencies, 0.50), percentile(latencies, 0.99),
+					percentile(latencies, 0.999), percentile(latencies, 1.0)));
+			endpointStats.errors.forEach((error, count) ->
+					report.append(String.format("    %-32s %9d%n", error, count.sum())));
+		});
+		log.warn(report.toString());
+	}
+
+	private static double percentile(List<Long> sortedNanos, double quantile) {
+		if (sortedNanos.isEmpty()) {
+			return 0;
+		}
+		int index = (int) Math.ceil(quantile * sortedNanos.size()) - 1;
+		return sortedNanos.get(Math.max(0, Math.min(index, sortedNanos.size() - 1))) / 1e6;
+	}
+}
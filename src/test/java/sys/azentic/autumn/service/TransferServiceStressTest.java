@@ -0,0 +1,331 @@
+package sys.azentic.autumn.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sys.azentic.autumn.bulk.BulkImportService;
+import sys.azentic.autumn.bulk.ZipfSampler;
+import sys.azentic.autumn.dto.request.TransferRequest;
+import sys.azentic.autumn.dto.response.TransferResponse;
+import sys.azentic.autumn.exception.DailyLimitExceededException;
+import sys.azentic.autumn.exception.DuplicateTransferException;
+import sys.azentic.autumn.exception.InsufficientBalanceException;
+import sys.azentic.autumn.support.AbstractContainerTest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arnés de estrés de TransferService: corrección y throughput bajo concurrencia.
+ *
+ * N hilos crean transferencias aleatorias entre M cuentas directamente contra
+ * TransferService (sin HTTP). Con saldos iniciales chicos parte de las
+ * transferencias se rechaza por fondos, y una fracción reutiliza claves de idempotencia
+ * recientes de cualquier hilo, así hay duplicados concurrentes.
+ *
+ * Comparación de estrategias de bloqueo (stress.path y stress.distribution):
+ * - sync: createTransfer, retenciones en dos fases cortas (authorize / capture, y
+ *   authorize-locked para cuentas calientes de AdaptiveLockingStrategy)
+ * - queue: submitTransfer + processTransfer, ambas cuentas bloqueadas durante toda
+ *   la transferencia (el patrón anterior a las retenciones)
+ * - uniform: cuentas equiprobables; zipf: unas pocas cuentas concentran el tráfico
+ *   (ZipfSampler, exponente stress.zipf-exponent)
+ * El reporte incluye el tiempo de lock por fase (autumn.transfer.lock.hold) y las
+ * autorizaciones por estrategia; -Dautumn.transfer.locking.adaptive=false apaga la
+ * selección adaptativa.
+ *
+ * Al terminar verifica:
+ * - Ninguna excepción fuera de los rechazos de negocio; un conflicto de concurrencia
+ *   que agota los reintentos cuenta como falla
+ * - Conservación del dinero: la suma de saldos (sub-saldos incluidos) no cambia
+ * - Ningún saldo negativo ni fondos retenidos colgados
+ * - Libro mayor = saldos: saldo inicial + créditos - débitos de cada cuenta
+ * - Un DEBIT y un CREDIT por transferencia completada
+ * - Una sola transferencia por clave de idempotencia, y cada reintento de la clave
+ *   retorna esa misma transferencia
+ *
+ * Reporta transferencias/s para comparar optimizaciones de concurrencia.
+ *
+ * Excluida del build normal. Ejecutar con: make stress-test (o make lock-compare)
+ * Parámetros (-D): stress.threads, stress.accounts, stress.transfers-per-thread,
+ * stress.replay-fraction, stress.path, stress.distribution, stress.zipf-exponent
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.show-sql=false",
+		"autumn.outbox.sink=file",
+		"autumn.reconciliation.cron=-",
+		"autumn.ledger.snapshot.cron=-",
+		"autumn.maintenance.cron=-",
+		// Sin workers: en el camino queue el propio arnés procesa cada transferencia
+		"autumn.transfer.queue.enabled=false",
+		"logging.level.sys.azentic.autumn=WARN"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+@Slf4j
+class TransferServiceStressTest extends AbstractContainerTest {
+
+	private static final int THREADS = Integer.getInteger("stress.threads", 16);
+	private static final int ACCOUNTS = Integer.getInteger("stress.accounts", 50);
+	private static final int TRANSFERS_PER_THREAD = Integer.getInteger("stress.transfers-per-thread", 500);
+	private static final double REPLAY_FRACTION = Double.parseDouble(System.getProperty("stress.replay-fraction", "0.05"));
+	private static final String PATH = System.getProperty("stress.path", "sync");
+	private static final String DISTRIBUTION = System.getProperty("stress.distribution", "uniform");
+	private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("stress.zipf-exponent", "1.0"));
+
+	private static final String ACCOUNT_PREFIX = "STRS";
+	private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+	@Autowired
+	private TransferService transferService;
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void concurrentTransfersPreserveInvariants() throws Exception {
+		assertThat(PATH).as("stress.path").isIn("sync", "queue");
+		assertThat(DISTRIBUTION).as("stress.distribution").isIn("uniform", "zipf");
+		List<String> accountNumbers = seedAccounts();
+		BigDecimal totalBefore = totalBalance();
+		ZipfSampler zipf = new ZipfSampler(accountNumbers.size(), ZIPF_EXPONENT);
+
+		Map<UUID, Set<UUID>> transfersByKey = new ConcurrentHashMap<>();
+		Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+		Map<String, LongAdder> unexpected = new ConcurrentHashMap<>();
+		AtomicReferenceArray<TransferRequest> recentRequests = new AtomicReferenceArray<>(256);
+		LongAdder created = new LongAdder();
+		CountDownLatch startGate = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			workers.add(executor.submit(() -> {
+				startGate.await();
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+					TransferRequest replay = recentRequests.get(random.nextInt(recentRequests.length()));
+					boolean replayed = replay != null && random.nextDouble() < REPLAY_FRACTION;
+					TransferRequest request = replayed ? replay : randomRequest(accountNumbers, zipf, random);
+
+					String outcome;
+					try {
+						TransferResponse response = execute(request);
+						transfersByKey.computeIfAbsent(request.getIdempotencyKey(), key -> ConcurrentHashMap.newKeySet())
+								.add(response.getId());
+						outcome = replayed ? "REPLAY " + response.getStatus() : response.getStatus().name();
+						if (!replayed) {
+							created.increment();
+						}
+					} catch (InsufficientBalanceException | DailyLimitExceededException
+							| DuplicateTransferException e) {
+						outcome = e.getClass().getSimpleName();
+					} catch (DataIntegrityViolationException e) {
+						// Solo esperable entre reintentos concurrentes de una clave: lo rechaza la restricción única
+						outcome = e.getClass().getSimpleName();
+						if (!replayed) {
+							unexpected.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+						}
+					} catch (RuntimeException e) {
+						// Incluye conflictos que agotaron los reintentos (ConcurrencyFailureException)
+						outcome = e.getClass().getSimpleName();
+						unexpected.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+						log.error("Error inesperado en transferencia {}", request.getIdempotencyKey(), e);
+					}
+					outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+					// Se publica para reintentos recién terminada: los reintentos compiten entre sí
+					if (!replayed) {
+						recentRequests.set(random.nextInt(recentRequests.length()), request);
+					}
+				}
+				return null;
+			}));
+		}
+
+		long start = System.nanoTime();
+		startGate.countDown();
+		for (Future<?> worker : workers) {
+			worker.get(10, TimeUnit.MINUTES);
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		executor.shutdown();
+
+		report(outcomes, created.sum(), elapsedNanos);
+
+		assertThat(unexpected).as("excepciones inesperadas").isEmpty();
+		assertThat(created.sum()).as("transferencias creadas").isPositive();
+
+		// Conservación del dinero
+		assertThat(totalBalance()).as("suma de saldos").isEqualByComparingTo(totalBefore);
+
+		// Sin saldos negativos ni retenciones colgadas
+		assertThat(jdbcTemplate.queryForList("""
+				SELECT a.account_number FROM accounts a
+				WHERE a.account_number LIKE ? AND (a.balance < 0 OR a.held_balance <> 0
+				    OR EXISTS (SELECT 1 FROM account_balance_shards s WHERE s.account_id = a.id AND s.balance < 0))
+				""", String.class, ACCOUNT_PREFIX + "%"))
+				.as("cuentas con saldo negativo o fondos retenidos").isEmpty();
+
+		// Libro mayor = saldos (el saldo inicial es el snapshot de apertura de la importación)
+		assertThat(jdbcTemplate.queryForList("""
+				SELECT a.account_number FROM accounts a
+				JOIN account_balance_snapshots o ON o.account_id = a.id
+				WHERE a.account_number LIKE ?
+				  AND a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0)
+				      <> o.balance + COALESCE((SELECT SUM(CASE l.type WHEN 'CREDIT' THEN l.amount ELSE -l.amount END)
+				                               FROM ledger_entries l WHERE l.account_id = a.id), 0)
+				""", String.class, ACCOUNT_PREFIX + "%"))
+				.as("cuentas cuyo saldo no coincide con el libro mayor").isEmpty();
+
+		assertThat(jdbcTemplate.queryForObject("""
+				SELECT COUNT(*) FROM transfers t
+				WHERE t.status = 'COMPLETED'
+				  AND ((SELECT COUNT(*) FROM ledger_entries l WHERE l.transfer_id = t.id AND l.type = 'DEBIT'
+				            AND l.account_id = t.source_account_id) <> 1
+				    OR (SELECT COUNT(*) FROM ledger_entries l WHERE l.transfer_id = t.id AND l.type = 'CREDIT'
+				            AND l.account_id = t.destination_account_id) <> 1)
+				""", Long.class))
+				.as("transferencias completadas sin exactamente un débito y un crédito").isZero();
+
+		// Una transferencia por clave de idempotencia
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM (SELECT idempotency_key FROM transfers GROUP BY idempotency_key HAVING COUNT(*) > 1) d",
+				Long.class))
+				.as("claves de idempotencia con más de una transferencia").isZero();
+		assertThat(transfersByKey.entrySet())
+				.as("claves de idempotencia que retornaron transferencias distintas")
+				.allSatisfy(entry -> assertThat(entry.getValue()).hasSize(1));
+	}
+
+	/**
+	 * Una transferencia por el camino elegido. En queue se procesa en el mismo hilo,
+	 * como lo haría un worker, y se retorna su estado final.
+	 */
+	private TransferResponse execute(TransferRequest request) {
+		if ("sync".equals(PATH)) {
+			return transferService.createTransfer(request);
+		}
+		TransferResponse submitted = transferService.submitTransfer(request);
+		transferService.processTransfer(submitted.getId());
+		return transferService.getTransferById(submitted.getId());
+	}
+
+	/**
+	 * Cuentas del arnés por el camino COPY: saldo inicial chico (provoca rechazos por
+	 * fondos) y límite diario holgado.
+	 */
+	private List<String> seedAccounts() {
+		StringBuilder csv = new StringBuilder();
+		List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			String accountNumber = String.format("%s%08d", ACCOUNT_PREFIX, i);
+			accountNumbers.add(accountNumber);
+			csv.append(accountNumber).append(",Estrés ").append(i).append(",,USD,")
+					.append(INITIAL_BALANCE.toPlainString()).append(",ACTIVE,100000000.00,\n");
+		}
+		bulkImportService.importAccounts(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), false);
+		return accountNumbers;
+	}
+
+	private static TransferRequest randomRequest(List<String> accountNumbers, ZipfSampler zipf, ThreadLocalRandom random) {
+		int source = pick(accountNumbers.size(), zipf, random);
+		int destination = pick(accountNumbers.size(), zipf, random);
+		while (destination == source) {
+			destination = random.nextInt(accountNumbers.size());
+		}
+		return TransferRequest.builder()
+				.idempotencyKey(UUID.randomUUID())
+				.sourceAccountNumber(accountNumbers.get(source))
+				.destinationAccountNumber(accountNumbers.get(destination))
+				.amount(BigDecimal.valueOf(100 + random.nextInt(20_000), 2))
+				.description("Estrés")
+				.build();
+	}
+
+	/**
+	 * Índice de cuenta: equiprobable, o por rango de Zipf (la cuenta 0 es la más usada).
+	 */
+	private static int pick(int accounts, ZipfSampler zipf, RandomGenerator random) {
+		return "zipf".equals(DISTRIBUTION) ? zipf.sample(random) - 1 : random.nextInt(accounts);
+	}
+
+	private BigDecimal totalBalance() {
+		return jdbcTemplate.queryForObject("""
+				SELECT COALESCE(SUM(a.balance), 0)
+				     + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s
+				                 JOIN accounts sa ON sa.id = s.account_id WHERE sa.account_number LIKE ?), 0)
+				FROM accounts a WHERE a.account_number LIKE ?
+				""", BigDecimal.class, ACCOUNT_PREFIX + "%", ACCOUNT_PREFIX + "%");
+	}
+
+	private void report(Map<String, LongAdder> outcomes, long created, long elapsedNanos) {
+		double seconds = elapsedNanos / 1e9;
+		StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+				"%n=== ESTRÉS TransferService === %d hilos - %d cuentas - %d intentos por hilo%n"
+						+ "Camino: %s - Distribución: %s%s%n"
+						+ "Transferencias creadas: %d en %.2f s -> %.1f transferencias/s%n",
+				THREADS, ACCOUNTS, TRANSFERS_PER_THREAD, PATH, DISTRIBUTION,
+				"zipf".equals(DISTRIBUTION) ? " (exponente " + ZIPF_EXPONENT + ")" : "",
+				created, seconds, created / seconds));
+		outcomes.forEach((outcome, count) ->
+				report.append(String.format("    %-40s %9d%n", outcome, count.sum())));
+
+		// Tiempo de lock sobre cuentas por fase, desde la sentencia que bloquea hasta el fin de la transacción
+		report.append(String.format(Locale.ROOT, "Lock por fase:%n    %-20s %9s %9s %9s %9s %9s%n",
+				"Fase", "Tx", "media ms", "p50 ms", "p99 ms", "max ms"));
+		for (Timer timer : meterRegistry.find("autumn.transfer.lock.hold").timers()) {
+			double p50 = Double.NaN;
+			double p99 = Double.NaN;
+			for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+				if (percentile.percentile() == 0.5) {
+					p50 = percentile.value(TimeUnit.MILLISECONDS);
+				} else if (percentile.percentile() == 0.99) {
+					p99 = percentile.value(TimeUnit.MILLISECONDS);
+				}
+			}
+			report.append(String.format(Locale.ROOT, "    %-20s %9d %9.2f %9.2f %9.2f %9.2f%n",
+					timer.getId().getTag("phase"), timer.count(), timer.mean(TimeUnit.MILLISECONDS),
+					p50, p99, timer.max(TimeUnit.MILLISECONDS)));
+		}
+		meterRegistry.find("autumn.transfer.locking.mode").counters().forEach(counter ->
+				report.append(String.format(Locale.ROOT, "Autorizaciones %-14s %9.0f%n",
+						counter.getId().getTag("mode"), counter.count())));
+		log.warn(report.toString());
+	}
+}
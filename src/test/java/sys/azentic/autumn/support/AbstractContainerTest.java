@@ -0,0 +1,48 @@
+package sys.azentic.autumn.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.lifecycle.Startables;
+
+/**
+ * Base de los tests de integración: PostgreSQL y Redis en contenedores Docker.
+ *
+ * Los contenedores se inician una sola vez por JVM y los comparten todas las clases
+ * de test (Testcontainers los elimina al terminar la JVM). Así el contexto de Spring
+ * que cachea el framework nunca apunta a un contenedor ya detenido. Cada clase usa
+ * sus propios datos (prefijos de cuenta distintos).
+ */
+public abstract class AbstractContainerTest {
+
+	@SuppressWarnings("resource") // Testcontainers gestiona el ciclo de vida automáticamente
+	protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+			.withDatabaseName("autumn_test")
+			.withUsername("test_user")
+			.withPassword("test_pass");
+
+	@SuppressWarnings("resource") // Testcontainers gestiona el ciclo de vida automáticamente
+	protected static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine")
+			.withExposedPorts(6379);
+
+	static {
+		Startables.deepStart(POSTGRES, REDIS).join();
+	}
+
+	/**
+	 * Configura dinámicamente las propiedades de conexión a las bases de datos
+	 * levantadas por Testcontainers.
+	 */
+	@DynamicPropertySource
+	static void containerProperties(DynamicPropertyRegistry registry) {
+		// PostgreSQL
+		registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+		registry.add("spring.datasource.username", POSTGRES::getUsername);
+		registry.add("spring.datasource.password", POSTGRES::getPassword);
+
+		// Redis
+		registry.add("spring.data.redis.host", REDIS::getHost);
+		registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+	}
+}
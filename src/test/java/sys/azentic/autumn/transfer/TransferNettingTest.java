@@ -0,0 +1,151 @@
+package sys.azentic.autumn.transfer;
+
+import org.junit.jupiter.api.Test;
+import sys.azentic.autumn.domain.entity.Account;
+import sys.azentic.autumn.domain.entity.Transfer;
+import sys.azentic.autumn.exception.InsufficientBalanceException;
+import sys.azentic.autumn.transfer.TransferNetting.NettedTransfer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios de las partes puras de TransferNetting: posiciones netas y
+ * orden de liquidación de un lote.
+ */
+class TransferNettingTest {
+
+	// Bit alto encendido: UUID.compareTo (con signo) lo ordena primero, PostgreSQL último
+	private final Account a = account(new UUID(0x8000_0000_0000_0000L, 1), "A");
+	private final Account b = account(new UUID(1, 1), "B");
+	private final Account c = account(new UUID(2, 1), "C");
+
+	@Test
+	void netPositionsSumaCreditosYRestaDebitosPorCuenta() {
+		Map<UUID, BigDecimal> positions = TransferNetting.netPositions(List.of(
+				transfer(a, b, "100"),
+				transfer(b, c, "30"),
+				transfer(c, a, "10")));
+
+		assertThat(positions.get(a.getId())).isEqualByComparingTo("-90");
+		assertThat(positions.get(b.getId())).isEqualByComparingTo("70");
+		assertThat(positions.get(c.getId())).isEqualByComparingTo("20");
+		assertThat(positions.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+				.as("el lote no crea ni destruye dinero")
+				.isEqualByComparingTo("0");
+	}
+
+	@Test
+	void netPositionsRecorreLasCuentasEnOrdenDeLocks() {
+		Map<UUID, BigDecimal> positions = TransferNetting.netPositions(List.of(
+				transfer(a, b, "1"),
+				transfer(c, a, "1")));
+
+		assertThat(positions.keySet()).containsExactly(b.getId(), c.getId(), a.getId());
+	}
+
+	@Test
+	void netPositionsIncluyeCuentasConPosicionCero() {
+		Map<UUID, BigDecimal> positions = TransferNetting.netPositions(List.of(
+				transfer(a, b, "25"),
+				transfer(b, a, "25")));
+
+		assertThat(positions).containsOnlyKeys(a.getId(), b.getId());
+		assertThat(positions.get(a.getId())).isEqualByComparingTo("0");
+		assertThat(positions.get(b.getId())).isEqualByComparingTo("0");
+	}
+
+	@Test
+	void settlementOrderConservaElOrdenSiTodoEstaCubierto() {
+		Transfer first = transfer(a, b, "40");
+		Transfer second = transfer(a, c, "60");
+
+		List<NettedTransfer> ordered = TransferNetting.settlementOrder(List.of(first, second),
+				opening("100", "0", "0"));
+
+		assertThat(ordered).extracting(NettedTransfer::transfer).containsExactly(first, second);
+		assertThat(ordered.get(0).sourceBalanceAfter()).isEqualByComparingTo("60");
+		assertThat(ordered.get(0).destinationBalanceAfter()).isEqualByComparingTo("40");
+		assertThat(ordered.get(1).sourceBalanceAfter()).as("el débito puede dejar la cuenta en 0")
+				.isEqualByComparingTo("0");
+		assertThat(ordered.get(1).destinationBalanceAfter()).isEqualByComparingTo("60");
+	}
+
+	@Test
+	void settlementOrderPosponeDebitosHastaQueLosCubraUnCredito() {
+		Transfer uncovered = transfer(a, c, "50");
+		Transfer funding = transfer(b, a, "50");
+
+		List<NettedTransfer> ordered = TransferNetting.settlementOrder(List.of(uncovered, funding),
+				opening("0", "100", "0"));
+
+		assertThat(ordered).extracting(NettedTransfer::transfer).containsExactly(funding, uncovered);
+		assertThat(ordered.get(0).sourceBalanceAfter()).isEqualByComparingTo("50");
+		assertThat(ordered.get(0).destinationBalanceAfter()).isEqualByComparingTo("50");
+		assertThat(ordered.get(1).sourceBalanceAfter()).isEqualByComparingTo("0");
+		assertThat(ordered.get(1).destinationBalanceAfter()).isEqualByComparingTo("50");
+	}
+
+	@Test
+	void settlementOrderNuncaDejaSaldosIntermediosNegativos() {
+		List<Transfer> batch = List.of(
+				transfer(c, a, "70"),
+				transfer(a, b, "80"),
+				transfer(b, c, "75"),
+				transfer(a, c, "15"));
+		Map<UUID, BigDecimal> opening = opening("100", "0", "0");
+
+		List<NettedTransfer> ordered = TransferNetting.settlementOrder(batch, opening);
+
+		assertThat(ordered).hasSize(batch.size());
+		assertThat(ordered).allSatisfy(netted -> {
+			assertThat(netted.sourceBalanceAfter()).isNotNegative();
+			assertThat(netted.destinationBalanceAfter()).isNotNegative();
+		});
+		// El saldo final de cada cuenta coincide con apertura + posición neta
+		Map<UUID, BigDecimal> positions = TransferNetting.netPositions(batch);
+		NettedTransfer last = ordered.get(ordered.size() - 1);
+		assertThat(last.sourceBalanceAfter()).isEqualByComparingTo(
+				opening.get(last.transfer().getSourceAccount().getId())
+						.add(positions.get(last.transfer().getSourceAccount().getId())));
+	}
+
+	@Test
+	void settlementOrderRechazaUnCicloSinFondosPrevios() {
+		List<Transfer> cycle = List.of(
+				transfer(a, b, "10"),
+				transfer(b, a, "10"));
+
+		assertThatThrownBy(() -> TransferNetting.settlementOrder(cycle, opening("0", "0", "0")))
+				.isInstanceOf(InsufficientBalanceException.class)
+				.hasMessageContaining("cuenta A");
+	}
+
+	private Map<UUID, BigDecimal> opening(String balanceA, String balanceB, String balanceC) {
+		return Map.of(
+				a.getId(), new BigDecimal(balanceA),
+				b.getId(), new BigDecimal(balanceB),
+				c.getId(), new BigDecimal(balanceC));
+	}
+
+	private static Account account(UUID id, String accountNumber) {
+		return Account.builder()
+				.id(id)
+				.accountNumber(accountNumber)
+				.build();
+	}
+
+	private static Transfer transfer(Account source, Account destination, String amount) {
+		return Transfer.builder()
+				.id(UUID.randomUUID())
+				.sourceAccount(source)
+				.destinationAccount(destination)
+				.amount(new BigDecimal(amount))
+				.build();
+	}
+}